@@ -4,6 +4,7 @@ import com.sun.source.tree.LiteralTree;
 import com.sun.source.tree.Tree;
 import java.util.Collection;
 import java.util.IllegalFormatException;
+import java.util.MissingFormatArgumentException;
 import java.util.Set;
 import javax.lang.model.element.AnnotationMirror;
 import org.checkerframework.afu.scenelib.Annotation;
@@ -16,6 +17,7 @@ import org.checkerframework.checker.formatter.qual.FormatMethod;
 import org.checkerframework.checker.formatter.qual.InvalidFormat;
 import org.checkerframework.checker.formatter.qual.UnknownFormat;
 import org.checkerframework.checker.formatter.util.FormatUtil;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.checker.signature.qual.CanonicalName;
 import org.checkerframework.common.basetype.BaseAnnotatedTypeFactory;
 import org.checkerframework.common.basetype.BaseTypeChecker;
@@ -27,6 +29,7 @@ import org.checkerframework.framework.type.QualifierHierarchy;
 import org.checkerframework.framework.type.treeannotator.ListTreeAnnotator;
 import org.checkerframework.framework.type.treeannotator.TreeAnnotator;
 import org.checkerframework.framework.util.QualifierKind;
+import org.checkerframework.framework.util.StringAnalysisCache;
 import org.checkerframework.javacutil.AnnotationBuilder;
 import org.checkerframework.javacutil.AnnotationMirrorSet;
 import org.checkerframework.javacutil.AnnotationUtils;
@@ -63,6 +66,14 @@ public class FormatterAnnotatedTypeFactory extends BaseAnnotatedTypeFactory {
   /** Syntax tree utilities. */
   protected final FormatterTreeUtil treeUtil = new FormatterTreeUtil(checker);
 
+  /**
+   * A cache from format strings to the result of {@link FormatUtil#formatParameterCategories}. The
+   * cached arrays must not be side-effected. For an invalid format string, the cache throws a new
+   * {@link CachedIllegalFormatException} with the message of the original exception.
+   */
+  private static final StringAnalysisCache<ConversionCategory[]> formatParameterCategoriesCache =
+      new StringAnalysisCache<>(IllegalFormatException.class, CachedIllegalFormatException::new);
+
   /** Creates a FormatterAnnotatedTypeFactory. */
   public FormatterAnnotatedTypeFactory(BaseTypeChecker checker) {
     super(checker);
@@ -173,7 +184,8 @@ public class FormatterAnnotatedTypeFactory extends BaseAnnotatedTypeFactory {
         if (format != null) {
           AnnotationMirror anno;
           try {
-            ConversionCategory[] cs = FormatUtil.formatParameterCategories(format);
+            ConversionCategory[] cs =
+                formatParameterCategoriesCache.get(format, FormatUtil::formatParameterCategories);
             anno = FormatterAnnotatedTypeFactory.this.treeUtil.categoriesToFormatAnnotation(cs);
           } catch (IllegalFormatException e) {
             anno =
@@ -331,4 +343,33 @@ public class FormatterAnnotatedTypeFactory extends BaseAnnotatedTypeFactory {
       return FORMATBOTTOM;
     }
   }
+
+  /**
+   * The exception that {@link #formatParameterCategoriesCache} throws for a format string that was
+   * already found to be invalid. It has the message of the exception that {@link
+   * FormatUtil#formatParameterCategories} threw for that string.
+   */
+  private static class CachedIllegalFormatException extends MissingFormatArgumentException {
+
+    /** The serial version UID. */
+    private static final long serialVersionUID = 20261019L;
+
+    /** The message of the original exception. */
+    private final @Nullable String message;
+
+    /**
+     * Creates a CachedIllegalFormatException.
+     *
+     * @param message the message of the original exception
+     */
+    CachedIllegalFormatException(@Nullable String message) {
+      super("-");
+      this.message = message;
+    }
+
+    @Override
+    public @Nullable String getMessage() {
+      return message;
+    }
+  }
 }
@@ -31,6 +31,7 @@ import org.checkerframework.framework.type.QualifierHierarchy;
 import org.checkerframework.framework.type.treeannotator.ListTreeAnnotator;
 import org.checkerframework.framework.type.treeannotator.TreeAnnotator;
 import org.checkerframework.framework.util.QualifierKind;
+import org.checkerframework.framework.util.StringAnalysisCache;
 import org.checkerframework.javacutil.AnnotationBuilder;
 import org.checkerframework.javacutil.AnnotationUtils;
 import org.checkerframework.javacutil.TypeSystemError;
@@ -75,6 +76,27 @@ public class I18nFormatterAnnotatedTypeFactory extends BaseAnnotatedTypeFactory
   /** Syntax tree utilities. */
   protected final I18nFormatterTreeUtil treeUtil = new I18nFormatterTreeUtil(checker);
 
+  /**
+   * A cache from format strings to the result of {@link I18nFormatUtil#formatParameterCategories}.
+   * The cached arrays must not be side-effected. For an invalid format string, the cache throws a
+   * new {@link IllegalArgumentException} with the message of the original exception.
+   */
+  private static final StringAnalysisCache<I18nConversionCategory[]>
+      formatParameterCategoriesCache =
+          new StringAnalysisCache<>(IllegalArgumentException.class, IllegalArgumentException::new);
+
+  /**
+   * Returns the result of {@link I18nFormatUtil#formatParameterCategories} on the given format
+   * string, which is cached.
+   *
+   * @param format a format string
+   * @return the conversion categories of the format string; must not be side-effected
+   * @throws IllegalArgumentException if the format string is invalid
+   */
+  /*package-private*/ static I18nConversionCategory[] formatParameterCategories(String format) {
+    return formatParameterCategoriesCache.get(format, I18nFormatUtil::formatParameterCategories);
+  }
+
   /** Create a new I18nFormatterAnnotatedTypeFactory. */
   public I18nFormatterAnnotatedTypeFactory(BaseTypeChecker checker) {
     super(checker);
@@ -202,7 +224,7 @@ public class I18nFormatterAnnotatedTypeFactory extends BaseAnnotatedTypeFactory
         if (format != null) {
           AnnotationMirror anno;
           try {
-            I18nConversionCategory[] cs = I18nFormatUtil.formatParameterCategories(format);
+            I18nConversionCategory[] cs = formatParameterCategories(format);
             anno = I18nFormatterAnnotatedTypeFactory.this.treeUtil.categoriesToFormatAnnotation(cs);
           } catch (IllegalArgumentException e) {
             anno =
@@ -30,7 +30,6 @@ import org.checkerframework.checker.i18nformatter.qual.I18nFormatFor;
 import org.checkerframework.checker.i18nformatter.qual.I18nInvalidFormat;
 import org.checkerframework.checker.i18nformatter.qual.I18nMakeFormat;
 import org.checkerframework.checker.i18nformatter.qual.I18nValidFormat;
-import org.checkerframework.checker.i18nformatter.util.I18nFormatUtil;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.checker.signature.qual.BinaryName;
 import org.checkerframework.common.basetype.BaseTypeChecker;
@@ -253,7 +252,10 @@ public class I18nFormatterTreeUtil {
       String s = ((StringLiteralNode) firstParam).getValue();
       if (translations.containsKey(s)) {
         String value = translations.get(s);
-        ret = new Result<>(I18nFormatUtil.formatParameterCategories(value), node.getTree());
+        ret =
+            new Result<>(
+                I18nFormatterAnnotatedTypeFactory.formatParameterCategories(value),
+                node.getTree());
       }
     }
     return ret;
@@ -1,6 +1,7 @@
 package org.checkerframework.checker.initialization;
 
 import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
 import com.sun.source.tree.ExpressionTree;
 import com.sun.source.tree.LiteralTree;
 import com.sun.source.tree.MemberSelectTree;
@@ -15,9 +16,11 @@ import java.lang.annotation.Annotation;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.Element;
@@ -30,6 +33,7 @@ import javax.lang.model.element.VariableElement;
 import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
 import javax.lang.model.util.Types;
 import org.checkerframework.checker.initialization.qual.FBCBottom;
 import org.checkerframework.checker.initialization.qual.Initialized;
@@ -38,6 +42,7 @@ import org.checkerframework.checker.initialization.qual.UnderInitialization;
 import org.checkerframework.checker.initialization.qual.UnknownInitialization;
 import org.checkerframework.checker.nullness.NullnessAnnotatedTypeFactory;
 import org.checkerframework.checker.nullness.NullnessChecker;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.common.basetype.BaseTypeChecker;
 import org.checkerframework.framework.flow.CFAbstractAnalysis;
 import org.checkerframework.framework.flow.CFAbstractValue;
@@ -115,6 +120,17 @@ public abstract class InitializationAnnotatedTypeFactory<
    */
   protected final Set<String> initAnnoNames;
 
+  /**
+   * A dense index of the fields that {@link InitializationStore}s track, so that a store can
+   * represent a set of fields as a bit set. When a field is first indexed, all fields of its class
+   * are indexed, so the fields of a class get consecutive indices. See {@link
+   * #getFieldIndex(VariableElement)}.
+   */
+  private final Map<VariableElement, Integer> fieldIndices = new HashMap<>();
+
+  /** The inverse of {@link #fieldIndices}: the field with index {@code i} is at position i. */
+  private final List<VariableElement> indexedFields = new ArrayList<>();
+
   /**
    * Create a new InitializationAnnotatedTypeFactory.
    *
@@ -156,6 +172,75 @@ public abstract class InitializationAnnotatedTypeFactory<
     // Its subclasses must call postInit().
   }
 
+  @Override
+  public void setRoot(@Nullable CompilationUnitTree root) {
+    super.setRoot(root);
+    // super.setRoot discarded all stores, so nothing refers to the old indices any longer.
+    fieldIndices.clear();
+    indexedFields.clear();
+  }
+
+  /**
+   * Returns the index of the given field, for use in the bit sets of {@link InitializationStore}.
+   * Assigns an index to the field (and to the other fields of its class) if it does not have one
+   * yet.
+   *
+   * @param field a field
+   * @return the index of {@code field}
+   */
+  /*package-private*/ int getFieldIndex(VariableElement field) {
+    Integer index = fieldIndices.get(field);
+    if (index != null) {
+      return index;
+    }
+    Element enclosing = field.getEnclosingElement();
+    if (enclosing != null) {
+      for (VariableElement f : ElementFilter.fieldsIn(enclosing.getEnclosedElements())) {
+        addFieldIndex(f);
+      }
+    }
+    return addFieldIndex(field);
+  }
+
+  /**
+   * Assigns the next index to the given field, unless it already has an index.
+   *
+   * @param field a field
+   * @return the index of {@code field}
+   */
+  private int addFieldIndex(VariableElement field) {
+    Integer index = fieldIndices.get(field);
+    if (index != null) {
+      return index;
+    }
+    int newIndex = indexedFields.size();
+    fieldIndices.put(field, newIndex);
+    indexedFields.add(field);
+    return newIndex;
+  }
+
+  /**
+   * Returns the index of the given field, or -1 if it does not have one. A field without an index
+   * is not in the bit set of any {@link InitializationStore}.
+   *
+   * @param field a field
+   * @return the index of {@code field}, or -1
+   */
+  /*package-private*/ int getFieldIndexIfPresent(Element field) {
+    Integer index = fieldIndices.get(field);
+    return index == null ? -1 : index;
+  }
+
+  /**
+   * Returns the field with the given index.
+   *
+   * @param index an index returned by {@link #getFieldIndex(VariableElement)}
+   * @return the field with the given index
+   */
+  /*package-private*/ VariableElement getIndexedField(int index) {
+    return indexedFields.get(index);
+  }
+
   public Set<Class<? extends Annotation>> getInitializationAnnotations() {
     return initAnnos;
   }
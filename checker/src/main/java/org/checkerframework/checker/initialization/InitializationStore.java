@@ -1,10 +1,10 @@
 package org.checkerframework.checker.initialization;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.VariableElement;
@@ -33,8 +33,13 @@ import org.plumelib.util.ToStringComparator;
 public class InitializationStore<V extends CFAbstractValue<V>, S extends InitializationStore<V, S>>
     extends CFAbstractStore<V, S> {
 
-  /** The set of fields that are initialized. */
-  protected final Set<VariableElement> initializedFields;
+  /**
+   * The set of fields that are initialized, as a bit set over the indices assigned by {@link
+   * InitializationAnnotatedTypeFactory#getFieldIndex}. Stores are copied and lubbed at every
+   * control-flow merge, and a bit set makes these operations cheap even for classes with many
+   * fields.
+   */
+  protected final BitSet initializedFields;
 
   /** The set of fields that have the 'invariant' annotation, and their value. */
   protected final Map<FieldAccess, V> invariantFields;
@@ -47,7 +52,7 @@ public class InitializationStore<V extends CFAbstractValue<V>, S extends Initial
    */
   public InitializationStore(CFAbstractAnalysis<V, S, ?> analysis, boolean sequentialSemantics) {
     super(analysis, sequentialSemantics);
-    initializedFields = new HashSet<>(4);
+    initializedFields = new BitSet();
     invariantFields = new HashMap<>(4);
   }
 
@@ -120,7 +125,7 @@ public class InitializationStore<V extends CFAbstractValue<V>, S extends Initial
   /** A copy constructor. */
   public InitializationStore(S other) {
     super(other);
-    initializedFields = new HashSet<>(other.initializedFields);
+    initializedFields = (BitSet) other.initializedFields.clone();
     invariantFields = new HashMap<>(other.invariantFields);
   }
 
@@ -135,7 +140,7 @@ public class InitializationStore<V extends CFAbstractValue<V>, S extends Initial
     boolean fieldOnThisReference = field.getReceiver() instanceof ThisReference;
     boolean staticField = field.isStatic();
     if (fieldOnThisReference || staticField) {
-      initializedFields.add(field.getField());
+      addInitializedField(field.getField());
     }
   }
 
@@ -146,12 +151,22 @@ public class InitializationStore<V extends CFAbstractValue<V>, S extends Initial
    * @param f a field that is initialized
    */
   public void addInitializedField(VariableElement f) {
-    initializedFields.add(f);
+    initializedFields.set(getInitializationTypeFactory().getFieldIndex(f));
   }
 
   /** Is the field identified by the element {@code f} initialized? */
   public boolean isFieldInitialized(Element f) {
-    return initializedFields.contains(f);
+    int index = getInitializationTypeFactory().getFieldIndexIfPresent(f);
+    return index != -1 && initializedFields.get(index);
+  }
+
+  /**
+   * Returns the type factory, which assigns the indices used in {@link #initializedFields}.
+   *
+   * @return the type factory
+   */
+  private InitializationAnnotatedTypeFactory<?, ?, ?, ?> getInitializationTypeFactory() {
+    return (InitializationAnnotatedTypeFactory<?, ?, ?, ?>) analysis.getTypeFactory();
   }
 
   @Override
@@ -162,10 +177,13 @@ public class InitializationStore<V extends CFAbstractValue<V>, S extends Initial
     @SuppressWarnings("unchecked")
     S other = (S) o;
 
-    for (Element field : other.initializedFields) {
-      if (!initializedFields.contains(field)) {
-        return false;
-      }
+    if (other.initializedFields.length() > initializedFields.length()) {
+      return false;
+    }
+    BitSet notInThis = (BitSet) other.initializedFields.clone();
+    notInThis.andNot(initializedFields);
+    if (!notInThis.isEmpty()) {
+      return false;
     }
 
     for (FieldAccess invariantField : other.invariantFields.keySet()) {
@@ -216,8 +234,8 @@ public class InitializationStore<V extends CFAbstractValue<V>, S extends Initial
     other.fieldValues.putAll(removedOtherFieldValues);
 
     // Set intersection for initializedFields.
-    result.initializedFields.addAll(other.initializedFields);
-    result.initializedFields.retainAll(initializedFields);
+    result.initializedFields.or(other.initializedFields);
+    result.initializedFields.and(initializedFields);
 
     // Set intersection for invariantFields.
     for (Map.Entry<FieldAccess, V> e : invariantFields.entrySet()) {
@@ -238,9 +256,13 @@ public class InitializationStore<V extends CFAbstractValue<V>, S extends Initial
   protected String internalVisualize(CFGVisualizer<V, S, ?> viz) {
     String superVisualize = super.internalVisualize(viz);
 
+    InitializationAnnotatedTypeFactory<?, ?, ?, ?> atypeFactory = getInitializationTypeFactory();
+    List<VariableElement> initializedVars = new ArrayList<>(initializedFields.cardinality());
+    for (int i = initializedFields.nextSetBit(0); i >= 0; i = initializedFields.nextSetBit(i + 1)) {
+      initializedVars.add(atypeFactory.getIndexedField(i));
+    }
     String initializedVisualize =
-        viz.visualizeStoreKeyVal(
-            "initialized fields", ToStringComparator.sorted(initializedFields));
+        viz.visualizeStoreKeyVal("initialized fields", ToStringComparator.sorted(initializedVars));
 
     List<VariableElement> invariantVars =
         CollectionsPlume.mapList(FieldAccess::getField, invariantFields.keySet());
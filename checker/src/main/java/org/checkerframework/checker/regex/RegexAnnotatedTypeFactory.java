@@ -10,6 +10,7 @@ import java.lang.annotation.Annotation;
 import java.util.Collection;
 import java.util.Set;
 import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.type.TypeKind;
@@ -19,7 +20,6 @@ import org.checkerframework.checker.regex.qual.PolyRegex;
 import org.checkerframework.checker.regex.qual.Regex;
 import org.checkerframework.checker.regex.qual.RegexBottom;
 import org.checkerframework.checker.regex.qual.UnknownRegex;
-import org.checkerframework.checker.regex.util.RegexUtil;
 import org.checkerframework.common.basetype.BaseAnnotatedTypeFactory;
 import org.checkerframework.common.basetype.BaseTypeChecker;
 import org.checkerframework.framework.flow.CFAbstractAnalysis;
@@ -39,6 +39,7 @@ import org.checkerframework.framework.type.treeannotator.LiteralTreeAnnotator;
 import org.checkerframework.framework.type.treeannotator.PropagationTreeAnnotator;
 import org.checkerframework.framework.type.treeannotator.TreeAnnotator;
 import org.checkerframework.framework.util.QualifierKind;
+import org.checkerframework.framework.util.StringAnalysisCache;
 import org.checkerframework.javacutil.AnnotationBuilder;
 import org.checkerframework.javacutil.AnnotationMirrorSet;
 import org.checkerframework.javacutil.AnnotationUtils;
@@ -291,9 +292,53 @@ public class RegexAnnotatedTypeFactory extends BaseAnnotatedTypeFactory {
     return AnnotationUtils.getElementValue(anno, regexValueElement, Integer.class, 0);
   }
 
-  /** Returns the number of groups in the given regex String. */
+  /**
+   * Returns the number of groups in the given regex String.
+   *
+   * @param regexp a regular expression
+   * @return the number of groups in {@code regexp}
+   * @throws PatternSyntaxException if {@code regexp} is not a valid regular expression
+   */
   public static int getGroupCount(@Regex String regexp) {
-    return Pattern.compile(regexp).matcher("").groupCount();
+    int groupCount = getGroupCountIfRegex(regexp);
+    if (groupCount == -1) {
+      // Compile the string again, to throw the exception that describes the problem.
+      Pattern.compile(regexp);
+    }
+    return groupCount;
+  }
+
+  /**
+   * A cache from strings to the result of {@link #computeGroupCountIfRegex}. String literals and
+   * the prefixes of long concatenations recur often, and each one used to be compiled twice.
+   */
+  private static final StringAnalysisCache<Integer> groupCountCache = new StringAnalysisCache<>();
+
+  /**
+   * Returns the number of groups in the given string if it is a valid regular expression, or -1 if
+   * it is not. Each distinct string is compiled at most once (as long as it stays in the cache).
+   *
+   * @param s a string
+   * @return the number of groups in {@code s}, or -1 if {@code s} is not a regular expression
+   */
+  private static int getGroupCountIfRegex(String s) {
+    return groupCountCache.get(s, RegexAnnotatedTypeFactory::computeGroupCountIfRegex);
+  }
+
+  /**
+   * Compiles the given string to determine whether it is a valid regular expression and, if so,
+   * how many groups it has.
+   *
+   * @param s a string
+   * @return the number of groups in {@code s}, or -1 if {@code s} is not a regular expression
+   */
+  @SuppressWarnings("regex:argument") // PatternSyntaxException is caught
+  private static Integer computeGroupCountIfRegex(String s) {
+    try {
+      return Pattern.compile(s).matcher("").groupCount();
+    } catch (PatternSyntaxException e) {
+      return -1;
+    }
   }
 
   @Override
@@ -346,8 +391,8 @@ public class RegexAnnotatedTypeFactory extends BaseAnnotatedTypeFactory {
           regex = Character.toString((Character) tree.getValue());
         }
         if (regex != null) {
-          if (RegexUtil.isRegex(regex)) {
-            int groupCount = getGroupCount(regex);
+          int groupCount = getGroupCountIfRegex(regex);
+          if (groupCount != -1) {
             type.addAnnotation(createRegexAnnotation(groupCount));
           } else {
             type.addAnnotation(createPartialRegexAnnotation(regex));
@@ -387,8 +432,8 @@ public class RegexAnnotatedTypeFactory extends BaseAnnotatedTypeFactory {
           String lRegex = getPartialRegexValue(lExpr);
           String rRegex = getPartialRegexValue(rExpr);
           String concat = lRegex + rRegex;
-          if (RegexUtil.isRegex(concat)) {
-            int groupCount = getGroupCount(concat);
+          int groupCount = getGroupCountIfRegex(concat);
+          if (groupCount != -1) {
             type.addAnnotation(createRegexAnnotation(groupCount));
           } else {
             type.addAnnotation(createPartialRegexAnnotation(concat));
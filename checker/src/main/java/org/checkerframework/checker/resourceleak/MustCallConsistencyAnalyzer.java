@@ -16,6 +16,7 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
@@ -81,6 +82,7 @@ import org.checkerframework.javacutil.TreePathUtil;
 import org.checkerframework.javacutil.TreeUtils;
 import org.checkerframework.javacutil.TypeSystemError;
 import org.checkerframework.javacutil.TypesUtils;
+import org.checkerframework.javacutil.UserError;
 
 /**
  * An analyzer that checks consistency of {@link MustCall} and {@link CalledMethods} types, thereby
@@ -182,6 +184,27 @@ class MustCallConsistencyAnalyzer {
   /** True if -AcountMustCall was passed on the command line. */
   private final boolean countMustCall;
 
+  /**
+   * The value of the {@code -AobligationStateLimit} command-line option, or -1 if it was not
+   * passed. See {@link ResourceLeakChecker#OBLIGATION_STATE_LIMIT}.
+   */
+  private final int obligationStateLimit;
+
+  /**
+   * Canonical instances of the sets of Obligations that have reached some block during the current
+   * call to {@link #analyze}. Equal sets are represented by a single object, so that the {@code
+   * visited} set of the analysis can usually compare them by reference.
+   */
+  private final Map<ImmutableSet<Obligation>, ImmutableSet<Obligation>> canonicalObligationSets =
+      new HashMap<>();
+
+  /**
+   * Null until the current call to {@link #analyze} has explored more than {@link
+   * #obligationStateLimit} states. From then on, it maps each block to the union of all the sets of
+   * Obligations that have reached it since, and only that union is propagated into the block.
+   */
+  private @Nullable Map<Block, ImmutableSet<Obligation>> mergedObligations;
+
   /**
    * An Obligation is a dataflow fact: a set of resource aliases. Abstractly, each Obligation
    * represents a resource that the analyzed program which might have a must-call obligation. Each
@@ -209,6 +232,9 @@ class MustCallConsistencyAnalyzer {
      */
     public final ImmutableSet<ResourceAlias> resourceAliases;
 
+    /** The hash code of this, which is cached because Obligations are hashed very frequently. */
+    private final int hashCode;
+
     /**
      * Create an Obligation from a set of resource aliases.
      *
@@ -216,6 +242,7 @@ class MustCallConsistencyAnalyzer {
      */
     public Obligation(Set<ResourceAlias> resourceAliases) {
       this.resourceAliases = ImmutableSet.copyOf(resourceAliases);
+      this.hashCode = Objects.hash(this.resourceAliases);
     }
 
     /**
@@ -366,12 +393,12 @@ class MustCallConsistencyAnalyzer {
         return false;
       }
       Obligation that = (Obligation) obj;
-      return this.resourceAliases.equals(that.resourceAliases);
+      return this.hashCode == that.hashCode && this.resourceAliases.equals(that.resourceAliases);
     }
 
     @Override
     public int hashCode() {
-      return Objects.hash(resourceAliases);
+      return hashCode;
     }
   }
 
@@ -413,6 +440,9 @@ class MustCallConsistencyAnalyzer {
      */
     public final boolean derivedFromMustCallAliasParam;
 
+    /** The hash code of this, which is cached because resource aliases are hashed frequently. */
+    private final int hashCode;
+
     /**
      * Create a new resource alias. This constructor should only be used if the resource alias was
      * not derived from a method parameter annotated as {@link MustCallAlias}.
@@ -437,6 +467,7 @@ class MustCallConsistencyAnalyzer {
       this.reference = reference;
       this.tree = tree;
       this.derivedFromMustCallAliasParam = derivedFromMustCallAliasParam;
+      this.hashCode = Objects.hash(reference, tree);
     }
 
     @Override
@@ -453,12 +484,14 @@ class MustCallConsistencyAnalyzer {
         return false;
       }
       ResourceAlias that = (ResourceAlias) o;
-      return reference.equals(that.reference) && tree.equals(that.tree);
+      return hashCode == that.hashCode
+          && reference.equals(that.reference)
+          && tree.equals(that.tree);
     }
 
     @Override
     public int hashCode() {
-      return Objects.hash(reference, tree);
+      return hashCode;
     }
   }
 
@@ -480,6 +513,32 @@ class MustCallConsistencyAnalyzer {
     this.permitInitializationLeak = checker.hasOption("permitInitializationLeak");
     this.noLightweightOwnership = checker.hasOption(MustCallChecker.NO_LIGHTWEIGHT_OWNERSHIP);
     this.countMustCall = checker.hasOption(ResourceLeakChecker.COUNT_MUST_CALL);
+    this.obligationStateLimit = getObligationStateLimit(checker);
+  }
+
+  /**
+   * Returns the value of the {@code -AobligationStateLimit} command-line option.
+   *
+   * @param checker the Resource Leak Checker
+   * @return the maximum number of states to explore per method before merging, or -1 if there is
+   *     no limit
+   */
+  private static int getObligationStateLimit(ResourceLeakChecker checker) {
+    String limit = checker.getOption(ResourceLeakChecker.OBLIGATION_STATE_LIMIT);
+    if (limit == null) {
+      return -1;
+    }
+    try {
+      int result = Integer.parseInt(limit);
+      if (result > 0) {
+        return result;
+      }
+    } catch (NumberFormatException e) {
+      // fall through to the error below
+    }
+    throw new UserError(
+        "-A%s must be a positive integer, found: %s",
+        ResourceLeakChecker.OBLIGATION_STATE_LIMIT, limit);
   }
 
   /**
@@ -505,14 +564,27 @@ class MustCallConsistencyAnalyzer {
     // not yet been removed and analyzed.
     Set<BlockWithObligations> visited = new HashSet<>();
     Deque<BlockWithObligations> worklist = new ArrayDeque<>();
+    canonicalObligationSets.clear();
+    mergedObligations = null;
 
     // Add any owning parameters to the initial set of variables to track.
     BlockWithObligations entry =
-        new BlockWithObligations(cfg.getEntryBlock(), computeOwningParameters(cfg));
+        new BlockWithObligations(cfg.getEntryBlock(), canonicalize(computeOwningParameters(cfg)));
     worklist.add(entry);
     visited.add(entry);
 
     while (!worklist.isEmpty()) {
+      if (mergedObligations == null
+          && obligationStateLimit != -1
+          && visited.size() > obligationStateLimit) {
+        mergedObligations = new HashMap<>();
+        UnderlyingAST ast = cfg.getUnderlyingAST();
+        Tree reportTree =
+            ast.getKind() == Kind.METHOD
+                ? ((UnderlyingAST.CFGMethod) ast).getMethod()
+                : ast.getCode();
+        checker.reportWarning(reportTree, "obligation.state.limit", obligationStateLimit);
+      }
       BlockWithObligations current = worklist.remove();
       // A *mutable* set that eventually holds the set of dataflow facts to be propagated to
       // successor blocks. The set is initialized to the current dataflow facts and updated by
@@ -1895,7 +1967,7 @@ class MustCallConsistencyAnalyzer {
         }
       }
 
-      propagate(new BlockWithObligations(successor, successorObligations), visited, worklist);
+      propagate(successor, successorObligations, visited, worklist);
     }
   }
 
@@ -2186,23 +2258,61 @@ class MustCallConsistencyAnalyzer {
   }
 
   /**
-   * If the input {@code state} has not been visited yet, add it to {@code visited} and {@code
-   * worklist}.
+   * If the state consisting of {@code block} and {@code obligations} has not been visited yet, add
+   * it to {@code visited} and {@code worklist}.
+   *
+   * <p>Once the current method has reached the {@code -AobligationStateLimit}, {@code obligations}
+   * is first merged with all other Obligations that have since reached {@code block}, and the
+   * merged set is propagated instead. Tracking the union of the Obligations that reach a block is
+   * sound: every Obligation is still checked, but one that exists on only some of the paths into
+   * the block may lead to a spurious error on the others.
    *
-   * @param state the current state
+   * @param block the block
+   * @param obligations the Obligations on entry to {@code block}
    * @param visited the states that have been analyzed or are already on the worklist
    * @param worklist the states that will be analyzed
    */
-  private static void propagate(
-      BlockWithObligations state,
+  private void propagate(
+      Block block,
+      Set<Obligation> obligations,
       Set<BlockWithObligations> visited,
       Deque<BlockWithObligations> worklist) {
+    ImmutableSet<Obligation> canonicalObligations = canonicalize(obligations);
+    if (mergedObligations != null) {
+      ImmutableSet<Obligation> previous = mergedObligations.get(block);
+      if (previous != null) {
+        if (previous.containsAll(canonicalObligations)) {
+          return;
+        }
+        canonicalObligations =
+            canonicalize(
+                ImmutableSet.<Obligation>builder()
+                    .addAll(previous)
+                    .addAll(canonicalObligations)
+                    .build());
+      }
+      mergedObligations.put(block, canonicalObligations);
+    }
 
+    BlockWithObligations state = new BlockWithObligations(block, canonicalObligations);
     if (visited.add(state)) {
       worklist.add(state);
     }
   }
 
+  /**
+   * Returns the canonical immutable set that is equal to {@code obligations}.
+   *
+   * @param obligations a set of Obligations
+   * @return the canonical set equal to {@code obligations}
+   */
+  private ImmutableSet<Obligation> canonicalize(Set<Obligation> obligations) {
+    ImmutableSet<Obligation> immutableObligations = ImmutableSet.copyOf(obligations);
+    ImmutableSet<Obligation> canonical =
+        canonicalObligationSets.putIfAbsent(immutableObligations, immutableObligations);
+    return canonical == null ? immutableObligations : canonical;
+  }
+
   /**
    * Formats a list of must-call method names to be printed in an error message.
    *
@@ -2234,6 +2344,9 @@ class MustCallConsistencyAnalyzer {
     /** The dataflow facts. */
     public final ImmutableSet<Obligation> obligations;
 
+    /** The hash code of this, which is cached because the worklist hashes every state. */
+    private final int hashCode;
+
     /**
      * Create a new BlockWithObligations from a block and a set of dataflow facts.
      *
@@ -2244,6 +2357,7 @@ class MustCallConsistencyAnalyzer {
     public BlockWithObligations(Block b, Set<Obligation> obligations) {
       this.block = b;
       this.obligations = ImmutableSet.copyOf(obligations);
+      this.hashCode = Objects.hash(block, this.obligations);
     }
 
     @Override
@@ -2255,12 +2369,14 @@ class MustCallConsistencyAnalyzer {
         return false;
       }
       BlockWithObligations that = (BlockWithObligations) o;
-      return block.equals(that.block) && obligations.equals(that.obligations);
+      return hashCode == that.hashCode
+          && block.equals(that.block)
+          && obligations.equals(that.obligations);
     }
 
     @Override
     public int hashCode() {
-      return Objects.hash(block, obligations);
+      return hashCode;
     }
   }
 }
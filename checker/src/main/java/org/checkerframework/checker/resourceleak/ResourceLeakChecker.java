@@ -20,6 +20,7 @@ import org.checkerframework.framework.source.SupportedOptions;
   "permitStaticOwning",
   "permitInitializationLeak",
   ResourceLeakChecker.COUNT_MUST_CALL,
+  ResourceLeakChecker.OBLIGATION_STATE_LIMIT,
   MustCallChecker.NO_CREATES_MUSTCALLFOR,
   MustCallChecker.NO_LIGHTWEIGHT_OWNERSHIP,
   MustCallChecker.NO_RESOURCE_ALIASES
@@ -37,6 +38,14 @@ public class ResourceLeakChecker extends CalledMethodsChecker {
    */
   public static final String COUNT_MUST_CALL = "countMustCall";
 
+  /**
+   * Command-line option for the maximum number of distinct pairs of a basic block and a set of
+   * Obligations that the consistency analysis explores in a single method. Beyond the limit, the
+   * analysis tracks only the union of the Obligations reaching each block, which bounds its cost
+   * but may lead to false positive errors, and it issues an "obligation.state.limit" warning.
+   */
+  public static final String OBLIGATION_STATE_LIMIT = "obligationStateLimit";
+
   /**
    * The number of expressions with must-call obligations that were checked. Incremented only if the
    * {@link #COUNT_MUST_CALL} command-line option was supplied.
@@ -0,0 +1,28 @@
+package org.checkerframework.checker.test.junit;
+
+import java.io.File;
+import java.util.List;
+import org.checkerframework.framework.test.CheckerFrameworkPerDirectoryTest;
+import org.junit.runners.Parameterized.Parameters;
+
+/** JUnit tests for the Nullness Checker -- testing {@code -AonlyMethods} command-line argument. */
+public class NullnessOnlyMethodsTest extends CheckerFrameworkPerDirectoryTest {
+
+  /**
+   * Create a NullnessOnlyMethodsTest.
+   *
+   * @param testFiles the files containing test code, which will be type-checked
+   */
+  public NullnessOnlyMethodsTest(List<File> testFiles) {
+    super(
+        testFiles,
+        org.checkerframework.checker.nullness.NullnessChecker.class,
+        "nullness",
+        "-AonlyMethods=\\.checkMe$");
+  }
+
+  @Parameters
+  public static String[] getTestDirs() {
+    return new String[] {"nullness-onlymethods"};
+  }
+}
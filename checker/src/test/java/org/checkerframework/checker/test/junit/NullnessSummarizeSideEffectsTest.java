@@ -0,0 +1,28 @@
+package org.checkerframework.checker.test.junit;
+
+import java.io.File;
+import java.util.List;
+import org.checkerframework.framework.test.CheckerFrameworkPerDirectoryTest;
+import org.junit.runners.Parameterized.Parameters;
+
+/** JUnit tests for the Nullness Checker with side-effect summaries. */
+public class NullnessSummarizeSideEffectsTest extends CheckerFrameworkPerDirectoryTest {
+
+  /**
+   * Create a NullnessSummarizeSideEffectsTest.
+   *
+   * @param testFiles the files containing test code, which will be type-checked
+   */
+  public NullnessSummarizeSideEffectsTest(List<File> testFiles) {
+    super(
+        testFiles,
+        org.checkerframework.checker.nullness.NullnessChecker.class,
+        "nullness",
+        "-AsummarizeSideEffects");
+  }
+
+  @Parameters
+  public static String[] getTestDirs() {
+    return new String[] {"nullness-summarizesideeffects"};
+  }
+}
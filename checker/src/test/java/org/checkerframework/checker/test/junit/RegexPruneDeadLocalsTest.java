@@ -0,0 +1,31 @@
+package org.checkerframework.checker.test.junit;
+
+import java.io.File;
+import java.util.List;
+import org.checkerframework.framework.test.CheckerFrameworkPerDirectoryTest;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * JUnit tests for the Regex Checker when dataflow analysis prunes dead local variables from its
+ * stores. The diagnostics must be the same as without {@code -ApruneDeadLocals}.
+ */
+public class RegexPruneDeadLocalsTest extends CheckerFrameworkPerDirectoryTest {
+
+  /**
+   * Create a RegexPruneDeadLocalsTest.
+   *
+   * @param testFiles the files containing test code, which will be type-checked
+   */
+  public RegexPruneDeadLocalsTest(List<File> testFiles) {
+    super(
+        testFiles,
+        org.checkerframework.checker.regex.RegexChecker.class,
+        "regex",
+        "-ApruneDeadLocals");
+  }
+
+  @Parameters
+  public static String[] getTestDirs() {
+    return new String[] {"regex", "regex_poly", "regex-prunedeadlocals"};
+  }
+}
@@ -0,0 +1,31 @@
+package org.checkerframework.checker.test.junit;
+
+import java.io.File;
+import java.util.List;
+import org.checkerframework.framework.test.CheckerFrameworkPerDirectoryTest;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * JUnit tests for the Regex Checker when dataflow analysis skips irrelevant methods. The
+ * diagnostics must be the same as without {@code -AskipIrrelevantDataflow}.
+ */
+public class RegexSkipIrrelevantDataflowTest extends CheckerFrameworkPerDirectoryTest {
+
+  /**
+   * Create a RegexSkipIrrelevantDataflowTest.
+   *
+   * @param testFiles the files containing test code, which will be type-checked
+   */
+  public RegexSkipIrrelevantDataflowTest(List<File> testFiles) {
+    super(
+        testFiles,
+        org.checkerframework.checker.regex.RegexChecker.class,
+        "regex",
+        "-AskipIrrelevantDataflow");
+  }
+
+  @Parameters
+  public static String[] getTestDirs() {
+    return new String[] {"regex", "regex_poly", "regex-skipirrelevantdataflow"};
+  }
+}
@@ -0,0 +1,142 @@
+package org.checkerframework.checker.test.junit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.regex.PatternSyntaxException;
+import org.checkerframework.checker.formatter.qual.ConversionCategory;
+import org.checkerframework.checker.formatter.util.FormatUtil;
+import org.checkerframework.checker.i18nformatter.util.I18nFormatUtil;
+import org.checkerframework.checker.regex.RegexAnnotatedTypeFactory;
+import org.checkerframework.framework.util.StringAnalysisCache;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests StringAnalysisCache and the cached analyses of the Regex and Format String Checkers. Each
+ * string is analyzed twice, so that the second result comes from the cache.
+ */
+public class StringAnalysisCacheTest {
+
+  /** A string that is a valid format string but not a valid regular expression. */
+  static final String FORMAT_NOT_REGEX = "(%d";
+
+  @Test
+  public void validRegexTest() {
+    Assert.assertEquals(2, RegexAnnotatedTypeFactory.getGroupCount("(a)(b)"));
+    Assert.assertEquals(2, RegexAnnotatedTypeFactory.getGroupCount("(a)(b)"));
+  }
+
+  @Test
+  public void invalidRegexTest() {
+    PatternSyntaxException first = getGroupCountException(FORMAT_NOT_REGEX);
+    PatternSyntaxException second = getGroupCountException(FORMAT_NOT_REGEX);
+    Assert.assertNotSame(first, second);
+    Assert.assertEquals(first.getMessage(), second.getMessage());
+  }
+
+  @Test
+  public void sameStringDifferentAnalysesTest() {
+    // The regex analysis of the string fails, and is cached.
+    getGroupCountException(FORMAT_NOT_REGEX);
+    getGroupCountException(FORMAT_NOT_REGEX);
+
+    // The format string analysis of the same string succeeds, and is cached separately.
+    AtomicInteger calls = new AtomicInteger();
+    StringAnalysisCache<ConversionCategory[]> cache =
+        new StringAnalysisCache<>(IllegalArgumentException.class, IllegalArgumentException::new);
+    Function<String, ConversionCategory[]> analysis =
+        counting(calls, FormatUtil::formatParameterCategories);
+    ConversionCategory[] first = cache.get(FORMAT_NOT_REGEX, analysis);
+    ConversionCategory[] second = cache.get(FORMAT_NOT_REGEX, analysis);
+    Assert.assertArrayEquals(new ConversionCategory[] {ConversionCategory.INT}, first);
+    Assert.assertSame(first, second);
+    Assert.assertEquals(1, calls.get());
+  }
+
+  @Test
+  public void cachedFailureTest() {
+    AtomicInteger calls = new AtomicInteger();
+    StringAnalysisCache<Object> cache =
+        new StringAnalysisCache<>(IllegalArgumentException.class, IllegalArgumentException::new);
+    Function<String, Object> analysis = counting(calls, I18nFormatUtil::formatParameterCategories);
+    IllegalArgumentException first = getException(cache, "{0", analysis);
+    IllegalArgumentException second = getException(cache, "{0", analysis);
+    Assert.assertNotSame(first, second);
+    Assert.assertEquals(first.getMessage(), second.getMessage());
+    Assert.assertEquals(1, calls.get());
+  }
+
+  @Test
+  public void uncachedFailureTest() {
+    AtomicInteger calls = new AtomicInteger();
+    StringAnalysisCache<Object> cache =
+        new StringAnalysisCache<>(IllegalArgumentException.class, IllegalArgumentException::new);
+    Function<String, Object> analysis =
+        counting(
+            calls,
+            s -> {
+              throw new IllegalStateException(s);
+            });
+    for (int i = 0; i < 2; i++) {
+      try {
+        cache.get("s", analysis);
+        Assert.fail("expected IllegalStateException");
+      } catch (IllegalStateException e) {
+        Assert.assertEquals("s", e.getMessage());
+      }
+    }
+    // An exception of another type than the failure type is not cached.
+    Assert.assertEquals(2, calls.get());
+  }
+
+  /**
+   * Returns the exception that {@link RegexAnnotatedTypeFactory#getGroupCount} throws for the given
+   * string.
+   *
+   * @param s a string that is not a regular expression
+   * @return the exception that {@code getGroupCount} throws for {@code s}
+   */
+  @SuppressWarnings("regex:argument") // testing an invalid regular expression
+  private static PatternSyntaxException getGroupCountException(String s) {
+    try {
+      RegexAnnotatedTypeFactory.getGroupCount(s);
+    } catch (PatternSyntaxException e) {
+      return e;
+    }
+    throw new AssertionError("expected PatternSyntaxException for " + s);
+  }
+
+  /**
+   * Returns the exception that {@code cache} throws for the given string.
+   *
+   * @param cache a cache
+   * @param s a string whose analysis fails
+   * @param analysis the analysis
+   * @return the exception that {@code cache} throws for {@code s}
+   */
+  private static IllegalArgumentException getException(
+      StringAnalysisCache<Object> cache, String s, Function<String, Object> analysis) {
+    try {
+      cache.get(s, analysis);
+    } catch (IllegalArgumentException e) {
+      return e;
+    }
+    throw new AssertionError("expected IllegalArgumentException for " + s);
+  }
+
+  /**
+   * Returns an analysis that counts its calls in {@code calls} and then applies {@code analysis}.
+   *
+   * @param <T> the result of the analysis
+   * @param calls the number of calls of the analysis
+   * @param analysis an analysis
+   * @return {@code analysis}, counting its calls
+   */
+  private static <T> Function<String, T> counting(
+      AtomicInteger calls, Function<String, ? extends T> analysis) {
+    return s -> {
+      calls.incrementAndGet();
+      return analysis.apply(s);
+    };
+  }
+}
@@ -0,0 +1,30 @@
+package org.checkerframework.checker.test.junit;
+
+import java.io.File;
+import java.util.List;
+import org.checkerframework.framework.test.CheckerFrameworkPerDirectoryTest;
+import org.junit.runners.Parameterized;
+
+/** Tests for stub parsing, with the stub files of a directory parsed on worker threads. */
+public class StubparserTaintingParallelTest extends CheckerFrameworkPerDirectoryTest {
+
+  /**
+   * Create a StubparserTaintingParallelTest.
+   *
+   * @param testFiles the files containing test code, which will be type-checked
+   */
+  public StubparserTaintingParallelTest(List<File> testFiles) {
+    super(
+        testFiles,
+        org.checkerframework.checker.tainting.TaintingChecker.class,
+        "stubparser-tainting",
+        "-AmergeStubsWithSource",
+        "-Astubs=tests/stubparser-tainting",
+        "-AparseAnnotationFilesInParallel");
+  }
+
+  @Parameterized.Parameters
+  public static String[] getTestDirs() {
+    return new String[] {"stubparser-tainting"};
+  }
+}
@@ -0,0 +1,61 @@
+import java.util.function.Supplier;
+import org.checkerframework.checker.nullness.qual.*;
+
+public class OnlyMethods1 {
+
+  // Field initializers are always checked.
+  // :: error: (assignment)
+  Object f = null;
+
+  @Nullable Object g = "g";
+
+  // The methods of an anonymous class in a field initializer are always checked.
+  Object h =
+      new Object() {
+        @Override
+        public String toString() {
+          // :: error: (return)
+          return null;
+        }
+      };
+
+  static Object skipMe() {
+    // The methods of a local class are skipped along with the method that contains them.
+    class Local {
+      Object get() {
+        return null;
+      }
+    }
+    return null;
+  }
+
+  Object checkMe() {
+    if (g != null) {
+      g.toString();
+    }
+    Supplier<Object> s =
+        // :: error: (return)
+        () -> null;
+    Object o =
+        new Object() {
+          @Override
+          public String toString() {
+            // :: error: (return)
+            return null;
+          }
+        };
+    // :: error: (return)
+    return null;
+  }
+
+  static class Nested {
+    Object checkMe() {
+      // :: error: (return)
+      return null;
+    }
+
+    Object skipMeToo() {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,91 @@
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+public class SideEffectSummaries {
+
+  @Nullable Object f;
+
+  @Nullable Object g;
+
+  int count;
+
+  int[] counts = new int[10];
+
+  private void increment() {
+    count++;
+  }
+
+  private void incrementTwice() {
+    increment();
+    increment();
+  }
+
+  private void clearG() {
+    g = null;
+  }
+
+  private void incrementElement() {
+    counts[0]++;
+  }
+
+  private static int helper(int x) {
+    return x + 1;
+  }
+
+  void overridable() {}
+
+  private void callsOverridable() {
+    overridable();
+  }
+
+  private void recursive(int n) {
+    if (n > 0) {
+      recursive(n - 1);
+    }
+  }
+
+  void writesOtherFields() {
+    if (f != null && g != null) {
+      increment();
+      f.toString();
+      g.toString();
+      incrementTwice();
+      incrementElement();
+      helper(count);
+      f.toString();
+      g.toString();
+      clearG();
+      f.toString();
+      // :: error: (dereference.of.nullable)
+      g.toString();
+    }
+  }
+
+  void callsUnknown(Runnable r) {
+    if (f != null) {
+      r.run();
+      // :: error: (dereference.of.nullable)
+      f.toString();
+    }
+  }
+
+  void callsOverridableMethods() {
+    if (f != null) {
+      overridable();
+      // :: error: (dereference.of.nullable)
+      f.toString();
+    }
+    if (f != null) {
+      callsOverridable();
+      // :: error: (dereference.of.nullable)
+      f.toString();
+    }
+  }
+
+  void callsRecursive() {
+    if (f != null) {
+      recursive(3);
+      // :: error: (dereference.of.nullable)
+      f.toString();
+    }
+  }
+}
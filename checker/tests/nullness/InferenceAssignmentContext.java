@@ -0,0 +1,47 @@
+import java.util.ArrayList;
+import java.util.List;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+// The same generic invocation appears in contexts whose types differ only in their annotations.
+// Its type argument is inferred from the context, so the inferred type arguments for one context
+// must not be reused for another.
+public class InferenceAssignmentContext {
+
+  static <T extends @Nullable Object> List<T> newList() {
+    return new ArrayList<>();
+  }
+
+  void nonNullFirst() {
+    List<String> nonNull = newList();
+    List<@Nullable String> nullable = newList();
+    nullable.add(null);
+    // :: error: (argument)
+    nonNull.add(null);
+  }
+
+  void nullableFirst() {
+    List<@Nullable String> nullable = newList();
+    List<String> nonNull = newList();
+    // :: error: (argument)
+    nonNull.add(null);
+    nullable.add(null);
+  }
+
+  void arguments() {
+    takeNonNull(newList());
+    takeNullable(newList());
+    takeNonNull(newList());
+  }
+
+  List<@Nullable String> returnNullable() {
+    return newList();
+  }
+
+  List<String> returnNonNull() {
+    return newList();
+  }
+
+  void takeNonNull(List<String> list) {}
+
+  void takeNullable(List<@Nullable String> list) {}
+}
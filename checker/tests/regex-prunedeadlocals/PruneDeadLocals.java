@@ -0,0 +1,77 @@
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import org.checkerframework.checker.regex.qual.Regex;
+
+public class PruneDeadLocals {
+
+  // r is dead after the assignment to t, but t keeps its own refinement.
+  void copy(boolean flag) {
+    String r = "(a)";
+    String t = r;
+    if (flag) {
+      System.out.println();
+    }
+    @Regex String u = t;
+  }
+
+  // r is live in the loop until its last use, and dead after it.
+  void loop(String[] args) {
+    String r = "a*";
+    for (String arg : args) {
+      @Regex String v = r;
+    }
+    r = args[0];
+    // :: error: (assignment)
+    @Regex String w = r;
+  }
+
+  // r is read only in the condition, so it must stay live until then.
+  void condition(String arg) {
+    String r = "a+";
+    String other = "(";
+    if (arg.isEmpty() && Pattern.compile(r) != null) {
+      other = r;
+    }
+    // :: error: (assignment)
+    @Regex String x = other;
+  }
+
+  // A lambda uses the local variables that it captures when it is created.
+  Supplier<@Regex String> lambda(boolean flag) {
+    String r = "b*";
+    if (flag) {
+      System.out.println();
+    }
+    Supplier<@Regex String> sup = () -> r;
+    return sup;
+  }
+
+  // An anonymous class uses the local variables that it captures when it is created.
+  Supplier<@Regex String> anonymous(boolean flag) {
+    String r = "c*";
+    if (flag) {
+      System.out.println();
+    }
+    return new Supplier<@Regex String>() {
+      @Override
+      public @Regex String get() {
+        return r;
+      }
+    };
+  }
+
+  // A local class uses the local variables that it captures when it is declared.
+  Supplier<@Regex String> localClass(boolean flag) {
+    String r = "d*";
+    if (flag) {
+      System.out.println();
+    }
+    class L implements Supplier<@Regex String> {
+      @Override
+      public @Regex String get() {
+        return r;
+      }
+    }
+    return new L();
+  }
+}
@@ -0,0 +1,58 @@
+import java.util.ArrayList;
+import java.util.List;
+import org.checkerframework.checker.regex.qual.Regex;
+import org.checkerframework.framework.qual.EnsuresQualifier;
+
+public class SkipIrrelevantMethods {
+
+  static class Point {
+    int x;
+    int y;
+  }
+
+  // No type in this method is relevant, so dataflow analysis is skipped.
+  void irrelevant(Point p) {
+    Point q = new Point();
+    q.x = p.x + 1;
+    boolean b = q.x > p.y;
+  }
+
+  // The type argument is relevant, so the method is analyzed.
+  void typeArgument(List<@Regex String> regexes) {
+    List<@Regex String> copy = regexes;
+    @Regex String first = copy.get(0);
+  }
+
+  String g;
+
+  // The postcondition must be checked using the exit store of the method, even though the method
+  // contains no relevant type.
+  @EnsuresQualifier(expression = "this.g", qualifier = Regex.class)
+  // :: error: (contracts.postcondition)
+  void noRelevantTypes() {}
+
+  // The caller relies on the postcondition of the callee: without it, this.g is not a regex.
+  void callsMethodWithPostcondition(Point p) {
+    noRelevantTypes();
+    @Regex String r = g;
+  }
+
+  void doesNotCallMethodWithPostcondition(Point p) {
+    // :: error: (assignment)
+    @Regex String r = g;
+  }
+
+  // The lambda is analyzed, although the enclosing method has no relevant types.
+  void lambda() {
+    Runnable r =
+        () -> {
+          String s = "(";
+          // :: error: (assignment)
+          @Regex String t = s;
+        };
+  }
+
+  void local() {
+    List<Point> points = new ArrayList<>();
+  }
+}
@@ -0,0 +1,69 @@
+// Test for -AobligationStateLimit: methods that explore more states than the limit get a
+// warning, and leaks in them are still reported.
+
+import java.io.FileInputStream;
+import java.io.IOException;
+
+class ObligationStateLimit {
+
+  void small(String name) throws IOException {
+    FileInputStream fis = new FileInputStream(name);
+    fis.close();
+  }
+
+  // :: warning: (obligation.state.limit)
+  int manyBranches(String name, boolean b) throws IOException {
+    // :: error: (required.method.not.called)
+    FileInputStream fis = new FileInputStream(name);
+    int x = 0;
+    if (b) {
+      x++;
+    }
+    if (x > 1) {
+      x++;
+    }
+    if (x > 2) {
+      x++;
+    }
+    if (x > 3) {
+      x++;
+    }
+    if (x > 4) {
+      x++;
+    }
+    if (x > 5) {
+      x++;
+    }
+    if (x > 6) {
+      x++;
+    }
+    if (x > 7) {
+      x++;
+    }
+    if (x > 8) {
+      x++;
+    }
+    if (x > 9) {
+      x++;
+    }
+    if (x > 10) {
+      x++;
+    }
+    if (x > 11) {
+      x++;
+    }
+    if (x > 12) {
+      x++;
+    }
+    if (x > 13) {
+      x++;
+    }
+    if (x > 14) {
+      x++;
+    }
+    if (x > 15) {
+      x++;
+    }
+    return x;
+  }
+}
@@ -270,7 +270,11 @@ public class BackwardAnalysisImpl<
       S newExceptionStore = (exceptionStore != null) ? exceptionStore.leastUpperBound(s) : s;
       if (!newExceptionStore.equals(exceptionStore)) {
         exceptionStores.put(ebPred, newExceptionStore);
-        inputs.put(ebPred, new TransferInput<V, S>(node, this, newExceptionStore));
+        // The input of the block is its regular successor's store, if there is one yet; the
+        // exception store is merged in when the block is analyzed.  Do not overwrite it.
+        if (getStoreAfter(ebPred) == null) {
+          inputs.put(ebPred, new TransferInput<V, S>(node, this, newExceptionStore));
+        }
         addBlockToWorklist = true;
       }
     } else {
@@ -26,6 +26,7 @@ import org.checkerframework.dataflow.cfg.node.ReturnNode;
 import org.checkerframework.dataflow.qual.SideEffectFree;
 import org.checkerframework.javacutil.BugInCF;
 import org.checkerframework.javacutil.Pair;
+import org.plumelib.util.ArraySet;
 import org.plumelib.util.CollectionsPlume;
 
 /**
@@ -52,6 +53,21 @@ public class ForwardAnalysisImpl<
    */
   protected final int maxCountBeforeWidening;
 
+  /**
+   * Number of times a store has been merged into each block. Unlike {@link #blockCount}, it is not
+   * reset when widening is applied. Null if blockVisitLimit is -1.
+   */
+  protected final @Nullable IdentityHashMap<Block, Integer> blockVisits;
+
+  /**
+   * Number of times a store can be merged into a block before further stores flowing into it are
+   * merged with {@link Store#forcedUpperBound}. -1 implies that there is no limit.
+   */
+  protected final int blockVisitLimit;
+
+  /** True if stores have been merged into some block more than {@link #blockVisitLimit} times. */
+  protected boolean reachedBlockVisitLimit;
+
   /** Then stores before every basic block (assumed to be 'no information' if not present). */
   protected final IdentityHashMap<Block, S> thenStores;
 
@@ -70,9 +86,25 @@ public class ForwardAnalysisImpl<
    * @param maxCountBeforeWidening number of times a block can be analyzed before widening
    */
   public ForwardAnalysisImpl(int maxCountBeforeWidening) {
+    this(maxCountBeforeWidening, -1);
+  }
+
+  // `@code`, not `@link`, because dataflow module doesn't depend on framework module.
+  /**
+   * Construct an object that can perform a org.checkerframework.dataflow forward analysis over a
+   * control flow graph. When using this constructor, the transfer function is set later by the
+   * subclass, e.g., {@code org.checkerframework.framework.flow.CFAbstractAnalysis}.
+   *
+   * @param maxCountBeforeWidening number of times a block can be analyzed before widening
+   * @param blockVisitLimit number of times a block can be analyzed before unstable facts are
+   *     discarded, or -1 for no limit
+   */
+  public ForwardAnalysisImpl(int maxCountBeforeWidening, int blockVisitLimit) {
     super(Direction.FORWARD);
     this.maxCountBeforeWidening = maxCountBeforeWidening;
     this.blockCount = maxCountBeforeWidening == -1 ? null : new IdentityHashMap<>();
+    this.blockVisitLimit = blockVisitLimit;
+    this.blockVisits = blockVisitLimit == -1 ? null : new IdentityHashMap<>();
     this.thenStores = new IdentityHashMap<>();
     this.elseStores = new IdentityHashMap<>();
     this.storesAtReturnStatements = new IdentityHashMap<>();
@@ -156,7 +188,12 @@ public class ForwardAnalysisImpl<
             currentInput = new TransferInput<>(node, this, transferResult);
             propagateStoresTo(succ, node, currentInput, eb.getFlowRule(), addToWorklistAgain);
           }
-          // Propagate store to exceptional successors
+          // Propagate store to exceptional successors.  Most exception types, such as the
+          // unchecked exceptions that every call may throw, have no exceptional store of their
+          // own; for them the store before the node is propagated, and it is propagated only once
+          // to each successor even if several exception types lead to it.
+          S storeBefore = null;
+          Set<Block> storeBeforeSuccs = new ArraySet<>(2);
           for (Map.Entry<TypeMirror, Set<Block>> e : eb.getExceptionalSuccessors().entrySet()) {
             TypeMirror cause = e.getKey();
             if (isIgnoredExceptionType(cause)) {
@@ -170,12 +207,13 @@ public class ForwardAnalysisImpl<
               }
             } else {
               for (Block exceptionSucc : e.getValue()) {
-                addStoreBefore(
-                    exceptionSucc,
-                    node,
-                    inputBefore.copy().getRegularStore(),
-                    Store.Kind.BOTH,
-                    addToWorklistAgain);
+                if (storeBeforeSuccs.add(exceptionSucc)) {
+                  if (storeBefore == null) {
+                    storeBefore = inputBefore.copy().getRegularStore();
+                  }
+                  addStoreBefore(
+                      exceptionSucc, node, storeBefore, Store.Kind.BOTH, addToWorklistAgain);
+                }
               }
             }
           }
@@ -330,6 +368,10 @@ public class ForwardAnalysisImpl<
     if (blockCount != null) {
       blockCount.clear();
     }
+    if (blockVisits != null) {
+      blockVisits.clear();
+    }
+    reachedBlockVisitLimit = false;
     storesAtReturnStatements.clear();
     super.initFields(cfg);
   }
@@ -454,11 +496,21 @@ public class ForwardAnalysisImpl<
         blockCount.put(b, count + 1);
       }
     }
+    boolean shouldForce = false;
+    if (blockVisits != null) {
+      int visits = blockVisits.getOrDefault(b, 0);
+      shouldForce = visits >= blockVisitLimit;
+      if (shouldForce) {
+        reachedBlockVisitLimit = true;
+      } else {
+        blockVisits.put(b, visits + 1);
+      }
+    }
     switch (kind) {
       case THEN:
         {
           // Update the then store
-          S newThenStore = mergeStores(s, thenStore, shouldWiden);
+          S newThenStore = mergeStores(s, thenStore, shouldWiden, shouldForce);
           if (!newThenStore.equals(thenStore)) {
             thenStores.put(b, newThenStore);
             if (elseStore != null) {
@@ -471,7 +523,7 @@ public class ForwardAnalysisImpl<
       case ELSE:
         {
           // Update the else store
-          S newElseStore = mergeStores(s, elseStore, shouldWiden);
+          S newElseStore = mergeStores(s, elseStore, shouldWiden, shouldForce);
           if (!newElseStore.equals(elseStore)) {
             elseStores.put(b, newElseStore);
             if (thenStore != null) {
@@ -486,7 +538,7 @@ public class ForwardAnalysisImpl<
         boolean sameStore = (thenStore == elseStore);
         if (sameStore) {
           // Currently there is only one regular store
-          S newStore = mergeStores(s, thenStore, shouldWiden);
+          S newStore = mergeStores(s, thenStore, shouldWiden, shouldForce);
           if (!newStore.equals(thenStore)) {
             thenStores.put(b, newStore);
             elseStores.put(b, newStore);
@@ -495,12 +547,12 @@ public class ForwardAnalysisImpl<
           }
         } else {
           boolean storeChanged = false;
-          S newThenStore = mergeStores(s, thenStore, shouldWiden);
+          S newThenStore = mergeStores(s, thenStore, shouldWiden, shouldForce);
           if (!newThenStore.equals(thenStore)) {
             thenStores.put(b, newThenStore);
             storeChanged = true;
           }
-          S newElseStore = mergeStores(s, elseStore, shouldWiden);
+          S newElseStore = mergeStores(s, elseStore, shouldWiden, shouldForce);
           if (!newElseStore.equals(elseStore)) {
             elseStores.put(b, newElseStore);
             storeChanged = true;
@@ -516,17 +568,31 @@ public class ForwardAnalysisImpl<
     }
   }
 
+  /**
+   * Returns true if some block has been analyzed more than the block visit limit times during the
+   * last call to {@link #performAnalysis}, so that facts that did not stabilize were discarded.
+   *
+   * @return true if the last analysis reached the block visit limit
+   */
+  public boolean hasReachedBlockVisitLimit() {
+    return reachedBlockVisitLimit;
+  }
+
   /**
    * Merge two stores, possibly widening the result.
    *
    * @param newStore the new Store
    * @param previousStore the previous Store
    * @param shouldWiden should widen or not
+   * @param shouldForce should discard facts that differ between the two stores or not
    * @return the merged Store
    */
-  private S mergeStores(S newStore, @Nullable S previousStore, boolean shouldWiden) {
+  private S mergeStores(
+      S newStore, @Nullable S previousStore, boolean shouldWiden, boolean shouldForce) {
     if (previousStore == null) {
       return newStore;
+    } else if (shouldForce) {
+      return newStore.forcedUpperBound(previousStore);
     } else if (shouldWiden) {
       return newStore.widenedUpperBound(previousStore);
     } else {
@@ -91,6 +91,24 @@ public interface Store<S extends Store<S>> {
    */
   S widenedUpperBound(S previous);
 
+  /**
+   * Compute an upper bound of two stores that is used once a fixed point computation has analyzed
+   * a basic block too many times. The result should discard every fact whose value differs between
+   * {@code this} and {@code previous}, so that repeated application reaches a fixed point quickly.
+   * {@code previous} must be the previous store.
+   *
+   * <p>The default implementation calls {@link #widenedUpperBound}, which does not guarantee fast
+   * termination.
+   *
+   * <p>This method must fulfill the same contract as {@link #widenedUpperBound}.
+   *
+   * @param previous must be the previous store
+   * @return an upper bound of the two stores that contains only the facts on which they agree
+   */
+  default S forcedUpperBound(S previous) {
+    return widenedUpperBound(previous);
+  }
+
   /**
    * Can the objects {@code a} and {@code b} be aliases? Returns a conservative answer (i.e.,
    * returns {@code true} if not enough information is available to determine aliasing).
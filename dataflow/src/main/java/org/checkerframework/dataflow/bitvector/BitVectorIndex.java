@@ -0,0 +1,74 @@
+package org.checkerframework.dataflow.bitvector;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns consecutive numbers, starting at 0, to the facts of a bit-vector analysis, such as
+ * variables represented by {@link org.checkerframework.dataflow.expression.LocalVariable}s or
+ * other {@link org.checkerframework.dataflow.expression.JavaExpression}s. A fact is numbered the
+ * first time it is generated, so the number of facts need not be known in advance.
+ *
+ * <p>All the stores of one analysis must share one index.
+ *
+ * @param <K> the type of facts
+ */
+public class BitVectorIndex<K> {
+
+  /** The number of each fact. */
+  private final Map<K, Integer> indices = new HashMap<>();
+
+  /** The facts, by number. */
+  private final List<K> keys = new ArrayList<>();
+
+  /** Creates a new, empty BitVectorIndex. */
+  public BitVectorIndex() {}
+
+  /**
+   * Returns the number of the given fact, assigning it the next number if it has none.
+   *
+   * @param key a fact
+   * @return the number of {@code key}
+   */
+  public int allocate(K key) {
+    Integer index = indices.get(key);
+    if (index == null) {
+      index = keys.size();
+      indices.put(key, index);
+      keys.add(key);
+    }
+    return index;
+  }
+
+  /**
+   * Returns the number of the given fact.
+   *
+   * @param key a fact
+   * @return the number of {@code key}, or -1 if it has none
+   */
+  public int indexOf(K key) {
+    Integer index = indices.get(key);
+    return index == null ? -1 : index;
+  }
+
+  /**
+   * Returns the fact with the given number.
+   *
+   * @param index the number of a fact
+   * @return the fact numbered {@code index}
+   */
+  public K get(int index) {
+    return keys.get(index);
+  }
+
+  /**
+   * Returns the number of facts that have been numbered.
+   *
+   * @return the number of facts that have been numbered
+   */
+  public int size() {
+    return keys.size();
+  }
+}
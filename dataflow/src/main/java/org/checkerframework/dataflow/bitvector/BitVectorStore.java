@@ -0,0 +1,196 @@
+package org.checkerframework.dataflow.bitvector;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.StringJoiner;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.dataflow.analysis.Store;
+import org.checkerframework.dataflow.cfg.visualize.CFGVisualizer;
+import org.checkerframework.dataflow.expression.JavaExpression;
+import org.checkerframework.javacutil.BugInCF;
+
+/**
+ * A store that holds a set of facts as a bit vector, whose bits are numbered by a {@link
+ * BitVectorIndex}. The least upper bound of two stores is the union of their facts, as in a may
+ * analysis such as live variables or reaching definitions. The lattice has finite height, so
+ * widening is not needed.
+ *
+ * <p>A transfer function updates a store in place with {@link #gen}, {@link #kill}, and {@link
+ * #killAll}; none of them allocates unless the bit vector grows or a new fact is numbered.
+ *
+ * @param <K> the type of facts
+ * @param <S> the type of the store itself
+ */
+public abstract class BitVectorStore<K, S extends BitVectorStore<K, S>> implements Store<S> {
+
+  /** The index that numbers the facts. It is shared by all the stores of an analysis. */
+  protected final BitVectorIndex<K> index;
+
+  /** The facts in this store: bit i is set if the fact numbered i by {@link #index} holds. */
+  protected final BitSet bits;
+
+  /**
+   * Creates a new BitVectorStore.
+   *
+   * @param index the index that numbers the facts
+   * @param bits the facts in the store; the store takes ownership of it
+   */
+  protected BitVectorStore(BitVectorIndex<K> index, BitSet bits) {
+    this.index = index;
+    this.bits = bits;
+  }
+
+  /**
+   * Creates a store of the same class as this one, with the same index and the given facts.
+   *
+   * @param bits the facts in the new store; the new store takes ownership of it
+   * @return a new store with the given facts
+   */
+  protected abstract S create(BitSet bits);
+
+  /**
+   * Returns a description of the facts, such as "live variables", for visualization.
+   *
+   * @return a description of the facts
+   */
+  protected abstract String getFactsDescription();
+
+  /**
+   * Returns the index that numbers the facts.
+   *
+   * @return the index that numbers the facts
+   */
+  public BitVectorIndex<K> getIndex() {
+    return index;
+  }
+
+  /**
+   * Adds a fact to this store.
+   *
+   * @param key a fact
+   */
+  public void gen(K key) {
+    bits.set(index.allocate(key));
+  }
+
+  /**
+   * Removes a fact from this store.
+   *
+   * @param key a fact
+   */
+  public void kill(K key) {
+    int i = index.indexOf(key);
+    if (i >= 0) {
+      bits.clear(i);
+    }
+  }
+
+  /**
+   * Removes the given facts from this store.
+   *
+   * @param killed the numbers of the facts to remove
+   */
+  public void killAll(BitSet killed) {
+    bits.andNot(killed);
+  }
+
+  /**
+   * Returns true if this store contains the given fact.
+   *
+   * @param key a fact
+   * @return true if this store contains {@code key}
+   */
+  public boolean contains(K key) {
+    int i = index.indexOf(key);
+    return i >= 0 && bits.get(i);
+  }
+
+  /**
+   * Returns true if this store contains no facts.
+   *
+   * @return true if this store contains no facts
+   */
+  public boolean isEmpty() {
+    return bits.isEmpty();
+  }
+
+  /**
+   * Returns the facts in this store, in the order in which they were numbered.
+   *
+   * @return the facts in this store
+   */
+  public List<K> getFacts() {
+    List<K> result = new ArrayList<>(bits.cardinality());
+    for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+      result.add(index.get(i));
+    }
+    return result;
+  }
+
+  /**
+   * Throws an exception if the given store does not share this store's index.
+   *
+   * @param other another store
+   */
+  private void checkSameIndex(BitVectorStore<K, S> other) {
+    if (other.index != index) {
+      throw new BugInCF("Stores with different indices: %s and %s", this, other);
+    }
+  }
+
+  @Override
+  public S copy() {
+    return create((BitSet) bits.clone());
+  }
+
+  @Override
+  public S leastUpperBound(S other) {
+    checkSameIndex(other);
+    BitSet lub = (BitSet) bits.clone();
+    lub.or(other.bits);
+    return create(lub);
+  }
+
+  @Override
+  public S widenedUpperBound(S previous) {
+    return leastUpperBound(previous);
+  }
+
+  @Override
+  public boolean canAlias(JavaExpression a, JavaExpression b) {
+    return true;
+  }
+
+  @Override
+  public String visualize(CFGVisualizer<?, S, ?> viz) {
+    String key = getFactsDescription();
+    if (bits.isEmpty()) {
+      return viz.visualizeStoreKeyVal(key, "none");
+    }
+    StringJoiner sjStoreVal = new StringJoiner(", ");
+    for (K fact : getFacts()) {
+      sjStoreVal.add(fact.toString());
+    }
+    return viz.visualizeStoreKeyVal(key, sjStoreVal.toString());
+  }
+
+  @Override
+  public boolean equals(@Nullable Object obj) {
+    if (obj == null || obj.getClass() != getClass()) {
+      return false;
+    }
+    BitVectorStore<?, ?> other = (BitVectorStore<?, ?>) obj;
+    return other.index == index && other.bits.equals(bits);
+  }
+
+  @Override
+  public int hashCode() {
+    return bits.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return getFacts().toString();
+  }
+}
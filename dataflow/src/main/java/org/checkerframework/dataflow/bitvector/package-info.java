@@ -0,0 +1,11 @@
+/**
+ * Classes for dataflow analyses whose facts are sets drawn from a finite universe, such as live
+ * variables and reaching definitions. Each fact is assigned a number by a {@link
+ * org.checkerframework.dataflow.bitvector.BitVectorIndex}, and a {@link
+ * org.checkerframework.dataflow.bitvector.BitVectorStore} represents a set of facts as a bit
+ * vector, so that transfer functions (gen and kill) and least upper bounds are bitwise operations.
+ *
+ * @see org.checkerframework.dataflow.livevariable
+ * @see org.checkerframework.dataflow.reachingdefinition
+ */
+package org.checkerframework.dataflow.bitvector;
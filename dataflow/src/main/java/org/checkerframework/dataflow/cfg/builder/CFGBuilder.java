@@ -86,11 +86,44 @@ public abstract class CFGBuilder {
       boolean assumeAssertionsEnabled,
       boolean assumeAssertionsDisabled,
       ProcessingEnvironment env) {
+    return build(
+        bodyPath, underlyingAST, assumeAssertionsEnabled, assumeAssertionsDisabled, false, env);
+  }
+
+  /**
+   * Build the control flow graph of some code (method, initializer block, ...), optionally without
+   * the edges for unchecked exceptions. bodyPath is the TreePath to the body of that code.
+   *
+   * <p>Without those edges, a method call or object creation that declares no checked exception
+   * does not end a basic block, so the CFG has far fewer blocks in code with many calls. Only
+   * analyses whose results do not depend on what happens when an unchecked exception is thrown
+   * should use such a CFG.
+   *
+   * @param bodyPath the TreePath to the body of the code
+   * @param underlyingAST the AST that underlies the control frow graph
+   * @param assumeAssertionsEnabled can assertions be assumed to be enabled?
+   * @param assumeAssertionsDisabled can assertions be assumed to be disabled?
+   * @param ignoreUncheckedExceptions if true, omit the edges for unchecked exceptions
+   * @param env annotation processing environment containing type utilities
+   * @return a control flow graph
+   */
+  public static ControlFlowGraph build(
+      TreePath bodyPath,
+      UnderlyingAST underlyingAST,
+      boolean assumeAssertionsEnabled,
+      boolean assumeAssertionsDisabled,
+      boolean ignoreUncheckedExceptions,
+      ProcessingEnvironment env) {
     TreeBuilder builder = new TreeBuilder(env);
     AnnotationProvider annotationProvider = new BasicAnnotationProvider();
     PhaseOneResult phase1result =
         new CFGTranslationPhaseOne(
-                builder, annotationProvider, assumeAssertionsEnabled, assumeAssertionsDisabled, env)
+                builder,
+                annotationProvider,
+                assumeAssertionsEnabled,
+                assumeAssertionsDisabled,
+                ignoreUncheckedExceptions,
+                env)
             .process(bodyPath, underlyingAST);
     ControlFlowGraph phase2result = CFGTranslationPhaseTwo.process(phase1result);
     ControlFlowGraph phase3result = CFGTranslationPhaseThree.process(phase2result);
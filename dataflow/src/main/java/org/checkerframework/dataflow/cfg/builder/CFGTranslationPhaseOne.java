@@ -356,7 +356,8 @@ public class CFGTranslationPhaseOne extends TreeScanner<Node, Void> {
 
   /**
    * Supertypes of all unchecked exceptions. The size is 2 and the contents are {@code
-   * RuntimeException} and {@code Error}.
+   * RuntimeException} and {@code Error}, unless unchecked exceptions are ignored, in which case it
+   * is empty.
    */
   protected final Set<TypeMirror> uncheckedExceptionTypes;
 
@@ -380,6 +381,32 @@ public class CFGTranslationPhaseOne extends TreeScanner<Node, Void> {
       boolean assumeAssertionsEnabled,
       boolean assumeAssertionsDisabled,
       ProcessingEnvironment env) {
+    this(
+        treeBuilder,
+        annotationProvider,
+        assumeAssertionsEnabled,
+        assumeAssertionsDisabled,
+        false,
+        env);
+  }
+
+  /**
+   * @param treeBuilder builder for new AST nodes
+   * @param annotationProvider extracts annotations from AST nodes
+   * @param assumeAssertionsDisabled can assertions be assumed to be disabled?
+   * @param assumeAssertionsEnabled can assertions be assumed to be enabled?
+   * @param ignoreUncheckedExceptions if true, the CFG has no edges for the unchecked exceptions
+   *     that every method call, object creation, boxing and unboxing may throw, so such nodes do
+   *     not end a basic block. Only use this for analyses that do not need to model those edges.
+   * @param env annotation processing environment containing type utilities
+   */
+  public CFGTranslationPhaseOne(
+      TreeBuilder treeBuilder,
+      AnnotationProvider annotationProvider,
+      boolean assumeAssertionsEnabled,
+      boolean assumeAssertionsDisabled,
+      boolean ignoreUncheckedExceptions,
+      ProcessingEnvironment env) {
     this.env = env;
     this.treeBuilder = treeBuilder;
     this.annotationProvider = annotationProvider;
@@ -424,8 +451,10 @@ public class CFGTranslationPhaseOne extends TreeScanner<Node, Void> {
     stringType = getTypeMirror(String.class);
     throwableType = getTypeMirror(Throwable.class);
     uncheckedExceptionTypes = new ArraySet<>(2);
-    uncheckedExceptionTypes.add(getTypeMirror(RuntimeException.class));
-    uncheckedExceptionTypes.add(getTypeMirror(Error.class));
+    if (!ignoreUncheckedExceptions) {
+      uncheckedExceptionTypes.add(getTypeMirror(RuntimeException.class));
+      uncheckedExceptionTypes.add(getTypeMirror(Error.class));
+    }
     newArrayExceptionTypes = new ArraySet<>(2);
     newArrayExceptionTypes.add(negativeArraySizeExceptionType);
     if (outOfMemoryErrorType != null) {
@@ -888,7 +917,11 @@ public class CFGTranslationPhaseOne extends TreeScanner<Node, Void> {
       boxed.setInSource(false);
       // Add Throwable to account for unchecked exceptions
       addToConvertedLookupMap(node.getTree(), boxed);
-      insertNodeWithExceptionsAfter(boxed, uncheckedExceptionTypes, valueOfAccess);
+      if (uncheckedExceptionTypes.isEmpty()) {
+        insertNodeAfter(boxed, valueOfAccess);
+      } else {
+        insertNodeWithExceptionsAfter(boxed, uncheckedExceptionTypes, valueOfAccess);
+      }
       return boxed;
     } else {
       return node;
@@ -922,7 +955,11 @@ public class CFGTranslationPhaseOne extends TreeScanner<Node, Void> {
 
       // Add Throwable to account for unchecked exceptions
       addToConvertedLookupMap(node.getTree(), unboxed);
-      insertNodeWithExceptionsAfter(unboxed, uncheckedExceptionTypes, primValueAccess);
+      if (uncheckedExceptionTypes.isEmpty()) {
+        insertNodeAfter(unboxed, primValueAccess);
+      } else {
+        insertNodeWithExceptionsAfter(unboxed, uncheckedExceptionTypes, primValueAccess);
+      }
       return unboxed;
     } else {
       return node;
@@ -1469,13 +1506,17 @@ public class CFGTranslationPhaseOne extends TreeScanner<Node, Void> {
     // Add types to account for unchecked exceptions
     thrownSet.addAll(uncheckedExceptionTypes);
 
-    ExtendedNode extendedNode = extendWithNodeWithExceptions(node, thrownSet);
-
     /* Check for the TerminatesExecution annotation. */
     boolean terminatesExecution =
         annotationProvider.getDeclAnnotation(method, TerminatesExecution.class) != null;
-    if (terminatesExecution) {
-      extendedNode.setTerminatesExecution(true);
+    if (thrownSet.isEmpty() && !terminatesExecution) {
+      // Unchecked exceptions are ignored, and the method declares no exception.
+      extendWithNode(node);
+    } else {
+      ExtendedNode extendedNode = extendWithNodeWithExceptions(node, thrownSet);
+      if (terminatesExecution) {
+        extendedNode.setTerminatesExecution(true);
+      }
     }
 
     return node;
@@ -3359,7 +3400,12 @@ public class CFGTranslationPhaseOne extends TreeScanner<Node, Void> {
     // Add types to account for unchecked exceptions
     thrownSet.addAll(uncheckedExceptionTypes);
 
-    extendWithNodeWithExceptions(node, thrownSet);
+    if (thrownSet.isEmpty()) {
+      // Unchecked exceptions are ignored, and the constructor declares no exception.
+      extendWithNode(node);
+    } else {
+      extendWithNodeWithExceptions(node, thrownSet);
+    }
 
     return node;
   }
@@ -1,15 +1,22 @@
 package org.checkerframework.dataflow.cfg.builder;
 
 import java.util.ArrayDeque;
+import java.util.Map;
 import java.util.Set;
 import java.util.StringJoiner;
 import javax.lang.model.type.TypeMirror;
+import org.plumelib.util.ArrayMap;
 import org.plumelib.util.ArraySet;
 
 /**
  * An exception stack represents the set of all try-catch blocks in effect at a given point in a
  * program. It maps an exception type to a set of Labels and it maps a block exit (via return or
  * fall-through) to a single Label.
+ *
+ * <p>The sets of Labels are computed once per exception type for each state of the stack, and are
+ * shared by all the nodes that may throw that type while the stack is in that state. Most nodes
+ * may throw the unchecked exception types, so in try-heavy code this avoids recomputing the same
+ * sets for each of them.
  */
 /*package-private*/ class TryStack {
   /** The exit label. */
@@ -18,6 +25,12 @@ import org.plumelib.util.ArraySet;
   /** The try frames. */
   protected final ArrayDeque<TryFrame> frames;
 
+  /**
+   * The sets of Labels computed by {@link #possibleLabels} since the frames last changed. Equal
+   * sets are the same object.
+   */
+  private final Map<TypeMirror, Set<Label>> labelsCache = new ArrayMap<>(4);
+
   /**
    * Construct a TryStack.
    *
@@ -35,21 +48,48 @@ import org.plumelib.util.ArraySet;
    */
   public void pushFrame(TryFrame frame) {
     frames.addFirst(frame);
+    labelsCache.clear();
   }
 
   /** Pop a frame. */
   public void popFrame() {
     frames.removeFirst();
+    labelsCache.clear();
   }
 
   /**
    * Returns the set of possible {@link Label}s where control may transfer when an exception of the
-   * given type is thrown.
+   * given type is thrown. The result must not be modified; it may be shared with other callers.
    *
    * @param thrown an exception
    * @return where control may transfer when {@code thrown} is thrown
    */
   public Set<Label> possibleLabels(TypeMirror thrown) {
+    Set<Label> labels = labelsCache.get(thrown);
+    if (labels != null) {
+      return labels;
+    }
+    labels = computePossibleLabels(thrown);
+    // Share the set with another exception type that reaches the same labels, such as
+    // RuntimeException and Error when the innermost frame is a finally block.
+    for (Set<Label> cached : labelsCache.values()) {
+      if (cached.equals(labels)) {
+        labels = cached;
+        break;
+      }
+    }
+    labelsCache.put(thrown, labels);
+    return labels;
+  }
+
+  /**
+   * Computes the set of possible {@link Label}s where control may transfer when an exception of
+   * the given type is thrown.
+   *
+   * @param thrown an exception
+   * @return where control may transfer when {@code thrown} is thrown
+   */
+  private Set<Label> computePossibleLabels(TypeMirror thrown) {
     // Work up from the innermost frame until the exception is known to be caught.
     Set<Label> labels = new ArraySet<>(1);
     for (TryFrame frame : frames) {
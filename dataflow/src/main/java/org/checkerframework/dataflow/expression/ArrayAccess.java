@@ -15,6 +15,9 @@ public class ArrayAccess extends JavaExpression {
   /** The index; an expression of type int. */
   protected final JavaExpression index;
 
+  /** The hash code of this expression, or 0 if it has not been computed yet. */
+  private int hashCode = 0;
+
   /**
    * Create a new ArrayAccess.
    *
@@ -69,6 +72,9 @@ public class ArrayAccess extends JavaExpression {
 
   @Override
   public boolean syntacticEquals(JavaExpression je) {
+    if (this == je) {
+      return true;
+    }
     if (!(je instanceof ArrayAccess)) {
       return false;
     }
@@ -93,6 +99,9 @@ public class ArrayAccess extends JavaExpression {
 
   @Override
   public boolean equals(@Nullable Object obj) {
+    if (this == obj) {
+      return true;
+    }
     if (!(obj instanceof ArrayAccess)) {
       return false;
     }
@@ -102,7 +111,12 @@ public class ArrayAccess extends JavaExpression {
 
   @Override
   public int hashCode() {
-    return Objects.hash(array, index);
+    int result = hashCode;
+    if (result == 0) {
+      result = Objects.hash(array, index);
+      hashCode = result;
+    }
+    return result;
   }
 
   @Override
@@ -21,6 +21,9 @@ public class BinaryOperation extends JavaExpression {
   /** The right operand. */
   protected final JavaExpression right;
 
+  /** The hash code of this expression, or 0 if it has not been computed yet. */
+  private int hashCode = 0;
+
   /**
    * Create a binary operation.
    *
@@ -100,6 +103,9 @@ public class BinaryOperation extends JavaExpression {
 
   @Override
   public boolean syntacticEquals(JavaExpression je) {
+    if (this == je) {
+      return true;
+    }
     if (!(je instanceof BinaryOperation)) {
       return false;
     }
@@ -124,11 +130,23 @@ public class BinaryOperation extends JavaExpression {
 
   @Override
   public int hashCode() {
-    return Objects.hash(operationKind, left, right);
+    int result = hashCode;
+    if (result == 0) {
+      // Equal commutative operations may have their operands in either order.
+      result =
+          isCommutative()
+              ? Objects.hash(operationKind, left.hashCode() + right.hashCode())
+              : Objects.hash(operationKind, left, right);
+      hashCode = result;
+    }
+    return result;
   }
 
   @Override
   public boolean equals(@Nullable Object other) {
+    if (this == other) {
+      return true;
+    }
     if (!(other instanceof BinaryOperation)) {
       return false;
     }
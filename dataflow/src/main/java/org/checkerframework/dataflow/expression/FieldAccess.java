@@ -23,6 +23,9 @@ public class FieldAccess extends JavaExpression {
   /** The field being accessed. */
   protected final VariableElement field;
 
+  /** The hash code of this expression, or 0 if it has not been computed yet. */
+  private int hashCode = 0;
+
   /**
    * Returns the receiver.
    *
@@ -95,6 +98,9 @@ public class FieldAccess extends JavaExpression {
 
   @Override
   public boolean equals(@Nullable Object obj) {
+    if (this == obj) {
+      return true;
+    }
     if (!(obj instanceof FieldAccess)) {
       return false;
     }
@@ -104,11 +110,19 @@ public class FieldAccess extends JavaExpression {
 
   @Override
   public int hashCode() {
-    return Objects.hash(getField(), getReceiver());
+    int result = hashCode;
+    if (result == 0) {
+      result = Objects.hash(getField(), getReceiver());
+      hashCode = result;
+    }
+    return result;
   }
 
   @Override
   public boolean syntacticEquals(JavaExpression je) {
+    if (this == je) {
+      return true;
+    }
     if (!(je instanceof FieldAccess)) {
       return false;
     }
@@ -19,6 +19,9 @@ public class LocalVariable extends JavaExpression {
   /** The element for this local variable. */
   protected final VariableElement element;
 
+  /** The hash code of this expression, or 0 if it has not been computed yet. */
+  private int hashCode = 0;
+
   /**
    * Creates a new LocalVariable.
    *
@@ -41,6 +44,9 @@ public class LocalVariable extends JavaExpression {
 
   @Override
   public boolean equals(@Nullable Object obj) {
+    if (this == obj) {
+      return true;
+    }
     if (!(obj instanceof LocalVariable)) {
       return false;
     }
@@ -78,8 +84,13 @@ public class LocalVariable extends JavaExpression {
 
   @Override
   public int hashCode() {
-    VarSymbol vs = (VarSymbol) element;
-    return Objects.hash(vs.pos, vs.name, vs.owner);
+    int result = hashCode;
+    if (result == 0) {
+      VarSymbol vs = (VarSymbol) element;
+      result = Objects.hash(vs.pos, vs.name, vs.owner);
+      hashCode = result;
+    }
+    return result;
   }
 
   @Override
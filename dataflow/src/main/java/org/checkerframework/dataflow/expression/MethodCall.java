@@ -24,6 +24,9 @@ public class MethodCall extends JavaExpression {
   /** The arguments. */
   protected final List<JavaExpression> arguments;
 
+  /** The hash code of this expression, or 0 if it has not been computed yet. */
+  private int hashCode = 0;
+
   /**
    * Creates a new MethodCall.
    *
@@ -107,6 +110,9 @@ public class MethodCall extends JavaExpression {
 
   @Override
   public boolean syntacticEquals(JavaExpression je) {
+    if (this == je) {
+      return true;
+    }
     if (!(je instanceof MethodCall)) {
       return false;
     }
@@ -158,7 +164,12 @@ public class MethodCall extends JavaExpression {
     if (method.getKind() == ElementKind.CONSTRUCTOR) {
       return super.hashCode();
     }
-    return Objects.hash(method, receiver, arguments);
+    int result = hashCode;
+    if (result == 0) {
+      result = Objects.hash(method, receiver, arguments);
+      hashCode = result;
+    }
+    return result;
   }
 
   @Override
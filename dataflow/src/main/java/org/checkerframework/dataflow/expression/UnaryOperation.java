@@ -18,6 +18,9 @@ public class UnaryOperation extends JavaExpression {
   /** The operand. */
   protected final JavaExpression operand;
 
+  /** The hash code of this expression, or 0 if it has not been computed yet. */
+  private int hashCode = 0;
+
   /**
    * Create a unary operation.
    *
@@ -103,11 +106,19 @@ public class UnaryOperation extends JavaExpression {
 
   @Override
   public int hashCode() {
-    return Objects.hash(operationKind, operand);
+    int result = hashCode;
+    if (result == 0) {
+      result = Objects.hash(operationKind, operand);
+      hashCode = result;
+    }
+    return result;
   }
 
   @Override
   public boolean equals(@Nullable Object other) {
+    if (this == other) {
+      return true;
+    }
     if (!(other instanceof UnaryOperation)) {
       return false;
     }
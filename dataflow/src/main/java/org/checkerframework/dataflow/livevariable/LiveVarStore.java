@@ -1,11 +1,9 @@
 package org.checkerframework.dataflow.livevariable;
 
-import java.util.HashSet;
-import java.util.LinkedHashSet;
+import java.util.BitSet;
 import java.util.Set;
-import java.util.StringJoiner;
-import org.checkerframework.checker.nullness.qual.Nullable;
-import org.checkerframework.dataflow.analysis.Store;
+import org.checkerframework.dataflow.bitvector.BitVectorIndex;
+import org.checkerframework.dataflow.bitvector.BitVectorStore;
 import org.checkerframework.dataflow.cfg.node.BinaryOperationNode;
 import org.checkerframework.dataflow.cfg.node.FieldAccessNode;
 import org.checkerframework.dataflow.cfg.node.InstanceOfNode;
@@ -14,29 +12,67 @@ import org.checkerframework.dataflow.cfg.node.Node;
 import org.checkerframework.dataflow.cfg.node.TernaryExpressionNode;
 import org.checkerframework.dataflow.cfg.node.TypeCastNode;
 import org.checkerframework.dataflow.cfg.node.UnaryOperationNode;
-import org.checkerframework.dataflow.cfg.visualize.CFGVisualizer;
-import org.checkerframework.dataflow.expression.JavaExpression;
-import org.checkerframework.javacutil.BugInCF;
-import org.plumelib.util.ArraySet;
 
-/** A live variable store contains a set of live variables represented by nodes. */
-public class LiveVarStore implements Store<LiveVarStore> {
+/**
+ * A live variable store contains a set of live variables represented by nodes. The set is a bit
+ * vector whose bits are numbered by a {@link BitVectorIndex} shared by all the stores of an
+ * analysis.
+ */
+public class LiveVarStore extends BitVectorStore<LiveVarValue, LiveVarStore> {
 
-  /** A set of live variable abstract values. */
-  private final Set<LiveVarValue> liveVarValueSet;
+  /**
+   * Create a new, empty LiveVarStore.
+   *
+   * @param index the index that numbers the live variables of the analysis
+   */
+  public LiveVarStore(BitVectorIndex<LiveVarValue> index) {
+    super(index, new BitSet());
+  }
 
-  /** Create a new LiveVarStore. */
+  /**
+   * Create a new, empty LiveVarStore with its own index. It cannot be compared or combined with
+   * the stores of an analysis, which share the index of their transfer function.
+   *
+   * @deprecated use {@link #LiveVarStore(BitVectorIndex)}
+   */
+  @Deprecated // 2023-06-01
   public LiveVarStore() {
-    liveVarValueSet = new LinkedHashSet<>();
+    this(new BitVectorIndex<>());
   }
 
   /**
-   * Create a new LiveVarStore.
+   * Create a new LiveVarStore with its own index. It cannot be compared or combined with the
+   * stores of an analysis, which share the index of their transfer function.
    *
    * @param liveVarValueSet a set of live variable abstract values
+   * @deprecated use {@link #LiveVarStore(BitVectorIndex)} and {@link #putLiveVar}
    */
+  @Deprecated // 2023-06-01
   public LiveVarStore(Set<LiveVarValue> liveVarValueSet) {
-    this.liveVarValueSet = liveVarValueSet;
+    this(new BitVectorIndex<>());
+    for (LiveVarValue variable : liveVarValueSet) {
+      putLiveVar(variable);
+    }
+  }
+
+  /**
+   * Create a new LiveVarStore.
+   *
+   * @param index the index that numbers the live variables of the analysis
+   * @param liveVariables the live variables, numbered by {@code index}
+   */
+  protected LiveVarStore(BitVectorIndex<LiveVarValue> index, BitSet liveVariables) {
+    super(index, liveVariables);
+  }
+
+  @Override
+  protected LiveVarStore create(BitSet bits) {
+    return new LiveVarStore(index, bits);
+  }
+
+  @Override
+  protected String getFactsDescription() {
+    return "live variables";
   }
 
   /**
@@ -45,7 +81,7 @@ public class LiveVarStore implements Store<LiveVarStore> {
    * @param variable a live variable
    */
   public void putLiveVar(LiveVarValue variable) {
-    liveVarValueSet.add(variable);
+    gen(variable);
   }
 
   /**
@@ -54,7 +90,7 @@ public class LiveVarStore implements Store<LiveVarStore> {
    * @param variable a live variable
    */
   public void killLiveVar(LiveVarValue variable) {
-    liveVarValueSet.remove(variable);
+    kill(variable);
   }
 
   /**
@@ -87,61 +123,4 @@ public class LiveVarStore implements Store<LiveVarStore> {
       addUseInExpression(binaryNode.getRightOperand());
     }
   }
-
-  @Override
-  public boolean equals(@Nullable Object obj) {
-    if (!(obj instanceof LiveVarStore)) {
-      return false;
-    }
-    LiveVarStore other = (LiveVarStore) obj;
-    return other.liveVarValueSet.equals(this.liveVarValueSet);
-  }
-
-  @Override
-  public int hashCode() {
-    return this.liveVarValueSet.hashCode();
-  }
-
-  @Override
-  public LiveVarStore copy() {
-    return new LiveVarStore(new HashSet<>(liveVarValueSet));
-  }
-
-  @Override
-  public LiveVarStore leastUpperBound(LiveVarStore other) {
-    Set<LiveVarValue> liveVarValueSetLub =
-        ArraySet.newArraySetOrHashSet(this.liveVarValueSet.size() + other.liveVarValueSet.size());
-    liveVarValueSetLub.addAll(this.liveVarValueSet);
-    liveVarValueSetLub.addAll(other.liveVarValueSet);
-    return new LiveVarStore(liveVarValueSetLub);
-  }
-
-  /** It should not be called since it is not used by the backward analysis. */
-  @Override
-  public LiveVarStore widenedUpperBound(LiveVarStore previous) {
-    throw new BugInCF("wub of LiveVarStore get called!");
-  }
-
-  @Override
-  public boolean canAlias(JavaExpression a, JavaExpression b) {
-    return true;
-  }
-
-  @Override
-  public String visualize(CFGVisualizer<?, LiveVarStore, ?> viz) {
-    String key = "live variables";
-    if (liveVarValueSet.isEmpty()) {
-      return viz.visualizeStoreKeyVal(key, "none");
-    }
-    StringJoiner sjStoreVal = new StringJoiner(", ");
-    for (LiveVarValue liveVarValue : liveVarValueSet) {
-      sjStoreVal.add(liveVarValue.toString());
-    }
-    return viz.visualizeStoreKeyVal(key, sjStoreVal.toString());
-  }
-
-  @Override
-  public String toString() {
-    return liveVarValueSet.toString();
-  }
 }
@@ -1,36 +1,61 @@
 package org.checkerframework.dataflow.livevariable;
 
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.LambdaExpressionTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.TreeScanner;
 import java.util.List;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
 import org.checkerframework.dataflow.analysis.BackwardTransferFunction;
 import org.checkerframework.dataflow.analysis.RegularTransferResult;
 import org.checkerframework.dataflow.analysis.TransferInput;
 import org.checkerframework.dataflow.analysis.TransferResult;
+import org.checkerframework.dataflow.bitvector.BitVectorIndex;
 import org.checkerframework.dataflow.cfg.UnderlyingAST;
 import org.checkerframework.dataflow.cfg.node.AbstractNodeVisitor;
 import org.checkerframework.dataflow.cfg.node.AssignmentNode;
+import org.checkerframework.dataflow.cfg.node.ClassDeclarationNode;
+import org.checkerframework.dataflow.cfg.node.FieldAccessNode;
+import org.checkerframework.dataflow.cfg.node.FunctionalInterfaceNode;
+import org.checkerframework.dataflow.cfg.node.LocalVariableNode;
 import org.checkerframework.dataflow.cfg.node.MethodInvocationNode;
 import org.checkerframework.dataflow.cfg.node.Node;
 import org.checkerframework.dataflow.cfg.node.ObjectCreationNode;
 import org.checkerframework.dataflow.cfg.node.ReturnNode;
 import org.checkerframework.dataflow.cfg.node.StringConcatenateAssignmentNode;
 import org.checkerframework.dataflow.qual.SideEffectFree;
+import org.checkerframework.javacutil.ElementUtils;
+import org.checkerframework.javacutil.TreeUtils;
 
-/** A live variable transfer function. */
+/**
+ * A live variable transfer function. A variable is used wherever the control flow graph reads it,
+ * and it is killed by an assignment. A lambda, a local class, or an anonymous class uses the local
+ * variables that it captures when it is created, because its body is not part of the control flow
+ * graph.
+ */
 public class LiveVarTransfer
     extends AbstractNodeVisitor<
         TransferResult<LiveVarValue, LiveVarStore>, TransferInput<LiveVarValue, LiveVarStore>>
     implements BackwardTransferFunction<LiveVarValue, LiveVarStore> {
 
+  /** The index that numbers the live variables in the stores created by this transfer function. */
+  private final BitVectorIndex<LiveVarValue> index = new BitVectorIndex<>();
+
+  /** Create a new LiveVarTransfer. */
+  public LiveVarTransfer() {}
+
   @Override
   @SideEffectFree
   public LiveVarStore initialNormalExitStore(
       UnderlyingAST underlyingAST, List<ReturnNode> returnNodes) {
-    return new LiveVarStore();
+    return new LiveVarStore(index);
   }
 
   @Override
   public LiveVarStore initialExceptionalExitStore(UnderlyingAST underlyingAST) {
-    return new LiveVarStore();
+    return new LiveVarStore(index);
   }
 
   @Override
@@ -39,6 +64,48 @@ public class LiveVarTransfer
     return new RegularTransferResult<>(null, p.getRegularStore());
   }
 
+  @Override
+  public RegularTransferResult<LiveVarValue, LiveVarStore> visitLocalVariable(
+      LocalVariableNode n, TransferInput<LiveVarValue, LiveVarStore> p) {
+    RegularTransferResult<LiveVarValue, LiveVarStore> transferResult =
+        (RegularTransferResult<LiveVarValue, LiveVarStore>) super.visitLocalVariable(n, p);
+    if (!n.isLValue()) {
+      transferResult.getRegularStore().putLiveVar(new LiveVarValue(n));
+    }
+    return transferResult;
+  }
+
+  @Override
+  public RegularTransferResult<LiveVarValue, LiveVarStore> visitFieldAccess(
+      FieldAccessNode n, TransferInput<LiveVarValue, LiveVarStore> p) {
+    RegularTransferResult<LiveVarValue, LiveVarStore> transferResult =
+        (RegularTransferResult<LiveVarValue, LiveVarStore>) super.visitFieldAccess(n, p);
+    if (!n.isLValue()) {
+      transferResult.getRegularStore().putLiveVar(new LiveVarValue(n));
+    }
+    return transferResult;
+  }
+
+  @Override
+  public RegularTransferResult<LiveVarValue, LiveVarStore> visitMemberReference(
+      FunctionalInterfaceNode n, TransferInput<LiveVarValue, LiveVarStore> p) {
+    RegularTransferResult<LiveVarValue, LiveVarStore> transferResult =
+        (RegularTransferResult<LiveVarValue, LiveVarStore>) super.visitMemberReference(n, p);
+    if (n.getTree() instanceof LambdaExpressionTree) {
+      addCapturedVariables(n.getTree(), transferResult.getRegularStore());
+    }
+    return transferResult;
+  }
+
+  @Override
+  public RegularTransferResult<LiveVarValue, LiveVarStore> visitClassDeclaration(
+      ClassDeclarationNode n, TransferInput<LiveVarValue, LiveVarStore> p) {
+    RegularTransferResult<LiveVarValue, LiveVarStore> transferResult =
+        (RegularTransferResult<LiveVarValue, LiveVarStore>) super.visitClassDeclaration(n, p);
+    addCapturedVariables(n.getTree(), transferResult.getRegularStore());
+    return transferResult;
+  }
+
   @Override
   public RegularTransferResult<LiveVarValue, LiveVarStore> visitAssignment(
       AssignmentNode n, TransferInput<LiveVarValue, LiveVarStore> p) {
@@ -80,6 +147,10 @@ public class LiveVarTransfer
     for (Node arg : n.getArguments()) {
       store.addUseInExpression(arg);
     }
+    ClassTree classBody = n.getTree().getClassBody();
+    if (classBody != null) {
+      addCapturedVariables(classBody, store);
+    }
     return transferResult;
   }
 
@@ -96,6 +167,30 @@ public class LiveVarTransfer
     return transferResult;
   }
 
+  /**
+   * Add the local variables that are read in the given lambda or class to the live variable set.
+   * This may include variables that are declared within the tree, whose names cannot clash with
+   * the names of live variables declared outside it.
+   *
+   * @param tree a lambda or class
+   * @param store the live variable store
+   */
+  private void addCapturedVariables(Tree tree, LiveVarStore store) {
+    new TreeScanner<Void, Void>() {
+      @Override
+      public Void visitIdentifier(IdentifierTree identifier, Void p) {
+        Element element = TreeUtils.elementFromTree(identifier);
+        if (element != null
+            && (ElementUtils.isLocalVariable(element)
+                || element.getKind() == ElementKind.PARAMETER
+                || ElementUtils.isBindingVariable(element))) {
+          store.putLiveVar(new LiveVarValue(new LocalVariableNode(identifier)));
+        }
+        return super.visitIdentifier(identifier, p);
+      }
+    }.scan(tree, null);
+  }
+
   /**
    * Update the information of live variables from an assignment statement.
    *
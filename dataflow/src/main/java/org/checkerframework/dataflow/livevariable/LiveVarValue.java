@@ -29,6 +29,15 @@ public class LiveVarValue implements AbstractValue<LiveVarValue> {
     this.liveVariable = n;
   }
 
+  /**
+   * Returns the node that represents the live variable.
+   *
+   * @return the node that represents the live variable
+   */
+  public Node getLiveVariable() {
+    return liveVariable;
+  }
+
   @Override
   public int hashCode() {
     return this.liveVariable.hashCode();
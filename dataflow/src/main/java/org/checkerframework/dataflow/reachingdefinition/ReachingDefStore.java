@@ -0,0 +1,42 @@
+package org.checkerframework.dataflow.reachingdefinition;
+
+import java.util.BitSet;
+import org.checkerframework.dataflow.bitvector.BitVectorIndex;
+import org.checkerframework.dataflow.bitvector.BitVectorStore;
+
+/**
+ * A reaching definition store contains a set of definitions, represented by the nodes of
+ * assignments, that may reach a program point. The set is a bit vector whose bits are numbered by
+ * a {@link BitVectorIndex} shared by all the stores of an analysis.
+ */
+public class ReachingDefStore extends BitVectorStore<ReachingDefValue, ReachingDefStore> {
+
+  /**
+   * Create a new, empty ReachingDefStore.
+   *
+   * @param index the index that numbers the definitions of the analysis
+   */
+  public ReachingDefStore(BitVectorIndex<ReachingDefValue> index) {
+    super(index, new BitSet());
+  }
+
+  /**
+   * Create a new ReachingDefStore.
+   *
+   * @param index the index that numbers the definitions of the analysis
+   * @param definitions the definitions, numbered by {@code index}
+   */
+  protected ReachingDefStore(BitVectorIndex<ReachingDefValue> index, BitSet definitions) {
+    super(index, definitions);
+  }
+
+  @Override
+  protected ReachingDefStore create(BitSet bits) {
+    return new ReachingDefStore(index, bits);
+  }
+
+  @Override
+  protected String getFactsDescription() {
+    return "reaching definitions";
+  }
+}
@@ -0,0 +1,96 @@
+package org.checkerframework.dataflow.reachingdefinition;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.checkerframework.dataflow.analysis.ForwardTransferFunction;
+import org.checkerframework.dataflow.analysis.RegularTransferResult;
+import org.checkerframework.dataflow.analysis.TransferInput;
+import org.checkerframework.dataflow.analysis.TransferResult;
+import org.checkerframework.dataflow.bitvector.BitVectorIndex;
+import org.checkerframework.dataflow.cfg.UnderlyingAST;
+import org.checkerframework.dataflow.cfg.node.AbstractNodeVisitor;
+import org.checkerframework.dataflow.cfg.node.AssignmentNode;
+import org.checkerframework.dataflow.cfg.node.LocalVariableNode;
+import org.checkerframework.dataflow.cfg.node.Node;
+import org.checkerframework.dataflow.cfg.node.StringConcatenateAssignmentNode;
+import org.checkerframework.dataflow.expression.JavaExpression;
+import org.checkerframework.dataflow.expression.LocalVariable;
+
+/**
+ * A reaching definition transfer function. An assignment to a local variable generates its own
+ * definition and kills every other definition of the variable.
+ */
+public class ReachingDefTransfer
+    extends AbstractNodeVisitor<
+        TransferResult<ReachingDefValue, ReachingDefStore>,
+        TransferInput<ReachingDefValue, ReachingDefStore>>
+    implements ForwardTransferFunction<ReachingDefValue, ReachingDefStore> {
+
+  /** The index that numbers the definitions in the stores created by this transfer function. */
+  private final BitVectorIndex<ReachingDefValue> index = new BitVectorIndex<>();
+
+  /**
+   * The numbers of the definitions of each local variable. A definition is numbered when it is
+   * first processed; it cannot be in any store before then, so the kill set of a variable need
+   * only contain the definitions numbered so far.
+   */
+  private final Map<JavaExpression, BitSet> definitionsOf = new HashMap<>();
+
+  /** Create a new ReachingDefTransfer. */
+  public ReachingDefTransfer() {}
+
+  @Override
+  public ReachingDefStore initialStore(
+      UnderlyingAST underlyingAST, List<LocalVariableNode> parameters) {
+    return new ReachingDefStore(index);
+  }
+
+  @Override
+  public RegularTransferResult<ReachingDefValue, ReachingDefStore> visitNode(
+      Node n, TransferInput<ReachingDefValue, ReachingDefStore> p) {
+    return new RegularTransferResult<>(null, p.getRegularStore());
+  }
+
+  @Override
+  public RegularTransferResult<ReachingDefValue, ReachingDefStore> visitAssignment(
+      AssignmentNode n, TransferInput<ReachingDefValue, ReachingDefStore> p) {
+    RegularTransferResult<ReachingDefValue, ReachingDefStore> transferResult =
+        (RegularTransferResult<ReachingDefValue, ReachingDefStore>) super.visitAssignment(n, p);
+    processDefinition(n, n.getTarget(), transferResult.getRegularStore());
+    return transferResult;
+  }
+
+  @Override
+  public RegularTransferResult<ReachingDefValue, ReachingDefStore>
+      visitStringConcatenateAssignment(
+          StringConcatenateAssignmentNode n, TransferInput<ReachingDefValue, ReachingDefStore> p) {
+    RegularTransferResult<ReachingDefValue, ReachingDefStore> transferResult =
+        (RegularTransferResult<ReachingDefValue, ReachingDefStore>)
+            super.visitStringConcatenateAssignment(n, p);
+    processDefinition(n, n.getLeftOperand(), transferResult.getRegularStore());
+    return transferResult;
+  }
+
+  /**
+   * Update the reaching definitions for an assignment: kill the other definitions of the assigned
+   * variable and generate this one.
+   *
+   * @param definition the assignment
+   * @param variable the variable that is assigned
+   * @param store the reaching definition store
+   */
+  private void processDefinition(Node definition, Node variable, ReachingDefStore store) {
+    if (!(variable instanceof LocalVariableNode)) {
+      return;
+    }
+    BitSet definitions =
+        definitionsOf.computeIfAbsent(
+            new LocalVariable((LocalVariableNode) variable), __ -> new BitSet());
+    store.killAll(definitions);
+    ReachingDefValue def = new ReachingDefValue(definition);
+    store.gen(def);
+    definitions.set(index.indexOf(def));
+  }
+}
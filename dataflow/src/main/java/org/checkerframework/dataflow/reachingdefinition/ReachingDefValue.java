@@ -0,0 +1,65 @@
+package org.checkerframework.dataflow.reachingdefinition;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.dataflow.analysis.AbstractValue;
+import org.checkerframework.dataflow.cfg.node.Node;
+import org.checkerframework.javacutil.BugInCF;
+
+/**
+ * A definition (which is represented by the node of an assignment) wrapper turning node into
+ * abstract value.
+ *
+ * <p>Two definitions are equal only if they are the same node: the nodes of two assignments with
+ * the same text are equal, but they are different definitions.
+ */
+public class ReachingDefValue implements AbstractValue<ReachingDefValue> {
+
+  /**
+   * A definition is represented by a node, which can be a {@link
+   * org.checkerframework.dataflow.cfg.node.AssignmentNode} or {@link
+   * org.checkerframework.dataflow.cfg.node.StringConcatenateAssignmentNode}.
+   */
+  protected final Node definition;
+
+  @Override
+  public ReachingDefValue leastUpperBound(ReachingDefValue other) {
+    throw new BugInCF("lub of ReachingDef get called!");
+  }
+
+  /**
+   * Create a new definition.
+   *
+   * @param n a node
+   */
+  public ReachingDefValue(Node n) {
+    this.definition = n;
+  }
+
+  /**
+   * Returns the node of the definition.
+   *
+   * @return the node of the definition
+   */
+  public Node getDefinition() {
+    return definition;
+  }
+
+  @Override
+  public int hashCode() {
+    return System.identityHashCode(definition);
+  }
+
+  @Override
+  public boolean equals(@Nullable Object obj) {
+    if (!(obj instanceof ReachingDefValue)) {
+      return false;
+    }
+    ReachingDefValue other = (ReachingDefValue) obj;
+    return this.definition == other.definition;
+  }
+
+  @Override
+  public String toString() {
+    return this.definition.toString();
+  }
+}
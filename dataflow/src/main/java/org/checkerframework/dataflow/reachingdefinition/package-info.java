@@ -0,0 +1,12 @@
+/**
+ * Classes used for reaching definitions analysis. Reaching definitions analysis is a forward
+ * analysis that calculates, at each point in the program, the assignments to local variables whose
+ * values may still be held by those variables. It is a {@link
+ * org.checkerframework.dataflow.bitvector bit-vector analysis}. To run reaching definitions
+ * analysis, see {@link
+ * org.checkerframework.dataflow.cfg.playground.ReachingDefinitionPlayground}.
+ *
+ * @see <a
+ *     href="https://en.wikipedia.org/wiki/Reaching_definition">https://en.wikipedia.org/wiki/Reaching_definition</a>
+ */
+package org.checkerframework.dataflow.reachingdefinition;
@@ -0,0 +1,346 @@
+package org.checkerframework.dataflow.util;
+
+import com.sun.source.tree.AssignmentTree;
+import com.sun.source.tree.BlockTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompoundAssignmentTree;
+import com.sun.source.tree.EnhancedForLoopTree;
+import com.sun.source.tree.ExpressionStatementTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.LambdaExpressionTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.NewClassTree;
+import com.sun.source.tree.StatementTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.TryTree;
+import com.sun.source.tree.UnaryTree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.TreeScanner;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.javacutil.AnnotationProvider;
+import org.checkerframework.javacutil.TreeUtils;
+
+/**
+ * Computes {@link SideEffectSummary side-effect summaries} for methods whose source code is
+ * available, so that a call to a method that is not annotated as {@code @SideEffectFree} need not
+ * be assumed to have arbitrary side effects.
+ *
+ * <p>Like the {@link PurityChecker}, the summarizer examines the body of a method and treats a call
+ * as side-effect-free if the callee is side-effect-free according to the {@link
+ * AnnotationProvider}. A call to any other callee whose body is available, and that cannot be
+ * overridden, contributes the summary of the callee. Summaries are computed on demand and memoized,
+ * so callees are summarized before their callers. A call to any other method, including a
+ * recursive call, makes the summary unknown.
+ *
+ * <p>Summaries depend only on the code and on the purity annotations, so one summarizer can be
+ * used for a whole compilation.
+ */
+public class SideEffectSummarizer {
+
+  /** The maximum depth of nested callees that are summarized in order to summarize a method. */
+  private static final int MAX_DEPTH = 32;
+
+  /** The annotation provider, used to determine whether a callee is side-effect-free. */
+  private final AnnotationProvider annoProvider;
+
+  /** Returns the declaration of an element, or null if its source code is not available. */
+  private final Function<Element, @Nullable Tree> declarations;
+
+  /** The summaries computed so far. */
+  private final Map<ExecutableElement, SideEffectSummary> summaries = new HashMap<>();
+
+  /** The methods whose summaries are being computed, innermost last. */
+  private final Set<ExecutableElement> inProgress = new LinkedHashSet<>();
+
+  /**
+   * Creates a SideEffectSummarizer.
+   *
+   * @param annoProvider the annotation provider, used to determine whether a callee is
+   *     side-effect-free
+   * @param declarations returns the declaration of an element, or null if its source code is not
+   *     available
+   */
+  public SideEffectSummarizer(
+      AnnotationProvider annoProvider, Function<Element, @Nullable Tree> declarations) {
+    this.annoProvider = annoProvider;
+    this.declarations = declarations;
+  }
+
+  /**
+   * Returns the summary of the side effects of a call to the given method or constructor.
+   *
+   * @param method a method or constructor
+   * @return the summary of the side effects of a call to {@code method}
+   */
+  public SideEffectSummary getSummary(ExecutableElement method) {
+    if (annoProvider.isSideEffectFree(method)) {
+      return SideEffectSummary.NONE;
+    }
+    if (!cannotBeOverridden(method)) {
+      // The invoked method might be an overriding method with different side effects.
+      return SideEffectSummary.UNKNOWN;
+    }
+    SideEffectSummary result = summaries.get(method);
+    if (result != null) {
+      return result;
+    }
+    if (inProgress.size() >= MAX_DEPTH || !inProgress.add(method)) {
+      // Too deep, or recursive.  This result is not memoized.
+      return SideEffectSummary.UNKNOWN;
+    }
+    try {
+      result = computeSummary(method);
+    } finally {
+      inProgress.remove(method);
+    }
+    summaries.put(method, result);
+    return result;
+  }
+
+  /**
+   * Returns true if the given method cannot be overridden, so every call to it invokes its body.
+   *
+   * @param method a method or constructor
+   * @return true if {@code method} cannot be overridden
+   */
+  private static boolean cannotBeOverridden(ExecutableElement method) {
+    if (method.getKind() == ElementKind.CONSTRUCTOR) {
+      return true;
+    }
+    Set<Modifier> modifiers = method.getModifiers();
+    return modifiers.contains(Modifier.STATIC)
+        || modifiers.contains(Modifier.PRIVATE)
+        || modifiers.contains(Modifier.FINAL)
+        || method.getEnclosingElement().getModifiers().contains(Modifier.FINAL);
+  }
+
+  /**
+   * Computes the summary of the given method by examining its body.
+   *
+   * @param method a method or constructor that cannot be overridden
+   * @return the summary of {@code method}
+   */
+  private SideEffectSummary computeSummary(ExecutableElement method) {
+    Tree decl = declarations.apply(method);
+    if (!(decl instanceof MethodTree)) {
+      return SideEffectSummary.UNKNOWN;
+    }
+    BlockTree body = ((MethodTree) decl).getBody();
+    if (body == null) {
+      return SideEffectSummary.UNKNOWN;
+    }
+    SideEffectScanner scanner = new SideEffectScanner();
+    scanner.scan(body, null);
+    if (method.getKind() == ElementKind.CONSTRUCTOR && !callsThisConstructor(body)) {
+      // The instance initializers run as part of this constructor.
+      Tree classDecl = declarations.apply(method.getEnclosingElement());
+      if (!(classDecl instanceof ClassTree)) {
+        return SideEffectSummary.UNKNOWN;
+      }
+      scanner.scanInstanceInitializers((ClassTree) classDecl);
+    }
+    if (scanner.unknown) {
+      return SideEffectSummary.UNKNOWN;
+    }
+    return SideEffectSummary.of(scanner.writtenFields, scanner.writesArrays);
+  }
+
+  /**
+   * Returns true if the given constructor body starts with a call to {@code this(...)}.
+   *
+   * @param body the body of a constructor
+   * @return true if {@code body} starts with a call to {@code this(...)}
+   */
+  private static boolean callsThisConstructor(BlockTree body) {
+    List<? extends StatementTree> statements = body.getStatements();
+    if (statements.isEmpty() || !(statements.get(0) instanceof ExpressionStatementTree)) {
+      return false;
+    }
+    ExpressionTree expr = ((ExpressionStatementTree) statements.get(0)).getExpression();
+    return expr instanceof MethodInvocationTree
+        && TreeUtils.isThisConstructorCall((MethodInvocationTree) expr);
+  }
+
+  /**
+   * Collects the side effects of the code that it scans. Code that is not executed when it is
+   * reached, such as the body of a lambda or of a local class, is not scanned: it can only be
+   * executed by a call that makes the summary unknown.
+   */
+  private class SideEffectScanner extends TreeScanner<Void, Void> {
+
+    /** True if the scanned code may have arbitrary side effects. */
+    boolean unknown = false;
+
+    /** The fields that the scanned code may assign. */
+    final Set<VariableElement> writtenFields = new HashSet<>();
+
+    /** True if the scanned code may assign array elements. */
+    boolean writesArrays = false;
+
+    @Override
+    public Void scan(Tree tree, Void p) {
+      if (unknown) {
+        // Nothing more to learn.
+        return null;
+      }
+      return super.scan(tree, p);
+    }
+
+    /**
+     * Scans the field initializers and initializer blocks of the given class that run when an
+     * instance is created.
+     *
+     * @param classTree a class
+     */
+    void scanInstanceInitializers(ClassTree classTree) {
+      for (Tree member : classTree.getMembers()) {
+        if (member instanceof VariableTree) {
+          VariableTree field = (VariableTree) member;
+          if (field.getInitializer() != null
+              && !field.getModifiers().getFlags().contains(Modifier.STATIC)) {
+            writtenFields.add(TreeUtils.elementFromDeclaration(field));
+            scan(field.getInitializer(), null);
+          }
+        } else if (member instanceof BlockTree) {
+          if (!((BlockTree) member).isStatic()) {
+            scan(member, null);
+          }
+        }
+      }
+    }
+
+    /**
+     * Records an assignment to the given expression.
+     *
+     * @param variable the left-hand side of an assignment
+     */
+    private void recordWrite(ExpressionTree variable) {
+      variable = TreeUtils.withoutParens(variable);
+      if (variable.getKind() == Tree.Kind.ARRAY_ACCESS) {
+        writesArrays = true;
+        return;
+      }
+      Element elt = TreeUtils.elementFromTree(variable);
+      if (elt == null) {
+        // The tree has not been attributed.
+        unknown = true;
+      } else if (elt.getKind().isField()) {
+        writtenFields.add((VariableElement) elt);
+      } else if (!(elt instanceof VariableElement)) {
+        unknown = true;
+      }
+      // Otherwise, the variable is a local variable or parameter, which the caller cannot see.
+    }
+
+    /**
+     * Records a call to the given method or constructor.
+     *
+     * @param invocation the invocation
+     */
+    private void recordCall(ExpressionTree invocation) {
+      Element elt = TreeUtils.elementFromTree(invocation);
+      if (!(elt instanceof ExecutableElement)) {
+        unknown = true;
+        return;
+      }
+      SideEffectSummary callee = getSummary((ExecutableElement) elt);
+      if (callee.isUnknown()) {
+        unknown = true;
+      } else {
+        writtenFields.addAll(callee.getWrittenFields());
+        writesArrays |= callee.writesArrays();
+      }
+    }
+
+    @Override
+    public Void visitAssignment(AssignmentTree tree, Void p) {
+      recordWrite(tree.getVariable());
+      return super.visitAssignment(tree, p);
+    }
+
+    @Override
+    public Void visitCompoundAssignment(CompoundAssignmentTree tree, Void p) {
+      recordWrite(tree.getVariable());
+      return super.visitCompoundAssignment(tree, p);
+    }
+
+    @Override
+    public Void visitUnary(UnaryTree tree, Void p) {
+      switch (tree.getKind()) {
+        case POSTFIX_DECREMENT:
+        case POSTFIX_INCREMENT:
+        case PREFIX_DECREMENT:
+        case PREFIX_INCREMENT:
+          recordWrite(tree.getExpression());
+          break;
+        default:
+          // Nothing to do
+          break;
+      }
+      return super.visitUnary(tree, p);
+    }
+
+    @Override
+    public Void visitMethodInvocation(MethodInvocationTree tree, Void p) {
+      recordCall(tree);
+      return super.visitMethodInvocation(tree, p);
+    }
+
+    @Override
+    public Void visitNewClass(NewClassTree tree, Void p) {
+      if (tree.getClassBody() != null) {
+        // The constructor of an anonymous class has no declaration.
+        unknown = true;
+        return null;
+      }
+      recordCall(tree);
+      return super.visitNewClass(tree, p);
+    }
+
+    @Override
+    public Void visitEnhancedForLoop(EnhancedForLoopTree tree, Void p) {
+      TypeMirror iterableType = TreeUtils.typeOf(tree.getExpression());
+      if (iterableType == null || iterableType.getKind() != TypeKind.ARRAY) {
+        // The loop calls Iterable.iterator(), Iterator.hasNext(), and Iterator.next().
+        unknown = true;
+        return null;
+      }
+      return super.visitEnhancedForLoop(tree, p);
+    }
+
+    @Override
+    public Void visitTry(TryTree tree, Void p) {
+      if (!tree.getResources().isEmpty()) {
+        // The statement calls AutoCloseable.close().
+        unknown = true;
+        return null;
+      }
+      return super.visitTry(tree, p);
+    }
+
+    @Override
+    public Void visitClass(ClassTree tree, Void p) {
+      return null;
+    }
+
+    @Override
+    public Void visitLambdaExpression(LambdaExpressionTree tree, Void p) {
+      return null;
+    }
+  }
+}
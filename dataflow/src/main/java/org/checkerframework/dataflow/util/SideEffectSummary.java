@@ -0,0 +1,162 @@
+package org.checkerframework.dataflow.util;
+
+import java.util.Collections;
+import java.util.Set;
+import javax.lang.model.element.VariableElement;
+import org.checkerframework.dataflow.expression.ArrayAccess;
+import org.checkerframework.dataflow.expression.FieldAccess;
+import org.checkerframework.dataflow.expression.JavaExpression;
+import org.checkerframework.dataflow.expression.JavaExpressionScanner;
+import org.checkerframework.dataflow.expression.MethodCall;
+
+/**
+ * A summary of the side effects of a method: the fields that it may assign, and whether it may
+ * assign array elements. A summary may also be unknown, in which case the method may have
+ * arbitrary side effects.
+ *
+ * <p>Summaries are computed by {@link SideEffectSummarizer}.
+ */
+public final class SideEffectSummary {
+
+  /** The summary of a method that may have arbitrary side effects. */
+  public static final SideEffectSummary UNKNOWN =
+      new SideEffectSummary(true, Collections.emptySet(), false);
+
+  /** The summary of a method that has no side effects. */
+  public static final SideEffectSummary NONE =
+      new SideEffectSummary(false, Collections.emptySet(), false);
+
+  /** True if the method may have arbitrary side effects. */
+  private final boolean unknown;
+
+  /** The fields that the method may assign. Meaningless if {@link #unknown} is true. */
+  private final Set<VariableElement> writtenFields;
+
+  /** True if the method may assign array elements. Meaningless if {@link #unknown} is true. */
+  private final boolean writesArrays;
+
+  /**
+   * Creates a SideEffectSummary.
+   *
+   * @param unknown true if the method may have arbitrary side effects
+   * @param writtenFields the fields that the method may assign
+   * @param writesArrays true if the method may assign array elements
+   */
+  private SideEffectSummary(
+      boolean unknown, Set<VariableElement> writtenFields, boolean writesArrays) {
+    this.unknown = unknown;
+    this.writtenFields = writtenFields;
+    this.writesArrays = writesArrays;
+  }
+
+  /**
+   * Returns the summary of a method that may assign exactly the given fields and, if {@code
+   * writesArrays} is true, array elements.
+   *
+   * @param writtenFields the fields that the method may assign; not copied, so the caller must not
+   *     modify it afterward
+   * @param writesArrays true if the method may assign array elements
+   * @return the summary of a method with the given side effects
+   */
+  public static SideEffectSummary of(Set<VariableElement> writtenFields, boolean writesArrays) {
+    if (writtenFields.isEmpty() && !writesArrays) {
+      return NONE;
+    }
+    return new SideEffectSummary(false, Collections.unmodifiableSet(writtenFields), writesArrays);
+  }
+
+  /**
+   * Returns true if the method may have arbitrary side effects.
+   *
+   * @return true if the method may have arbitrary side effects
+   */
+  public boolean isUnknown() {
+    return unknown;
+  }
+
+  /**
+   * Returns true if the method has no side effects.
+   *
+   * @return true if the method has no side effects
+   */
+  public boolean isSideEffectFree() {
+    return !unknown && writtenFields.isEmpty() && !writesArrays;
+  }
+
+  /**
+   * Returns the fields that the method may assign. Must not be called on {@link #UNKNOWN}.
+   *
+   * @return the fields that the method may assign
+   */
+  public Set<VariableElement> getWrittenFields() {
+    assert !unknown;
+    return writtenFields;
+  }
+
+  /**
+   * Returns true if the method may assign array elements. Must not be called on {@link #UNKNOWN}.
+   *
+   * @return true if the method may assign array elements
+   */
+  public boolean writesArrays() {
+    assert !unknown;
+    return writesArrays;
+  }
+
+  /**
+   * Returns true if a call to the method may change the value of the given expression. An
+   * expression that contains a method call may be affected by any side effect, because the result
+   * of the method call may depend on the state that the side effect changes.
+   *
+   * @param expr an expression
+   * @return true if a call to the method may change the value of {@code expr}
+   */
+  public boolean mayAffect(JavaExpression expr) {
+    if (unknown) {
+      return true;
+    }
+    if (isSideEffectFree()) {
+      return false;
+    }
+    if (expr.containsUnknown() || expr.containsOfClass(MethodCall.class)) {
+      return true;
+    }
+    if (writesArrays && expr.containsOfClass(ArrayAccess.class)) {
+      return true;
+    }
+    if (writtenFields.isEmpty() || !expr.containsOfClass(FieldAccess.class)) {
+      return false;
+    }
+    WrittenFieldFinder finder = new WrittenFieldFinder();
+    finder.scan(expr, null);
+    return finder.found;
+  }
+
+  @Override
+  public String toString() {
+    if (unknown) {
+      return "SideEffectSummary{unknown}";
+    }
+    return "SideEffectSummary{writtenFields="
+        + writtenFields
+        + ", writesArrays="
+        + writesArrays
+        + "}";
+  }
+
+  /** Determines whether an expression accesses one of the {@link #writtenFields}. */
+  private class WrittenFieldFinder extends JavaExpressionScanner<Void> {
+
+    /** True if the scanned expression accesses one of the {@link #writtenFields}. */
+    boolean found = false;
+
+    @Override
+    protected Void visitFieldAccess(FieldAccess fieldAccessExpr, Void p) {
+      if (writtenFields.contains(fieldAccessExpr.getField())) {
+        found = true;
+        return null;
+      }
+      return super.visitFieldAccess(fieldAccessExpr, p);
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package reachingdef;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Map;
+import org.checkerframework.dataflow.analysis.ForwardAnalysis;
+import org.checkerframework.dataflow.analysis.ForwardAnalysisImpl;
+import org.checkerframework.dataflow.cfg.visualize.CFGVisualizeLauncher;
+import org.checkerframework.dataflow.reachingdefinition.ReachingDefStore;
+import org.checkerframework.dataflow.reachingdefinition.ReachingDefTransfer;
+import org.checkerframework.dataflow.reachingdefinition.ReachingDefValue;
+
+/** Used in reachingDefinitionTest Gradle task to test the ReachingDefinition analysis. */
+public class ReachingDefinition {
+
+  /**
+   * The main method expects to be run in dataflow/tests/reaching-definition directory.
+   *
+   * @param args not used
+   */
+  public static void main(String[] args) {
+
+    String inputFile = "Test.java";
+    String method = "test";
+    String clazz = "Test";
+    String outputFile = "Out.txt";
+
+    ReachingDefTransfer transfer = new ReachingDefTransfer();
+    ForwardAnalysis<ReachingDefValue, ReachingDefStore, ReachingDefTransfer> forwardAnalysis =
+        new ForwardAnalysisImpl<>(transfer);
+    CFGVisualizeLauncher cfgVisualizeLauncher = new CFGVisualizeLauncher();
+    Map<String, Object> res =
+        cfgVisualizeLauncher.generateStringOfCFG(inputFile, method, clazz, true, forwardAnalysis);
+    try (FileWriter out = new FileWriter(outputFile)) {
+      out.write(res.get("stringGraph").toString());
+      out.write("\n");
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+  }
+}
@@ -0,0 +1,151 @@
+package uncheckedexceptions;
+
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.util.JavacTask;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.TreePathScanner;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.checkerframework.dataflow.cfg.ControlFlowGraph;
+import org.checkerframework.dataflow.cfg.UnderlyingAST.CFGMethod;
+import org.checkerframework.dataflow.cfg.block.Block;
+import org.checkerframework.dataflow.cfg.block.ExceptionBlock;
+import org.checkerframework.dataflow.cfg.builder.CFGBuilder;
+import org.checkerframework.javacutil.BasicTypeProcessor;
+import org.checkerframework.javacutil.TreePathUtil;
+
+/**
+ * Used in ignoreUncheckedExceptionsTest Gradle task to test the CFGs that {@link CFGBuilder}
+ * builds with and without the edges for unchecked exceptions.
+ */
+public class IgnoreUncheckedExceptions {
+
+  /**
+   * The main method expects to be run in dataflow/tests/ignore-unchecked-exceptions directory.
+   *
+   * @param args not used
+   */
+  public static void main(String[] args) {
+
+    String inputFile = "Test.java";
+    String outputFile = "Out.txt";
+
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    ExceptionBlockPrinter printer = new ExceptionBlockPrinter();
+    try (StandardJavaFileManager fileManager =
+        compiler.getStandardFileManager(null, null, null)) {
+      Iterable<? extends JavaFileObject> files = fileManager.getJavaFileObjects(inputFile);
+      JavacTask task =
+          (JavacTask)
+              compiler.getTask(
+                  null, fileManager, null, Collections.singletonList("-proc:only"), null, files);
+      task.setProcessors(Collections.singletonList(printer));
+      if (!task.call()) {
+        throw new Error("Compilation of " + inputFile + " failed.");
+      }
+    } catch (IOException e) {
+      throw new Error(e);
+    }
+
+    try (FileWriter out = new FileWriter(outputFile)) {
+      out.write(printer.getOutput());
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+  }
+
+  /**
+   * Builds the CFG of every method twice, once with and once without the edges for unchecked
+   * exceptions, and prints the exception blocks of each CFG.
+   */
+  @SupportedAnnotationTypes("*")
+  private static class ExceptionBlockPrinter extends BasicTypeProcessor {
+
+    /** The printed exception blocks of all methods. */
+    private final StringBuilder output = new StringBuilder();
+
+    /**
+     * Returns the printed exception blocks of all methods.
+     *
+     * @return the printed exception blocks of all methods
+     */
+    String getOutput() {
+      return output.toString();
+    }
+
+    @Override
+    protected TreePathScanner<?, ?> createTreePathScanner(CompilationUnitTree root) {
+      return new TreePathScanner<Void, Void>() {
+        @Override
+        public Void visitMethod(MethodTree tree, Void p) {
+          if (tree.getBody() == null) {
+            return null;
+          }
+          ClassTree classTree = TreePathUtil.enclosingClass(getCurrentPath());
+          if (classTree == null) {
+            throw new Error("No enclosing class for method " + tree.getName());
+          }
+          TreePath bodyPath = new TreePath(getCurrentPath(), tree.getBody());
+          for (boolean ignoreUncheckedExceptions : new boolean[] {false, true}) {
+            ControlFlowGraph cfg =
+                CFGBuilder.build(
+                    bodyPath,
+                    new CFGMethod(tree, classTree),
+                    false,
+                    false,
+                    ignoreUncheckedExceptions,
+                    processingEnv);
+            output.append(tree.getName());
+            output.append(ignoreUncheckedExceptions ? " ignoring" : " with");
+            output.append(" unchecked exceptions:\n");
+            printExceptionBlocks(cfg);
+          }
+          return null;
+        }
+      };
+    }
+
+    /**
+     * Prints the node of each exception block of the given CFG and the exception types of its
+     * exceptional successors.
+     *
+     * @param cfg a control flow graph
+     */
+    private void printExceptionBlocks(ControlFlowGraph cfg) {
+      List<String> lines = new ArrayList<>();
+      for (Block block : cfg.getAllBlocks()) {
+        if (block.getType() != Block.BlockType.EXCEPTION_BLOCK) {
+          continue;
+        }
+        ExceptionBlock exceptionBlock = (ExceptionBlock) block;
+        List<String> exceptionTypes = new ArrayList<>();
+        for (TypeMirror exceptionType : exceptionBlock.getExceptionalSuccessors().keySet()) {
+          exceptionTypes.add(exceptionType.toString());
+        }
+        Collections.sort(exceptionTypes);
+        lines.add("  " + exceptionBlock.getNode() + " throws " + exceptionTypes + "\n");
+      }
+      Collections.sort(lines);
+      for (String line : lines) {
+        output.append(line);
+      }
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+      return SourceVersion.latestSupported();
+    }
+  }
+}
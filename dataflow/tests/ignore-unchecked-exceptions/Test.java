@@ -0,0 +1,39 @@
+import java.io.IOException;
+
+class Test {
+
+  void calls() {
+    a();
+    Object o = new Object();
+    b();
+  }
+
+  void checkedException() throws IOException {
+    a();
+    mayThrow();
+    b();
+  }
+
+  void explicitThrow(boolean flag) {
+    a();
+    if (flag) {
+      throw new IllegalStateException();
+    }
+    b();
+  }
+
+  void tryCatch() {
+    try {
+      a();
+      mayThrow();
+    } catch (IOException e) {
+      b();
+    }
+  }
+
+  void a() {}
+
+  void b() {}
+
+  void mayThrow() throws IOException {}
+}
@@ -0,0 +1,17 @@
+public class Test {
+  public int test(int p) {
+    int a = 1;
+    int b = 2;
+    if (p > 0) {
+      a = 3;
+    } else {
+      b = a;
+    }
+    while (b < 10) {
+      b = b + a;
+    }
+    String s = "x";
+    s += b;
+    return a + b;
+  }
+}
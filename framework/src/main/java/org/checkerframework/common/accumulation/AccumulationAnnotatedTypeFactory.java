@@ -9,9 +9,13 @@ import com.sun.source.tree.ExpressionTree;
 import com.sun.source.tree.MethodInvocationTree;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.StringJoiner;
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.ExecutableElement;
@@ -71,6 +75,27 @@ public abstract class AccumulationAnnotatedTypeFactory extends BaseAnnotatedType
    */
   private final @MonotonicNonNull Class<? extends Annotation> predicate;
 
+  /**
+   * Every value that has been accumulated, such as a method name, gets a dense index. This maps
+   * each value to its index. See {@link #getAccumulatedValueBits(AnnotationMirror)}.
+   */
+  private final Map<String, Integer> accumulatedValueIndices = new HashMap<>();
+
+  /** The inverse of {@link #accumulatedValueIndices}: the value with index i is at position i. */
+  private final List<String> indexedAccumulatedValues = new ArrayList<>();
+
+  /**
+   * A cache from accumulator annotations to the indices of their accumulated values. The bit sets
+   * are shared and must not be side-effected. Null if caching is disabled.
+   */
+  private final @Nullable Map<AnnotationMirror, BitSet> accumulatedValueBitsCache;
+
+  /**
+   * A cache from predicate strings to their compiled forms, so that each distinct predicate is
+   * parsed only once.
+   */
+  private final Map<String, CompiledPredicate> compiledPredicates;
+
   /**
    * Create an annotated type factory for an accumulation checker.
    *
@@ -133,6 +158,9 @@ public abstract class AccumulationAnnotatedTypeFactory extends BaseAnnotatedType
     this.bottom = AnnotationBuilder.fromClass(elements, bottom);
     this.top = createAccumulatorAnnotation(Collections.emptyList());
 
+    this.accumulatedValueBitsCache = shouldCache ? createCache("accumulatedValueBits") : null;
+    this.compiledPredicates = createCache("compiledPredicates");
+
     // Every subclass must call postInit!  This does not do so.
   }
 
@@ -326,6 +354,78 @@ public abstract class AccumulationAnnotatedTypeFactory extends BaseAnnotatedType
     }
   }
 
+  /**
+   * Returns the values that anno has accumulated, as a bit set over the indices of the values. Bit
+   * sets make subtyping, lub, and glb between accumulator annotations cheap.
+   *
+   * @param anno an accumulator annotation; must not be bottom
+   * @return the indices of the values the annotation has accumulated; clients must not side-effect
+   *     the result
+   */
+  private BitSet getAccumulatedValueBits(AnnotationMirror anno) {
+    if (accumulatedValueBitsCache != null) {
+      BitSet cached = accumulatedValueBitsCache.get(anno);
+      if (cached != null) {
+        return cached;
+      }
+    }
+    BitSet result = new BitSet();
+    for (String value : getAccumulatedValues(anno)) {
+      result.set(getAccumulatedValueIndex(value));
+    }
+    if (accumulatedValueBitsCache != null) {
+      accumulatedValueBitsCache.put(anno, result);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the index of the given accumulated value, assigning it a new index if it does not have
+   * one yet.
+   *
+   * @param value a value that can be accumulated, such as a method name
+   * @return the index of {@code value}
+   */
+  private int getAccumulatedValueIndex(String value) {
+    Integer index = accumulatedValueIndices.get(value);
+    if (index == null) {
+      index = indexedAccumulatedValues.size();
+      accumulatedValueIndices.put(value, index);
+      indexedAccumulatedValues.add(value);
+    }
+    return index;
+  }
+
+  /**
+   * Returns the values whose indices are in the given bit set.
+   *
+   * @param bits indices of accumulated values
+   * @return the values whose indices are in {@code bits}
+   */
+  private List<String> getAccumulatedValues(BitSet bits) {
+    List<String> result = new ArrayList<>(bits.cardinality());
+    for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+      result.add(indexedAccumulatedValues.get(i));
+    }
+    return result;
+  }
+
+  /**
+   * Returns true if every element of {@code subset} is in {@code superset}.
+   *
+   * @param subset a bit set
+   * @param superset a bit set
+   * @return true if {@code subset} is a subset of {@code superset}
+   */
+  private static boolean isSubset(BitSet subset, BitSet superset) {
+    for (int i = subset.nextSetBit(0); i >= 0; i = subset.nextSetBit(i + 1)) {
+      if (!superset.get(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   /**
    * All accumulation analyses share a similar type hierarchy. This class implements the subtyping,
    * LUB, and GLB for that hierarchy. The lattice looks like:
@@ -402,17 +502,18 @@ public abstract class AccumulationAnnotatedTypeFactory extends BaseAnnotatedType
         }
       }
 
-      List<String> a1Val = getAccumulatedValues(a1);
-      List<String> a2Val = getAccumulatedValues(a2);
+      BitSet a1Val = getAccumulatedValueBits(a1);
+      BitSet a2Val = getAccumulatedValueBits(a2);
       // Avoid creating new annotation objects in the common case.
-      if (a1Val.containsAll(a2Val)) {
+      if (isSubset(a2Val, a1Val)) {
         return a1;
       }
-      if (a2Val.containsAll(a1Val)) {
+      if (isSubset(a1Val, a2Val)) {
         return a2;
       }
-      a1Val.addAll(a2Val); // union
-      return createAccumulatorAnnotation(a1Val);
+      BitSet union = (BitSet) a1Val.clone();
+      union.or(a2Val);
+      return createAccumulatorAnnotation(getAccumulatedValues(union));
     }
 
     /**
@@ -447,17 +548,18 @@ public abstract class AccumulationAnnotatedTypeFactory extends BaseAnnotatedType
         }
       }
 
-      List<String> a1Val = getAccumulatedValues(a1);
-      List<String> a2Val = getAccumulatedValues(a2);
+      BitSet a1Val = getAccumulatedValueBits(a1);
+      BitSet a2Val = getAccumulatedValueBits(a2);
       // Avoid creating new annotation objects in the common case.
-      if (a1Val.containsAll(a2Val)) {
+      if (isSubset(a2Val, a1Val)) {
         return a2;
       }
-      if (a2Val.containsAll(a1Val)) {
+      if (isSubset(a1Val, a2Val)) {
         return a1;
       }
-      a1Val.retainAll(a2Val); // intersection
-      return createAccumulatorAnnotation(a1Val);
+      BitSet intersection = (BitSet) a1Val.clone();
+      intersection.and(a2Val);
+      return createAccumulatorAnnotation(getAccumulatedValues(intersection));
     }
 
     /**
@@ -494,9 +596,7 @@ public abstract class AccumulationAnnotatedTypeFactory extends BaseAnnotatedType
         return evaluatePredicate(subAnno, convertToPredicate(superAnno));
       }
 
-      List<String> subVal = getAccumulatedValues(subAnno);
-      List<String> superVal = getAccumulatedValues(superAnno);
-      return subVal.containsAll(superVal);
+      return isSubset(getAccumulatedValueBits(superAnno), getAccumulatedValueBits(subAnno));
     }
   }
 
@@ -527,8 +627,7 @@ public abstract class AccumulationAnnotatedTypeFactory extends BaseAnnotatedType
           "tried to evaluate a predicate using an annotation that wasn't an accumulator: "
               + subAnno);
     }
-    List<String> trueVariables = getAccumulatedValues(subAnno);
-    return evaluatePredicate(trueVariables, pred);
+    return compilePredicate(pred).evaluate(getAccumulatedValueBits(subAnno));
   }
 
   /**
@@ -564,40 +663,68 @@ public abstract class AccumulationAnnotatedTypeFactory extends BaseAnnotatedType
    * @return whether the true variables satisfy the predicate
    */
   protected boolean evaluatePredicate(List<String> trueVariables, String pred) {
-    Expression expression;
-    try {
-      expression = StaticJavaParser.parseExpression(pred);
-    } catch (ParseProblemException p) {
-      throw new UserError("unparsable predicate: " + pred + ". Parse exception: " + p);
+    CompiledPredicate compiled = compilePredicate(pred);
+    BitSet trueBits = new BitSet();
+    for (String trueVariable : trueVariables) {
+      trueBits.set(getAccumulatedValueIndex(trueVariable));
     }
-    return evaluateBooleanExpression(expression, trueVariables);
+    return compiled.evaluate(trueBits);
   }
 
   /**
-   * Evaluates a boolean expression, in JavaParser format, that contains only and, or, parentheses,
-   * logical complement, and boolean literal nodes.
+   * Returns the compiled form of the given predicate, parsing it if it has not been parsed before.
+   *
+   * @param pred a predicate
+   * @return the compiled form of {@code pred}
+   * @throws UserError if {@code pred} is not a valid predicate
+   */
+  private CompiledPredicate compilePredicate(String pred) {
+    CompiledPredicate compiled = compiledPredicates.get(pred);
+    if (compiled == null) {
+      Expression expression;
+      try {
+        expression = StaticJavaParser.parseExpression(pred);
+      } catch (ParseProblemException p) {
+        throw new UserError("unparsable predicate: " + pred + ". Parse exception: " + p);
+      }
+      List<Integer> program = new ArrayList<>();
+      compileBooleanExpression(expression, program);
+      compiled = new CompiledPredicate(program);
+      compiledPredicates.put(pred, compiled);
+    }
+    return compiled;
+  }
+
+  /**
+   * Compiles a boolean expression, in JavaParser format, that contains only and, or, parentheses,
+   * logical complement, and boolean literal nodes, into the postfix form described at {@link
+   * CompiledPredicate#program}.
    *
    * @param expression a JavaParser boolean expression
-   * @param trueVariables the names of the variables that should be considered "true"; all other
-   *     literals are considered "false"
-   * @return the result of evaluating the expression
+   * @param program the postfix program, to which this method appends the instructions for {@code
+   *     expression}
    */
-  private boolean evaluateBooleanExpression(Expression expression, List<String> trueVariables) {
+  private void compileBooleanExpression(Expression expression, List<Integer> program) {
     if (expression.isNameExpr()) {
-      return trueVariables.contains(expression.asNameExpr().getNameAsString());
+      program.add(getAccumulatedValueIndex(expression.asNameExpr().getNameAsString()));
+      return;
     } else if (expression.isBinaryExpr()) {
-      if (expression.asBinaryExpr().getOperator() == BinaryExpr.Operator.OR) {
-        return evaluateBooleanExpression(expression.asBinaryExpr().getLeft(), trueVariables)
-            || evaluateBooleanExpression(expression.asBinaryExpr().getRight(), trueVariables);
-      } else if (expression.asBinaryExpr().getOperator() == BinaryExpr.Operator.AND) {
-        return evaluateBooleanExpression(expression.asBinaryExpr().getLeft(), trueVariables)
-            && evaluateBooleanExpression(expression.asBinaryExpr().getRight(), trueVariables);
+      BinaryExpr.Operator operator = expression.asBinaryExpr().getOperator();
+      if (operator == BinaryExpr.Operator.OR || operator == BinaryExpr.Operator.AND) {
+        compileBooleanExpression(expression.asBinaryExpr().getLeft(), program);
+        compileBooleanExpression(expression.asBinaryExpr().getRight(), program);
+        program.add(
+            operator == BinaryExpr.Operator.OR ? CompiledPredicate.OR : CompiledPredicate.AND);
+        return;
       }
     } else if (expression.isEnclosedExpr()) {
-      return evaluateBooleanExpression(expression.asEnclosedExpr().getInner(), trueVariables);
+      compileBooleanExpression(expression.asEnclosedExpr().getInner(), program);
+      return;
     } else if (expression.isUnaryExpr()) {
       if (expression.asUnaryExpr().getOperator() == UnaryExpr.Operator.LOGICAL_COMPLEMENT) {
-        return !evaluateBooleanExpression(expression.asUnaryExpr().getExpression(), trueVariables);
+        compileBooleanExpression(expression.asUnaryExpr().getExpression(), program);
+        program.add(CompiledPredicate.NOT);
+        return;
       }
     }
     // This could be a BugInCF if there is a bug in the code above.
@@ -609,6 +736,85 @@ public abstract class AccumulationAnnotatedTypeFactory extends BaseAnnotatedType
             + expression.getClass());
   }
 
+  /**
+   * A predicate that has been parsed once, in a form that is cheap to evaluate many times. Its
+   * variables are represented by the indices that the enclosing factory assigns to accumulated
+   * values, so it can be evaluated directly against the result of {@link
+   * #getAccumulatedValueBits(AnnotationMirror)}.
+   */
+  private static final class CompiledPredicate {
+
+    /** The instruction for logical complement. */
+    static final int NOT = -1;
+
+    /** The instruction for logical and. */
+    static final int AND = -2;
+
+    /** The instruction for logical or. */
+    static final int OR = -3;
+
+    /**
+     * The predicate, in postfix form. A non-negative instruction pushes whether the value with that
+     * index has been accumulated; {@link #NOT}, {@link #AND}, and {@link #OR} pop their operands
+     * and push the result.
+     */
+    private final int[] program;
+
+    /** The maximum depth of the operand stack while running {@link #program}. */
+    private final int maxStackDepth;
+
+    /**
+     * Creates a CompiledPredicate.
+     *
+     * @param program the predicate, in postfix form
+     */
+    CompiledPredicate(List<Integer> program) {
+      this.program = new int[program.size()];
+      int depth = 0;
+      int maxDepth = 0;
+      for (int i = 0; i < this.program.length; i++) {
+        int instruction = program.get(i);
+        this.program[i] = instruction;
+        if (instruction >= 0) {
+          depth++;
+          maxDepth = Math.max(maxDepth, depth);
+        } else if (instruction != NOT) {
+          depth--;
+        }
+      }
+      this.maxStackDepth = maxDepth;
+    }
+
+    /**
+     * Evaluates this predicate.
+     *
+     * @param trueVariables the indices of the variables that are true; all others are false
+     * @return the value of this predicate
+     */
+    boolean evaluate(BitSet trueVariables) {
+      boolean[] stack = new boolean[maxStackDepth];
+      int top = -1;
+      for (int instruction : program) {
+        switch (instruction) {
+          case NOT:
+            stack[top] = !stack[top];
+            break;
+          case AND:
+            top--;
+            stack[top] = stack[top] && stack[top + 1];
+            break;
+          case OR:
+            top--;
+            stack[top] = stack[top] || stack[top + 1];
+            break;
+          default:
+            stack[++top] = trueVariables.get(instruction);
+        }
+      }
+      return stack[0];
+    }
+  }
+
   /**
    * Creates a new predicate annotation from the given string.
    *
@@ -23,7 +23,10 @@ import java.util.Set;
 import java.util.TreeSet;
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
 import javax.tools.Diagnostic;
 import org.checkerframework.checker.interning.qual.FindDistinct;
 import org.checkerframework.checker.interning.qual.InternedDistinct;
@@ -38,10 +41,12 @@ import org.checkerframework.framework.type.AnnotatedTypeFactory;
 import org.checkerframework.framework.type.GenericAnnotatedTypeFactory;
 import org.checkerframework.framework.type.QualifierHierarchy;
 import org.checkerframework.framework.type.TypeHierarchy;
+import org.checkerframework.framework.util.BoundedCache;
 import org.checkerframework.framework.util.TreePathCacher;
 import org.checkerframework.javacutil.AbstractTypeProcessor;
 import org.checkerframework.javacutil.AnnotationProvider;
 import org.checkerframework.javacutil.BugInCF;
+import org.checkerframework.javacutil.ElementUtils;
 import org.checkerframework.javacutil.InternalUtils;
 import org.checkerframework.javacutil.TypeSystemError;
 import org.checkerframework.javacutil.UserError;
@@ -114,6 +119,11 @@ public abstract class BaseTypeChecker extends SourceChecker {
     super.initChecker();
 
     warnUnneededSuppressions = hasOption("warnUnneededSuppressions");
+
+    if (parentChecker == null) {
+      // The type factories of all subcheckers exist now.
+      getTypeFactory().checkCacheSizesOption(getTypeFactoriesOfThisAndSubcheckers());
+    }
   }
 
   /**
@@ -151,6 +161,18 @@ public abstract class BaseTypeChecker extends SourceChecker {
    */
   private TreePathCacher treePathCacher = null;
 
+  /**
+   * A cache from a method to the methods that it overrides, shared between this checker and its
+   * subcheckers. Only the checker that runs the others sets this field, in {@link
+   * #createOverriddenMethodsCache}. Do not read this field directly; use {@link
+   * #getOverriddenMethodsCache}.
+   */
+  private @MonotonicNonNull BoundedCache<ExecutableElement, List<ExecutableElement>>
+      overriddenMethodsCache = null;
+
+  /** The maximum size of {@link #overriddenMethodsCache}. */
+  private static final int OVERRIDDEN_METHODS_CACHE_SIZE = 10000;
+
   /**
    * The list of suppress warnings prefixes supported by this checker or any of its subcheckers
    * (including indirect subcheckers). Do not access this field directly; instead, use {@link
@@ -512,6 +534,21 @@ public abstract class BaseTypeChecker extends SourceChecker {
 
     return subcheckers;
   }
+  /**
+   * Returns the type factories of this checker and of all its subcheckers, which share this
+   * checker's options.
+   *
+   * @return the type factories of this checker and of all its subcheckers
+   */
+  public List<AnnotatedTypeFactory> getTypeFactoriesOfThisAndSubcheckers() {
+    List<AnnotatedTypeFactory> factories = new ArrayList<>();
+    factories.add(getTypeFactory());
+    for (BaseTypeChecker subchecker : getSubcheckers()) {
+      factories.add(subchecker.getTypeFactory());
+    }
+    return factories;
+  }
+
 
   /** Get the shared TreePathCacher instance. */
   public TreePathCacher getTreePathCacher() {
@@ -522,6 +559,83 @@ public abstract class BaseTypeChecker extends SourceChecker {
     return treePathCacher;
   }
 
+  /**
+   * Returns the checker that runs this checker as a subchecker, directly or indirectly, or this
+   * checker if it is not a subchecker.
+   *
+   * @return the checker that runs this checker and its subcheckers
+   */
+  private BaseTypeChecker getRootChecker() {
+    BaseTypeChecker root = this;
+    while (root.parentChecker instanceof BaseTypeChecker) {
+      root = (BaseTypeChecker) root.parentChecker;
+    }
+    return root;
+  }
+
+  /**
+   * Creates the cache used by {@link #getOverriddenMethods}, unless this checker shares one with
+   * the checkers that it runs or that run it. The type factory of each checker calls this method
+   * when it is constructed, so the cache is created like that factory's own caches: it can be sized
+   * with {@code -AatfCacheSizes=overriddenMethods:...} and its statistics are printed by {@code
+   * -AresourceStats}.
+   *
+   * @param factory the type factory of this checker, which is being constructed
+   */
+  public void createOverriddenMethodsCache(AnnotatedTypeFactory factory) {
+    BaseTypeChecker root = getRootChecker();
+    if (root.overriddenMethodsCache == null) {
+      root.overriddenMethodsCache =
+          factory.createCache("overriddenMethods", OVERRIDDEN_METHODS_CACHE_SIZE);
+    }
+  }
+
+  /**
+   * Returns the cache used by {@link #getOverriddenMethods}.
+   *
+   * @return the cache used by {@link #getOverriddenMethods}
+   */
+  private BoundedCache<ExecutableElement, List<ExecutableElement>> getOverriddenMethodsCache() {
+    BoundedCache<ExecutableElement, List<ExecutableElement>> cache =
+        getRootChecker().overriddenMethodsCache;
+    if (cache == null) {
+      throw new BugInCF("getOverriddenMethods called before a type factory was created");
+    }
+    return cache;
+  }
+
+  /**
+   * Returns the methods that the given method overrides, at most one per supertype of its enclosing
+   * class. The result does not depend on the type system, so it is computed once and shared between
+   * this checker and its subcheckers.
+   *
+   * @param method a method
+   * @return the methods that {@code method} overrides
+   */
+  public List<ExecutableElement> getOverriddenMethods(ExecutableElement method) {
+    BoundedCache<ExecutableElement, List<ExecutableElement>> cache = getOverriddenMethodsCache();
+    List<ExecutableElement> result = cache.get(method);
+    if (result != null) {
+      return result;
+    }
+
+    Elements elements = processingEnv.getElementUtils();
+    TypeElement enclosing = (TypeElement) method.getEnclosingElement();
+    List<ExecutableElement> overridden = new ArrayList<>();
+    for (TypeElement superElement : ElementUtils.getSuperTypes(enclosing, elements)) {
+      for (ExecutableElement supermethod :
+          ElementFilter.methodsIn(superElement.getEnclosedElements())) {
+        if (elements.overrides(method, supermethod, superElement)) {
+          overridden.add(supermethod);
+          break;
+        }
+      }
+    }
+    result = Collections.unmodifiableList(overridden);
+    cache.put(method, result);
+    return result;
+  }
+
   // AbstractTypeProcessor delegation
   @Override
   public void typeProcess(TypeElement element, TreePath tree) {
@@ -659,7 +773,7 @@ public abstract class BaseTypeChecker extends SourceChecker {
   protected void printOrStoreMessage(
       Diagnostic.Kind kind, String message, Tree source, CompilationUnitTree root) {
     assert this.currentRoot == root;
-    StackTraceElement[] trace = Thread.currentThread().getStackTrace();
+    StackTraceElement[] trace = getStackTraceForDumpOnErrors();
     if (messageStore == null) {
       super.printOrStoreMessage(kind, message, source, root, trace);
     } else {
@@ -692,7 +806,10 @@ public abstract class BaseTypeChecker extends SourceChecker {
     /** The source code that the message is about. */
     final @InternedDistinct Tree source;
 
-    /** Stores the stack trace when the message is created. */
+    /**
+     * Stores the stack trace when the message is created, or an empty array if the "dumpOnErrors"
+     * option is not enabled.
+     */
     final StackTraceElement[] trace;
 
     /**
@@ -908,6 +1025,74 @@ public abstract class BaseTypeChecker extends SourceChecker {
     return false;
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Prints the statistics of the type factory of this checker and of every checker returned by
+   * {@link #getSubcheckers}, which includes indirect subcheckers.
+   */
+  @Override
+  protected void printCheckerStats() {
+    super.printCheckerStats();
+    printBlockVisitLimitStats(this);
+    printSkippedFlowStats(this);
+    printCacheStats(this);
+    for (BaseTypeChecker checker : getSubcheckers()) {
+      printBlockVisitLimitStats(checker);
+      printSkippedFlowStats(checker);
+      printCacheStats(checker);
+    }
+  }
+
+  /**
+   * Prints the number of methods whose dataflow analysis was skipped because of {@code
+   * -AskipIrrelevantDataflow}, if any.
+   *
+   * @param checker the checker whose type factory's statistics to print
+   */
+  private static void printSkippedFlowStats(BaseTypeChecker checker) {
+    int skipped = checker.getTypeFactory().getNumMethodsSkippedByFlow();
+    if (skipped != 0) {
+      System.out.printf(
+          "%s: dataflow analysis skipped %d irrelevant methods%n",
+          checker.getClass().getSimpleName(), skipped);
+    }
+  }
+
+  /**
+   * Prints how effective the caches of the checker's type factory have been.
+   *
+   * @param checker the checker whose type factory's statistics to print
+   */
+  private static void printCacheStats(BaseTypeChecker checker) {
+    for (BoundedCache<?, ?> cache : checker.getTypeFactory().getCaches()) {
+      System.out.printf(
+          "%s: cache %s%n", checker.getClass().getSimpleName(), cache.getStatistics());
+    }
+  }
+
+  /**
+   * Prints the code blocks whose dataflow analysis reached the {@code -AdataflowBlockVisitLimit}
+   * limit, if any.
+   *
+   * @param checker the checker whose type factory's statistics to print
+   */
+  private static void printBlockVisitLimitStats(BaseTypeChecker checker) {
+    GenericAnnotatedTypeFactory<?, ?, ?, ?> factory = checker.getTypeFactory();
+    int numCode = factory.getNumCodeThatReachedBlockVisitLimit();
+    if (numCode != 0) {
+      List<String> code = factory.getCodeThatReachedBlockVisitLimit();
+      System.out.printf(
+          "%s: dataflow analysis reached -AdataflowBlockVisitLimit in %d code blocks%s:%n",
+          checker.getClass().getSimpleName(),
+          numCode,
+          code.size() < numCode ? ", the first " + code.size() + " of which are" : "");
+      for (String name : code) {
+        System.out.println("  " + name);
+      }
+    }
+  }
+
   @Override
   protected void shutdownHook() {
     super.shutdownHook();
@@ -384,6 +384,14 @@ public class BaseTypeVisitor<Factory extends GenericAnnotatedTypeFactory<?, ?, ?
 
   @Override
   public Void scan(@Nullable Tree tree, Void p) {
+    if (tree != null
+        && tree.getKind() == Tree.Kind.METHOD
+        && getCurrentPath() != null
+        && getCurrentPath().getLeaf() instanceof ClassTree
+        && checker.shouldSkipDefs((ClassTree) getCurrentPath().getLeaf(), (MethodTree) tree)) {
+      // Skip the method entirely, as for a class in visitClass.
+      return null;
+    }
     if (tree != null && getCurrentPath() != null) {
       this.atypeFactory.setVisitorTreePath(new TreePath(getCurrentPath(), tree));
     }
@@ -1,17 +1,34 @@
 package org.checkerframework.framework.flow;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.VariableElement;
 import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Types;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.common.basetype.BaseTypeChecker;
+import org.checkerframework.dataflow.analysis.AnalysisResult;
+import org.checkerframework.dataflow.analysis.BackwardAnalysisImpl;
 import org.checkerframework.dataflow.analysis.ForwardAnalysisImpl;
+import org.checkerframework.dataflow.analysis.Store;
 import org.checkerframework.dataflow.cfg.ControlFlowGraph;
+import org.checkerframework.dataflow.cfg.block.Block;
+import org.checkerframework.dataflow.cfg.node.LocalVariableNode;
+import org.checkerframework.dataflow.cfg.node.Node;
 import org.checkerframework.dataflow.expression.FieldAccess;
+import org.checkerframework.dataflow.expression.JavaExpression;
+import org.checkerframework.dataflow.livevariable.LiveVarStore;
+import org.checkerframework.dataflow.livevariable.LiveVarTransfer;
+import org.checkerframework.dataflow.livevariable.LiveVarValue;
 import org.checkerframework.framework.source.SourceChecker;
 import org.checkerframework.framework.type.AnnotatedTypeFactory;
 import org.checkerframework.framework.type.AnnotatedTypeMirror;
@@ -23,6 +40,7 @@ import org.checkerframework.framework.type.TypeHierarchy;
 import org.checkerframework.framework.util.dependenttypes.DependentTypesHelper;
 import org.checkerframework.javacutil.AnnotationMirrorSet;
 import org.checkerframework.javacutil.TypesUtils;
+import org.checkerframework.javacutil.UserError;
 
 /**
  * {@link CFAbstractAnalysis} is an extensible org.checkerframework.dataflow analysis for the
@@ -100,6 +118,22 @@ public abstract class CFAbstractAnalysis<
   /** Instance of the types utility. */
   protected final Types types;
 
+  /** True if the {@code -ApruneDeadLocals} command-line option was supplied. */
+  private final boolean pruneDeadLocals;
+
+  /**
+   * The names of the local variables that are live on entry to each block of the control flow
+   * graph being analyzed, if {@link #pruneDeadLocals} is true. A block that is not in the map, such
+   * as a block from which the exit of the method cannot be reached, is not pruned.
+   */
+  private final Map<Block, Set<String>> liveLocalNames = new IdentityHashMap<>();
+
+  /**
+   * The canonical expressions of the control flow graph being analyzed: for each expression that
+   * has been a key of a store, the first equal expression. See {@link #canonicalExpression}.
+   */
+  private final Map<JavaExpression, JavaExpression> canonicalExpressions = new HashMap<>();
+
   /**
    * Create a CFAbstractAnalysis.
    *
@@ -111,7 +145,7 @@ public abstract class CFAbstractAnalysis<
       BaseTypeChecker checker,
       GenericAnnotatedTypeFactory<V, S, T, ? extends CFAbstractAnalysis<V, S, T>> factory,
       int maxCountBeforeWidening) {
-    super(maxCountBeforeWidening);
+    super(maxCountBeforeWidening, getBlockVisitLimit(checker));
     env = checker.getProcessingEnvironment();
     types = env.getTypeUtils();
     qualHierarchy = factory.getQualifierHierarchy();
@@ -121,6 +155,30 @@ public abstract class CFAbstractAnalysis<
     this.checker = checker;
     this.transferFunction = createTransferFunction();
     this.fieldValues = new ArrayList<>();
+    this.pruneDeadLocals = checker.hasOption("pruneDeadLocals");
+  }
+
+  /**
+   * Returns the number of times a block can be analyzed before facts that have not stabilized are
+   * discarded, as given by the {@code -AdataflowBlockVisitLimit} command-line argument.
+   *
+   * @param checker a checker that contains command-line arguments
+   * @return the block visit limit, or -1 if there is none
+   */
+  private static int getBlockVisitLimit(BaseTypeChecker checker) {
+    String limit = checker.getOption("dataflowBlockVisitLimit");
+    if (limit == null) {
+      return -1;
+    }
+    try {
+      int result = Integer.parseInt(limit);
+      if (result > 0) {
+        return result;
+      }
+    } catch (NumberFormatException e) {
+      // Fall through to report the error.
+    }
+    throw new UserError("-AdataflowBlockVisitLimit must be a positive integer, but is " + limit);
   }
 
   /**
@@ -144,7 +202,85 @@ public abstract class CFAbstractAnalysis<
   public void performAnalysis(ControlFlowGraph cfg, List<FieldInitialValue<V>> fieldValues) {
     this.fieldValues.clear();
     this.fieldValues.addAll(fieldValues);
+    liveLocalNames.clear();
+    if (pruneDeadLocals) {
+      computeLiveLocalNames(cfg);
+    }
     super.performAnalysis(cfg);
+    liveLocalNames.clear();
+    canonicalExpressions.clear();
+  }
+
+  /**
+   * Returns the canonical expression that is equal to the given one: the first equal expression
+   * that was passed to this method during the analysis of the current control flow graph.
+   *
+   * <p>Stores use canonical expressions as the keys of their maps. Then equal keys of different
+   * stores are usually the same object, so that copying, comparing, and merging stores finds them
+   * by identity rather than by comparing their structure.
+   *
+   * @param <E> the class of the expression
+   * @param expr an expression
+   * @return the canonical expression that is equal to {@code expr}
+   */
+  @SuppressWarnings("unchecked") // equal expressions have the same class
+  public <E extends JavaExpression> E canonicalExpression(E expr) {
+    JavaExpression canonical = canonicalExpressions.putIfAbsent(expr, expr);
+    if (canonical == null || canonical.getClass() != expr.getClass()) {
+      return expr;
+    }
+    return (E) canonical;
+  }
+
+  /**
+   * Runs a live variable analysis on the given control flow graph, and records in {@link
+   * #liveLocalNames} the local variables that are live on entry to each block.
+   *
+   * @param cfg a control flow graph
+   */
+  private void computeLiveLocalNames(ControlFlowGraph cfg) {
+    BackwardAnalysisImpl<LiveVarValue, LiveVarStore, LiveVarTransfer> liveness =
+        new BackwardAnalysisImpl<>(new LiveVarTransfer());
+    liveness.performAnalysis(cfg);
+    AnalysisResult<LiveVarValue, LiveVarStore> result = liveness.getResult();
+    for (Block block : cfg.getAllBlocks()) {
+      if (liveness.getInput(block) == null) {
+        continue;
+      }
+      Set<String> names = new HashSet<>();
+      for (LiveVarValue live : result.getStoreBefore(block).getFacts()) {
+        Node variable = live.getLiveVariable();
+        if (variable instanceof LocalVariableNode) {
+          names.add(((LocalVariableNode) variable).getName());
+        }
+      }
+      liveLocalNames.put(block, names);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>If the {@code -ApruneDeadLocals} command-line option was supplied, the information about
+   * local variables that are dead on entry to {@code b} is removed from {@code s} first. Such
+   * information cannot affect any type in {@code b} or after it, and removing it keeps the stores
+   * small and lets them reach a fixed point sooner. Formal parameters are never removed, because
+   * postconditions are checked against the values of the parameters at the exit of the method.
+   */
+  @Override
+  protected void addStoreBefore(
+      Block b, @Nullable Node node, S s, Store.Kind kind, boolean addBlockToWorklist) {
+    Set<String> live = liveLocalNames.get(b);
+    if (live != null) {
+      s =
+          s.withoutLocalVariables(
+              localVar -> {
+                VariableElement element = localVar.getElement();
+                return element.getKind() != ElementKind.PARAMETER
+                    && !live.contains(element.getSimpleName().toString());
+              });
+    }
+    super.addStoreBefore(b, node, s, kind, addBlockToWorklist);
   }
 
   /**
@@ -8,6 +8,7 @@ import java.util.Objects;
 import java.util.StringJoiner;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BinaryOperator;
+import java.util.function.Predicate;
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Name;
@@ -33,6 +34,7 @@ import org.checkerframework.dataflow.expression.LocalVariable;
 import org.checkerframework.dataflow.expression.MethodCall;
 import org.checkerframework.dataflow.expression.ThisReference;
 import org.checkerframework.dataflow.qual.SideEffectFree;
+import org.checkerframework.dataflow.util.SideEffectSummary;
 import org.checkerframework.framework.qual.MonotonicQualifier;
 import org.checkerframework.framework.type.AnnotatedTypeFactory;
 import org.checkerframework.framework.type.GenericAnnotatedTypeFactory;
@@ -169,10 +171,37 @@ public abstract class CFAbstractStore<V extends CFAbstractValue<V>, S extends CF
    */
   public void initializeMethodParameter(LocalVariableNode p, @Nullable V value) {
     if (value != null) {
-      localVariableValues.put(new LocalVariable(p.getElement()), value);
+      LocalVariable localVar = new LocalVariable(p.getElement());
+      localVariableValues.put(analysis.canonicalExpression(localVar), value);
     }
   }
 
+  /**
+   * Returns a store that has no information about the local variables that satisfy the given
+   * predicate, and is otherwise the same as this store. This store is not modified.
+   *
+   * @param dead the local variables to remove
+   * @return this store if it has no information about any local variable that satisfies {@code
+   *     dead}, otherwise a copy of this store without that information
+   */
+  public S withoutLocalVariables(Predicate<LocalVariable> dead) {
+    boolean found = false;
+    for (LocalVariable localVar : localVariableValues.keySet()) {
+      if (dead.test(localVar)) {
+        found = true;
+        break;
+      }
+    }
+    @SuppressWarnings("unchecked")
+    S thisStore = (S) this;
+    if (!found) {
+      return thisStore;
+    }
+    S result = analysis.createCopiedStore(thisStore);
+    result.localVariableValues.keySet().removeIf(dead);
+    return result;
+  }
+
   /**
    * Set the value of the current object. Any previous information is erased; this method should
    * only be used to initialize the value.
@@ -234,75 +263,46 @@ public abstract class CFAbstractStore<V extends CFAbstractValue<V>, S extends CF
       boolean sideEffectsUnrefineAliases =
           ((GenericAnnotatedTypeFactory) atypeFactory).sideEffectsUnrefineAliases;
 
-      // update local variables
-      // TODO: Also remove if any element/argument to the annotation is not
-      // isUnmodifiableByOtherCode.  Example: @KeyFor("valueThatCanBeMutated").
-      if (sideEffectsUnrefineAliases) {
-        localVariableValues.entrySet().removeIf(e -> !e.getKey().isUnmodifiableByOtherCode());
-      }
+      SideEffectSummary summary =
+          ((GenericAnnotatedTypeFactory<?, ?, ?, ?>) atypeFactory).getSideEffectSummary(method);
+      if (summary != null && !summary.isUnknown() && !sideEffectsUnrefineAliases) {
+        // The callee cannot change local variables, so only the facts that depend on state that
+        // the callee writes are affected.
+        removeAffectedHeapValues(summary, atypeFactory);
+      } else {
+        // update local variables
+        // TODO: Also remove if any element/argument to the annotation is not
+        // isUnmodifiableByOtherCode.  Example: @KeyFor("valueThatCanBeMutated").
+        if (sideEffectsUnrefineAliases) {
+          localVariableValues.entrySet().removeIf(e -> !e.getKey().isUnmodifiableByOtherCode());
+        }
 
-      // update this value
-      if (sideEffectsUnrefineAliases) {
-        thisValue = null;
-      }
+        // update this value
+        if (sideEffectsUnrefineAliases) {
+          thisValue = null;
+        }
 
-      // update field values
-      if (sideEffectsUnrefineAliases) {
-        fieldValues.entrySet().removeIf(e -> !e.getKey().isUnmodifiableByOtherCode());
-      } else {
-        Map<FieldAccess, V> newFieldValues =
-            new HashMap<>(CollectionsPlume.mapCapacity(fieldValues));
-        for (Map.Entry<FieldAccess, V> e : fieldValues.entrySet()) {
-          FieldAccess fieldAccess = e.getKey();
-          V otherVal = e.getValue();
-
-          // case 3: the field has a monotonic annotation
-          if (!((GenericAnnotatedTypeFactory<?, ?, ?, ?>) atypeFactory)
-              .getSupportedMonotonicTypeQualifiers()
-              .isEmpty()) {
-            List<Pair<AnnotationMirror, AnnotationMirror>> fieldAnnotations =
-                atypeFactory.getAnnotationWithMetaAnnotation(
-                    fieldAccess.getField(), MonotonicQualifier.class);
-            V newOtherVal = null;
-            for (Pair<AnnotationMirror, AnnotationMirror> fieldAnnotation : fieldAnnotations) {
-              AnnotationMirror monotonicAnnotation = fieldAnnotation.second;
-              @SuppressWarnings("deprecation") // permitted for use in the framework
-              Name annotation =
-                  AnnotationUtils.getElementValueClassName(monotonicAnnotation, "value", false);
-              AnnotationMirror target =
-                  AnnotationBuilder.fromName(atypeFactory.getElementUtils(), annotation);
-              // Make sure the 'target' annotation is present.
-              if (AnnotationUtils.containsSame(otherVal.getAnnotations(), target)) {
-                newOtherVal =
-                    analysis
-                        .createSingleAnnotationValue(target, otherVal.getUnderlyingType())
-                        .mostSpecific(newOtherVal, null);
-              }
+        // update field values
+        if (sideEffectsUnrefineAliases) {
+          fieldValues.entrySet().removeIf(e -> !e.getKey().isUnmodifiableByOtherCode());
+        } else {
+          Map<FieldAccess, V> newFieldValues =
+              new HashMap<>(CollectionsPlume.mapCapacity(fieldValues));
+          for (Map.Entry<FieldAccess, V> e : fieldValues.entrySet()) {
+            V newValue = valueAfterSideEffect(e.getKey(), e.getValue(), atypeFactory);
+            if (newValue != null) {
+              newFieldValues.put(e.getKey(), newValue);
             }
-            if (newOtherVal != null) {
-              // keep information for all hierarchies where we had a
-              // monotone annotation.
-              newFieldValues.put(fieldAccess, newOtherVal);
-              continue;
-            }
-          }
-
-          // case 2:
-          if (!fieldAccess.isUnassignableByOtherCode()) {
-            continue; // remove information completely
           }
-
-          // keep information
-          newFieldValues.put(fieldAccess, otherVal);
+          fieldValues = newFieldValues;
         }
-        fieldValues = newFieldValues;
-      }
 
-      // update array values
-      arrayValues.clear();
+        // update array values
+        arrayValues.clear();
 
-      // update method values
-      methodValues.keySet().removeIf(e -> !e.isUnmodifiableByOtherCode());
+        // update method values
+        methodValues.keySet().removeIf(e -> !e.isUnmodifiableByOtherCode());
+      }
     }
 
     // store information about method call if possible
@@ -310,6 +310,94 @@ public abstract class CFAbstractStore<V extends CFAbstractValue<V>, S extends CF
     replaceValue(methodCall, val);
   }
 
+  /**
+   * Removes the information about the heap that a call to a method with the given summary might
+   * invalidate. Does not change information about local variables.
+   *
+   * @param summary the summary of the side effects of the called method, which is not unknown
+   * @param atypeFactory the type factory used to retrieve annotations on the field declarations
+   */
+  protected void removeAffectedHeapValues(
+      SideEffectSummary summary, AnnotatedTypeFactory atypeFactory) {
+    if (summary.isSideEffectFree()) {
+      return;
+    }
+
+    // update field values
+    Map<FieldAccess, V> newFieldValues = new HashMap<>(CollectionsPlume.mapCapacity(fieldValues));
+    for (Map.Entry<FieldAccess, V> e : fieldValues.entrySet()) {
+      FieldAccess fieldAccess = e.getKey();
+      V value = e.getValue();
+      if (summary.mayAffect(fieldAccess)) {
+        value = valueAfterSideEffect(fieldAccess, value, atypeFactory);
+      }
+      if (value != null) {
+        newFieldValues.put(fieldAccess, value);
+      }
+    }
+    fieldValues = newFieldValues;
+
+    // update array values
+    if (summary.writesArrays()) {
+      arrayValues.clear();
+    } else {
+      arrayValues.keySet().removeIf(summary::mayAffect);
+    }
+
+    // update method values
+    methodValues.keySet().removeIf(e -> !e.isUnmodifiableByOtherCode());
+  }
+
+  /**
+   * Returns the information about a field that remains true after a side effect that might assign
+   * it, or null if no information remains.
+   *
+   * @param fieldAccess the field access
+   * @param value the information about {@code fieldAccess} before the side effect
+   * @param atypeFactory the type factory used to retrieve annotations on the field declaration
+   * @return the information about {@code fieldAccess} after the side effect, or null
+   */
+  private @Nullable V valueAfterSideEffect(
+      FieldAccess fieldAccess, V value, AnnotatedTypeFactory atypeFactory) {
+    // case 3: the field has a monotonic annotation
+    if (!((GenericAnnotatedTypeFactory<?, ?, ?, ?>) atypeFactory)
+        .getSupportedMonotonicTypeQualifiers()
+        .isEmpty()) {
+      List<Pair<AnnotationMirror, AnnotationMirror>> fieldAnnotations =
+          atypeFactory.getAnnotationWithMetaAnnotation(
+              fieldAccess.getField(), MonotonicQualifier.class);
+      V newValue = null;
+      for (Pair<AnnotationMirror, AnnotationMirror> fieldAnnotation : fieldAnnotations) {
+        AnnotationMirror monotonicAnnotation = fieldAnnotation.second;
+        @SuppressWarnings("deprecation") // permitted for use in the framework
+        Name annotation =
+            AnnotationUtils.getElementValueClassName(monotonicAnnotation, "value", false);
+        AnnotationMirror target =
+            AnnotationBuilder.fromName(atypeFactory.getElementUtils(), annotation);
+        // Make sure the 'target' annotation is present.
+        if (AnnotationUtils.containsSame(value.getAnnotations(), target)) {
+          newValue =
+              analysis
+                  .createSingleAnnotationValue(target, value.getUnderlyingType())
+                  .mostSpecific(newValue, null);
+        }
+      }
+      if (newValue != null) {
+        // keep information for all hierarchies where we had a
+        // monotone annotation.
+        return newValue;
+      }
+    }
+
+    // case 2:
+    if (!fieldAccess.isUnassignableByOtherCode()) {
+      return null; // remove information completely
+    }
+
+    // keep information
+    return value;
+  }
+
   /**
    * Add the annotation {@code a} for the expression {@code expr} (correctly deciding where to store
    * the information depending on the type of the expression {@code expr}).
@@ -553,7 +641,7 @@ public abstract class CFAbstractStore<V extends CFAbstractValue<V>, S extends CF
       V oldValue = localVariableValues.get(localVar);
       V newValue = merger.apply(oldValue, value);
       if (newValue != null) {
-        localVariableValues.put(localVar, newValue);
+        localVariableValues.put(analysis.canonicalExpression(localVar), newValue);
       }
     } else if (expr instanceof FieldAccess) {
       FieldAccess fieldAcc = (FieldAccess) expr;
@@ -564,7 +652,7 @@ public abstract class CFAbstractStore<V extends CFAbstractValue<V>, S extends CF
         V oldValue = fieldValues.get(fieldAcc);
         V newValue = merger.apply(oldValue, value);
         if (newValue != null) {
-          fieldValues.put(fieldAcc, newValue);
+          fieldValues.put(analysis.canonicalExpression(fieldAcc), newValue);
         }
       }
     } else if (expr instanceof MethodCall) {
@@ -574,7 +662,7 @@ public abstract class CFAbstractStore<V extends CFAbstractValue<V>, S extends CF
         V oldValue = methodValues.get(method);
         V newValue = merger.apply(oldValue, value);
         if (newValue != null) {
-          methodValues.put(method, newValue);
+          methodValues.put(analysis.canonicalExpression(method), newValue);
         }
       }
     } else if (expr instanceof ArrayAccess) {
@@ -583,7 +671,7 @@ public abstract class CFAbstractStore<V extends CFAbstractValue<V>, S extends CF
         V oldValue = arrayValues.get(arrayAccess);
         V newValue = merger.apply(oldValue, value);
         if (newValue != null) {
-          arrayValues.put(arrayAccess, newValue);
+          arrayValues.put(analysis.canonicalExpression(arrayAccess), newValue);
         }
       }
     } else if (expr instanceof ThisReference) {
@@ -601,7 +689,7 @@ public abstract class CFAbstractStore<V extends CFAbstractValue<V>, S extends CF
         V oldValue = classValues.get(className);
         V newValue = merger.apply(oldValue, value);
         if (newValue != null) {
-          classValues.put(className, newValue);
+          classValues.put(analysis.canonicalExpression(className), newValue);
         }
       }
     } else {
@@ -834,7 +922,7 @@ public abstract class CFAbstractStore<V extends CFAbstractValue<V>, S extends CF
       if (sequentialSemantics
           || isMonotonicUpdate(fieldAccess, val)
           || fieldAccess.isUnassignableByOtherCode()) {
-        fieldValues.put(fieldAccess, val);
+        fieldValues.put(analysis.canonicalExpression(fieldAccess), val);
       }
     }
   }
@@ -852,7 +940,7 @@ public abstract class CFAbstractStore<V extends CFAbstractValue<V>, S extends CF
       // Only store information about final fields (where the receiver is
       // also fixed) if concurrent semantics are enabled.
       if (sequentialSemantics) {
-        arrayValues.put(arrayAccess, val);
+        arrayValues.put(analysis.canonicalExpression(arrayAccess), val);
       }
     }
   }
@@ -867,7 +955,7 @@ public abstract class CFAbstractStore<V extends CFAbstractValue<V>, S extends CF
   protected void updateForLocalVariableAssignment(LocalVariable receiver, @Nullable V val) {
     removeConflicting(receiver);
     if (val != null) {
-      localVariableValues.put(receiver, val);
+      localVariableValues.put(analysis.canonicalExpression(receiver), val);
     }
   }
 
@@ -1094,6 +1182,42 @@ public abstract class CFAbstractStore<V extends CFAbstractValue<V>, S extends CF
     return upperBound(previous, true);
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>This implementation computes the least upper bound, then removes every local variable,
+   * field, array, method, and class value (and the value of {@code this}) whose value differs
+   * between the two stores.
+   */
+  @Override
+  public S forcedUpperBound(S previous) {
+    S newStore = leastUpperBound(previous);
+    removeUnstableValues(
+        newStore.localVariableValues, localVariableValues, previous.localVariableValues);
+    removeUnstableValues(newStore.fieldValues, fieldValues, previous.fieldValues);
+    removeUnstableValues(newStore.arrayValues, arrayValues, previous.arrayValues);
+    removeUnstableValues(newStore.methodValues, methodValues, previous.methodValues);
+    removeUnstableValues(newStore.classValues, classValues, previous.classValues);
+    if (!Objects.equals(thisValue, previous.thisValue)) {
+      newStore.thisValue = null;
+    }
+    return newStore;
+  }
+
+  /**
+   * Removes from {@code result} every key whose values in {@code values1} and {@code values2}
+   * differ.
+   *
+   * @param <K> the type of keys
+   * @param result the map to remove keys from
+   * @param values1 the first map of values
+   * @param values2 the second map of values
+   */
+  private static <K> void removeUnstableValues(
+      Map<K, ?> result, Map<K, ?> values1, Map<K, ?> values2) {
+    result.keySet().removeIf(key -> !Objects.equals(values1.get(key), values2.get(key)));
+  }
+
   private S upperBound(S other, boolean shouldWiden) {
     S newStore = analysis.createEmptyStore(sequentialSemantics);
 
@@ -17,6 +17,8 @@ import javax.annotation.processing.ProcessingEnvironment;
 import javax.lang.model.element.TypeElement;
 import javax.tools.Diagnostic;
 import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.checkerframework.common.basetype.BaseTypeChecker;
+import org.checkerframework.framework.type.AnnotatedTypeFactory;
 
 /**
  * An aggregate checker that packages multiple checkers together. The resulting checker invokes the
@@ -100,6 +102,18 @@ public abstract class AggregateChecker extends SourceChecker {
       checker.setSupportedLintOptions(this.getSupportedLintOptions());
     }
     allCheckersInited = true;
+
+    // The type factories of all checkers exist now.  All checkers have the same options, so check
+    // them once, against the caches of all the checkers.
+    List<AnnotatedTypeFactory> factories = new ArrayList<>();
+    for (SourceChecker checker : checkers) {
+      if (checker instanceof BaseTypeChecker) {
+        factories.addAll(((BaseTypeChecker) checker).getTypeFactoriesOfThisAndSubcheckers());
+      }
+    }
+    if (!factories.isEmpty()) {
+      factories.get(0).checkCacheSizesOption(factories);
+    }
   }
 
   // Whether all checkers were successfully initialized.
@@ -132,6 +146,14 @@ public abstract class AggregateChecker extends SourceChecker {
     }
   }
 
+  @Override
+  protected void printCheckerStats() {
+    super.printCheckerStats();
+    for (SourceChecker checker : checkers) {
+      checker.printCheckerStats();
+    }
+  }
+
   @Override
   public void typeProcessingOver() {
     for (SourceChecker checker : checkers) {
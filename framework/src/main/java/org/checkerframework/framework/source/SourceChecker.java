@@ -3,6 +3,7 @@ package org.checkerframework.framework.source;
 import com.sun.source.tree.AnnotationTree;
 import com.sun.source.tree.ClassTree;
 import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.LineMap;
 import com.sun.source.tree.MethodTree;
 import com.sun.source.tree.Tree;
 import com.sun.source.tree.VariableTree;
@@ -17,6 +18,7 @@ import com.sun.tools.javac.util.JCDiagnostic.DiagnosticPosition;
 import com.sun.tools.javac.util.Log;
 import io.github.classgraph.ClassGraph;
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -26,6 +28,9 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Proxy;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.time.Instant;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -53,6 +58,7 @@ import javax.annotation.processing.RoundEnvironment;
 import javax.annotation.processing.SupportedAnnotationTypes;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.Element;
+import javax.lang.model.element.NestingKind;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
@@ -118,6 +124,12 @@ import org.plumelib.util.UtilPlume;
   "skipDefs",
   "onlyDefs",
 
+  // Check only the methods whose qualified names match a regex, for example the methods that an
+  // editor knows to have changed.  Each run is still a complete compilation; no state is kept
+  // between runs.  Methods of local and anonymous classes are not matched against the regex.
+  // org.checkerframework.framework.source.SourceChecker.shouldSkipDefs(ClassTree, MethodTree)
+  "onlyMethods",
+
   // Unsoundly assume all methods have no side effects, are deterministic, or both.
   "assumeSideEffectFree",
   "assumeDeterministic",
@@ -272,9 +284,34 @@ import org.plumelib.util.UtilPlume;
   // directly in source code, such as during whole-program inference. The annotations in the
   // stub files will be glb'd with those in the source code before local inference begins.
   "mergeStubsWithSource",
+  // Parse the text of the annotation files in a directory on several threads.
+  // org.checkerframework.framework.stub.AnnotationFileElementTypes.parseAnnotationFiles
+  "parseAnnotationFilesInParallel",
   // Already listed above, but worth noting again in this section:
   // "useConservativeDefaultsForUncheckedCode"
 
+  ///
+  /// Performance
+  ///
+
+  // The number of times dataflow analysis may analyze a basic block before it discards the facts
+  // that have not stabilized.
+  // org.checkerframework.framework.flow.CFAbstractAnalysis.getBlockVisitLimit
+  "dataflowBlockVisitLimit",
+
+  // Whether to summarize the side effects of methods that are not annotated as side-effect-free,
+  // so that a call to such a method invalidates only the dataflow facts that it may affect.
+  // org.checkerframework.framework.type.GenericAnnotatedTypeFactory.getSideEffectSummary
+  "summarizeSideEffects",
+
+  // Whether to skip dataflow analysis of methods in which no type is relevant to the type system.
+  // org.checkerframework.framework.type.GenericAnnotatedTypeFactory.requiresFlowAnalysis
+  "skipIrrelevantDataflow",
+
+  // Whether to remove the facts about dead local variables from dataflow stores.
+  // org.checkerframework.framework.flow.CFAbstractAnalysis.addStoreBefore
+  "pruneDeadLocals",
+
   ///
   /// Debugging
   ///
@@ -316,6 +353,10 @@ import org.plumelib.util.UtilPlume;
   // org.checkerframework.framework.source.SourceChecker.message(Kind, Object, String, Object...)
   "detailedmsgtext",
 
+  // Also write each diagnostic about a tree, as one JSON object per line, to the given file.
+  // org.checkerframework.framework.source.SourceChecker.writeDiagnosticsJsonl
+  "diagnosticsJsonl",
+
   /// Stub and JDK libraries
 
   // Ignore the standard jdk.astub file; primarily for testing or debugging.
@@ -389,6 +430,10 @@ import org.plumelib.util.UtilPlume;
   // Set the cache size for caches in AnnotatedTypeFactory
   "atfCacheSize",
 
+  // Set the sizes of individual caches in AnnotatedTypeFactory, overriding atfCacheSize.
+  // AnnotatedTypeFactory.getCacheSize(String, int)
+  "atfCacheSizes",
+
   // Sets AnnotatedTypeFactory shouldCache to false
   "atfDoNotCache",
 
@@ -516,6 +561,14 @@ public abstract class SourceChecker extends AbstractTypeProcessor implements Opt
    */
   private @MonotonicNonNull Pattern onlyDefsPattern;
 
+  /**
+   * Regular expression pattern to specify methods whose definition should be checked.
+   *
+   * <p>It contains the pattern specified by the user, through the option {@code
+   * checkers.onlyMethods}; otherwise it contains a pattern that matches every method.
+   */
+  private @MonotonicNonNull Pattern onlyMethodsPattern;
+
   /** The supported lint options. */
   private @MonotonicNonNull Set<String> supportedLints;
 
@@ -571,6 +624,23 @@ public abstract class SourceChecker extends AbstractTypeProcessor implements Opt
   /** True if the -AwarnUnneededSuppressions command-line argument was passed. */
   private boolean warnUnneededSuppressions;
 
+  /** True if the -AdumpOnErrors command-line argument was passed. */
+  private boolean dumpOnErrors;
+
+  /** The file given by the -AdiagnosticsJsonl command-line argument, or null if none was given. */
+  private @Nullable String diagnosticsJsonlFile;
+
+  /**
+   * The writer for the file given by the -AdiagnosticsJsonl command-line argument; created when the
+   * first diagnostic is written. Only the checker that has no parent checker has a writer; its
+   * subcheckers, including indirect ones, write to it too. Use {@link
+   * #getDiagnosticsJsonlWriter()}.
+   */
+  private @MonotonicNonNull BufferedWriter diagnosticsJsonlWriter;
+
+  /** The stack trace stored with a message when the -AdumpOnErrors option is not enabled. */
+  private static final StackTraceElement[] NO_STACK_TRACE = new StackTraceElement[0];
+
   // Also see initChecker().
   @Override
   public final synchronized void init(ProcessingEnvironment env) {
@@ -650,6 +720,8 @@ public abstract class SourceChecker extends AbstractTypeProcessor implements Opt
    */
   @SuppressWarnings("interning:assignment") // used in == tests
   protected void setRoot(CompilationUnitTree newRoot) {
+    // The diagnostics about the previous compilation unit are complete.
+    flushDiagnosticsJsonl();
     this.currentRoot = newRoot;
     visitor.setRoot(currentRoot);
   }
@@ -786,7 +858,7 @@ public abstract class SourceChecker extends AbstractTypeProcessor implements Opt
    * Return the given only pattern if supplied by the user, or else a pattern that matches
    * everything.
    *
-   * @param patternName "onlyUses" or "onlyDefs"
+   * @param patternName "onlyUses", "onlyDefs", or "onlyMethods"
    * @param options the command-line options
    * @return the user-supplied regex for the given pattern, or a regex that matches everything
    */
@@ -926,6 +998,27 @@ public abstract class SourceChecker extends AbstractTypeProcessor implements Opt
     requirePrefixInWarningSuppressions = hasOption("requirePrefixInWarningSuppressions");
     showPrefixInWarningMessages = hasOption("showPrefixInWarningMessages");
     warnUnneededSuppressions = hasOption("warnUnneededSuppressions");
+    dumpOnErrors = hasOption("dumpOnErrors");
+    diagnosticsJsonlFile = getOption("diagnosticsJsonl");
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Closes the file given by the "diagnosticsJsonl" option, if this checker opened it.
+   */
+  @Override
+  public void typeProcessingOver() {
+    super.typeProcessingOver();
+    if (diagnosticsJsonlWriter != null) {
+      try {
+        diagnosticsJsonlWriter.close();
+      } catch (IOException e) {
+        throw new UserError(
+            "Cannot write to -AdiagnosticsJsonl file %s: %s",
+            getOption("diagnosticsJsonl"), e.getMessage());
+      }
+    }
   }
 
   /** Output the warning about source level at most once. */
@@ -1215,8 +1308,18 @@ public abstract class SourceChecker extends AbstractTypeProcessor implements Opt
    */
   protected void printOrStoreMessage(
       javax.tools.Diagnostic.Kind kind, String message, Tree source, CompilationUnitTree root) {
-    StackTraceElement[] trace = Thread.currentThread().getStackTrace();
-    printOrStoreMessage(kind, message, source, root, trace);
+    printOrStoreMessage(kind, message, source, root, getStackTraceForDumpOnErrors());
+  }
+
+  /**
+   * Returns the current stack trace if the "dumpOnErrors" option is enabled, and an empty array
+   * otherwise. Capturing the stack trace is expensive, and compound checkers retain it for every
+   * stored message.
+   *
+   * @return the stack trace to store with a message that is being issued
+   */
+  protected StackTraceElement[] getStackTraceForDumpOnErrors() {
+    return dumpOnErrors ? Thread.currentThread().getStackTrace() : NO_STACK_TRACE;
   }
 
   /**
@@ -1239,9 +1342,120 @@ public abstract class SourceChecker extends AbstractTypeProcessor implements Opt
       CompilationUnitTree root,
       StackTraceElement[] trace) {
     Trees.instance(processingEnv).printMessage(kind, message, source, root);
+    if (diagnosticsJsonlFile != null) {
+      writeDiagnosticsJsonl(kind, message, source, root);
+    }
     printStackTrace(trace);
   }
 
+  /**
+   * Writes the given message to the file given by the "diagnosticsJsonl" option, as a single line
+   * that contains a JSON object.
+   *
+   * @param kind the kind of message
+   * @param message the message text
+   * @param source the source code position of the diagnostic message
+   * @param root the compilation unit
+   */
+  private void writeDiagnosticsJsonl(
+      javax.tools.Diagnostic.Kind kind, String message, Tree source, CompilationUnitTree root) {
+    long pos = ((DiagnosticPosition) source).getPreferredPosition();
+    LineMap lineMap = root.getLineMap();
+    StringBuilder sb = new StringBuilder();
+    sb.append("{\"file\":");
+    appendJsonString(sb, root.getSourceFile().getName());
+    sb.append(",\"line\":").append(lineMap.getLineNumber(pos));
+    sb.append(",\"column\":").append(lineMap.getColumnNumber(pos));
+    sb.append(",\"kind\":");
+    appendJsonString(sb, kind.name());
+    sb.append(",\"message\":");
+    appendJsonString(sb, message);
+    sb.append("}");
+    try {
+      BufferedWriter writer = getDiagnosticsJsonlWriter();
+      writer.write(sb.toString());
+      writer.newLine();
+    } catch (IOException e) {
+      throw new UserError(
+          "Cannot write to -AdiagnosticsJsonl file %s: %s", diagnosticsJsonlFile, e.getMessage());
+    }
+  }
+
+  /**
+   * Returns the writer for the file given by the "diagnosticsJsonl" option, which is shared by a
+   * checker and all its subcheckers. Opens the file if this is the first diagnostic.
+   *
+   * @return the writer for the file given by the "diagnosticsJsonl" option
+   * @throws IOException if the file cannot be opened
+   */
+  private BufferedWriter getDiagnosticsJsonlWriter() throws IOException {
+    if (parentChecker != null) {
+      return parentChecker.getDiagnosticsJsonlWriter();
+    }
+    if (diagnosticsJsonlWriter == null) {
+      diagnosticsJsonlWriter =
+          Files.newBufferedWriter(
+              Paths.get(getOption("diagnosticsJsonl")), StandardCharsets.UTF_8);
+    }
+    return diagnosticsJsonlWriter;
+  }
+
+  /**
+   * Writes the diagnostics that have been buffered for the file given by the "diagnosticsJsonl"
+   * option, so that they are not lost if the compilation is aborted.
+   */
+  private void flushDiagnosticsJsonl() {
+    SourceChecker owner = this;
+    while (owner.parentChecker != null) {
+      owner = owner.parentChecker;
+    }
+    if (owner.diagnosticsJsonlWriter != null) {
+      try {
+        owner.diagnosticsJsonlWriter.flush();
+      } catch (IOException e) {
+        throw new UserError(
+            "Cannot write to -AdiagnosticsJsonl file %s: %s", diagnosticsJsonlFile, e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Appends the given string to {@code sb} as a JSON string literal.
+   *
+   * @param sb the StringBuilder to append to
+   * @param s the string to append
+   */
+  private static void appendJsonString(StringBuilder sb, String s) {
+    sb.append('"');
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      switch (c) {
+        case '"':
+          sb.append("\\\"");
+          break;
+        case '\\':
+          sb.append("\\\\");
+          break;
+        case '\n':
+          sb.append("\\n");
+          break;
+        case '\r':
+          sb.append("\\r");
+          break;
+        case '\t':
+          sb.append("\\t");
+          break;
+        default:
+          if (c < 0x20) {
+            sb.append(String.format("\\u%04x", (int) c));
+          } else {
+            sb.append(c);
+          }
+      }
+    }
+    sb.append('"');
+  }
+
   /**
    * Output the given stack trace if the "dumpOnErrors" option is enabled.
    *
@@ -2481,17 +2695,34 @@ public abstract class SourceChecker extends AbstractTypeProcessor implements Opt
   }
 
   /**
-   * Tests whether the method definition should not be checked because it matches the {@code
-   * checker.skipDefs} property.
+   * Tests whether the method definition should not be checked because its class should not be
+   * checked, or because its qualified name, such as {@code mypackage.MyClass.myMethod} or {@code
+   * mypackage.MyClass.<init>}, does not match the {@code checker.onlyMethods} property.
    *
-   * <p>TODO: currently only uses the class definition. Refine pattern. Same for skipUses.
+   * <p>The names of the methods of local and anonymous classes are never matched against the
+   * {@code checker.onlyMethods} property. Such a method is checked whenever the code that contains
+   * its class is checked: the enclosing method if that method is checked, or a field initializer or
+   * initializer block, which is always checked. It is skipped only if its class should not be
+   * checked.
    *
    * @param cls class to potentially skip
    * @param meth method to potentially skip
    * @return true if checker should not test {@code meth}
    */
   public final boolean shouldSkipDefs(ClassTree cls, MethodTree meth) {
-    return shouldSkipDefs(cls);
+    if (shouldSkipDefs(cls)) {
+      return true;
+    }
+    if (onlyMethodsPattern == null) {
+      onlyMethodsPattern = getOnlyPattern("onlyMethods", getOptions());
+    }
+    TypeElement classElt = TreeUtils.elementFromDeclaration(cls);
+    NestingKind nesting = classElt.getNestingKind();
+    if (nesting == NestingKind.LOCAL || nesting == NestingKind.ANONYMOUS) {
+      return false;
+    }
+    String qualifiedName = classElt.getQualifiedName() + "." + meth.getName();
+    return !onlyMethodsPattern.matcher(qualifiedName).find();
   }
 
   ///////////////////////////////////////////////////////////////////////////
@@ -2639,8 +2870,15 @@ public abstract class SourceChecker extends AbstractTypeProcessor implements Opt
       System.out.println("  Pool type: " + memoryPool.getType());
       System.out.println("  Peak usage: " + memoryPool.getPeakUsage());
     }
+    printCheckerStats();
   }
 
+  /**
+   * Print the statistics that are specific to this checker and to its subcheckers, including
+   * indirect subcheckers. Called by {@link #printStats}, which only the outermost checker runs.
+   */
+  protected void printCheckerStats() {}
+
   ///////////////////////////////////////////////////////////////////////////
   /// Miscellaneous
   ///
@@ -0,0 +1,238 @@
+package org.checkerframework.framework.stub;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.javacutil.BugInCF;
+
+/**
+ * An index of the stub files of the annotated JDK, which is written when the annotated JDK is
+ * copied into checker.jar. It maps each fully-qualified class name to the resource that contains
+ * the stub file for the class, and lists the package-info.java resources.
+ *
+ * <p>Without the index, {@link AnnotationFileElementTypes} must enumerate every entry of
+ * checker.jar at startup to find the stub files. With the index, it reads one small resource and
+ * looks up class names by binary search.
+ *
+ * <p>The index is a binary file: a magic number and a format version, followed by the number of
+ * classes, the sorted class names and their resource names, the number of package-info.java
+ * files, and their resource names. All strings are in modified UTF-8, as written by {@link
+ * DataOutputStream#writeUTF}.
+ */
+public final class AnnotatedJdkIndex {
+
+  /** The name of the index file, within the annotated-jdk directory. */
+  public static final String INDEX_FILE_NAME = "stub-index.bin";
+
+  /** The magic number at the beginning of an index file. */
+  private static final int MAGIC = 0x434a4458;
+
+  /** The version of the index format. */
+  private static final int VERSION = 1;
+
+  /** The fully-qualified names of the classes that have stub files, in sorted order. */
+  private final String[] classNames;
+
+  /**
+   * The resource names of the stub files, such as {@code
+   * annotated-jdk/src/java.base/share/classes/java/lang/String.java}. Parallel to {@link
+   * #classNames}.
+   */
+  private final String[] resourceNames;
+
+  /** The resource names of the package-info.java files. */
+  private final List<String> packageInfoResourceNames;
+
+  /**
+   * Creates an AnnotatedJdkIndex.
+   *
+   * @param classNames the fully-qualified names of the classes that have stub files, in sorted
+   *     order
+   * @param resourceNames the resource names of the stub files, parallel to {@code classNames}
+   * @param packageInfoResourceNames the resource names of the package-info.java files
+   */
+  private AnnotatedJdkIndex(
+      String[] classNames, String[] resourceNames, List<String> packageInfoResourceNames) {
+    this.classNames = classNames;
+    this.resourceNames = resourceNames;
+    this.packageInfoResourceNames = packageInfoResourceNames;
+  }
+
+  /**
+   * Returns the number of classes in the index.
+   *
+   * @return the number of classes in the index
+   */
+  public int size() {
+    return classNames.length;
+  }
+
+  /**
+   * Returns the position of the given class in the index.
+   *
+   * @param className a fully-qualified class name
+   * @return the position of {@code className} in the index, or a negative number if it has no stub
+   *     file
+   */
+  public int indexOf(String className) {
+    return Arrays.binarySearch(classNames, className);
+  }
+
+  /**
+   * Returns the resource name of the stub file at the given position.
+   *
+   * @param index a position in the index, as returned by {@link #indexOf}
+   * @return the resource name of the stub file at {@code index}
+   */
+  public String getResourceName(int index) {
+    return resourceNames[index];
+  }
+
+  /**
+   * Returns the resource names of the package-info.java files.
+   *
+   * @return the resource names of the package-info.java files
+   */
+  public List<String> getPackageInfoResourceNames() {
+    return packageInfoResourceNames;
+  }
+
+  /**
+   * Reads the index that is next to the annotated JDK in the resources of the given class.
+   *
+   * @param resourceClass the class whose resources contain the annotated JDK
+   * @return the index, or null if there is no index
+   */
+  public static @Nullable AnnotatedJdkIndex read(Class<?> resourceClass) {
+    String indexResource = "/annotated-jdk/" + INDEX_FILE_NAME;
+    InputStream in = resourceClass.getResourceAsStream(indexResource);
+    if (in == null) {
+      return null;
+    }
+    try {
+      return read(in);
+    } catch (IOException e) {
+      throw new BugInCF("Cannot read " + indexResource, e);
+    }
+  }
+
+  /**
+   * Reads an index from the given stream, and closes the stream.
+   *
+   * @param in the contents of an index file
+   * @return the index, or null if it was written by a different version of the Checker Framework
+   * @throws IOException if the index cannot be read
+   */
+  public static @Nullable AnnotatedJdkIndex read(InputStream in) throws IOException {
+    try (DataInputStream data = new DataInputStream(new BufferedInputStream(in))) {
+      if (data.readInt() != MAGIC || data.readInt() != VERSION) {
+        // Written by a different version of the Checker Framework; fall back to the jar entries.
+        return null;
+      }
+      int numClasses = data.readInt();
+      String[] classNames = new String[numClasses];
+      String[] resourceNames = new String[numClasses];
+      for (int i = 0; i < numClasses; i++) {
+        classNames[i] = data.readUTF();
+        resourceNames[i] = data.readUTF();
+      }
+      int numPackageInfos = data.readInt();
+      List<String> packageInfoResourceNames = new ArrayList<>(numPackageInfos);
+      for (int i = 0; i < numPackageInfos; i++) {
+        packageInfoResourceNames.add(data.readUTF());
+      }
+      return new AnnotatedJdkIndex(
+          classNames, resourceNames, Collections.unmodifiableList(packageInfoResourceNames));
+    }
+  }
+
+  /**
+   * Writes the index of the annotated JDK in the given directory, which is named annotated-jdk.
+   *
+   * @param annotatedJdkDir the directory that contains the annotated JDK
+   * @throws IOException if the directory cannot be read or the index cannot be written
+   */
+  public static void write(Path annotatedJdkDir) throws IOException {
+    Map<String, String> classes = new TreeMap<>();
+    List<String> packageInfos = new ArrayList<>();
+    List<Path> paths;
+    try (Stream<Path> walk = Files.walk(annotatedJdkDir)) {
+      paths =
+          walk.filter(p -> Files.isRegularFile(p) && p.toString().endsWith(".java"))
+              .sorted()
+              .collect(Collectors.toList());
+    }
+    for (Path path : paths) {
+      String fileName = path.getFileName().toString();
+      if (fileName.equals("module-info.java")) {
+        // JavaParser can't parse module-info files, so skip them.
+        continue;
+      }
+      // Use the same names as the entries of checker.jar.
+      String resourceName =
+          "annotated-jdk/" + annotatedJdkDir.relativize(path).toString().replace('\\', '/');
+      if (fileName.equals("package-info.java")) {
+        packageInfos.add(resourceName);
+        continue;
+      }
+      int index = resourceName.indexOf("/share/classes/");
+      if (index == -1) {
+        continue;
+      }
+      int end = resourceName.length() - ".java".length();
+      String className =
+          resourceName.substring(index + "/share/classes/".length(), end).replace('/', '.');
+      classes.put(className, resourceName);
+    }
+
+    Path indexFile = annotatedJdkDir.resolve(INDEX_FILE_NAME);
+    try (OutputStream out = Files.newOutputStream(indexFile);
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out))) {
+      data.writeInt(MAGIC);
+      data.writeInt(VERSION);
+      data.writeInt(classes.size());
+      for (Map.Entry<String, String> entry : classes.entrySet()) {
+        data.writeUTF(entry.getKey());
+        data.writeUTF(entry.getValue());
+      }
+      data.writeInt(packageInfos.size());
+      for (String packageInfo : packageInfos) {
+        data.writeUTF(packageInfo);
+      }
+    }
+  }
+
+  /**
+   * Writes the index of the annotated JDK. Called when the annotated JDK is copied into the
+   * resources of the framework.
+   *
+   * @param args command-line arguments: the annotated-jdk directory
+   */
+  public static void main(String[] args) {
+    if (args.length != 1) {
+      System.err.println("Usage: AnnotatedJdkIndex <annotated-jdk directory>");
+      System.exit(1);
+    }
+    try {
+      write(JavaStubifier.dirnameToPath(args[0]));
+    } catch (IOException e) {
+      System.err.println("Cannot write the index of " + args[0] + ": " + e);
+      System.exit(1);
+    }
+  }
+}
@@ -0,0 +1,370 @@
+package org.checkerframework.framework.stub;
+
+import com.github.javaparser.ParseProblemException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Erases the bodies of methods, constructors, and initializers from the text of an annotation file
+ * before it is parsed as a stub file.
+ *
+ * <p>When an annotation file is read as a stub file, only its declarations, their signatures, and
+ * their annotations are used. Ajava files, such as those that whole-program inference writes,
+ * contain the full bodies of methods, and parsing the bodies creates many JavaParser nodes and
+ * tokens that are never used. This class finds the bodies with a lightweight tokenizer that
+ * recognizes only comments, literals, identifiers, and punctuation, and replaces the text between
+ * the braces of each body by spaces. The result is still a valid annotation file with the same
+ * declarations, and every remaining token has the same line and column as in the original text, so
+ * warnings about the annotation file refer to the right place.
+ *
+ * <p>Field initializers are erased only if they contain braces, for example an array initializer,
+ * a lambda, or an anonymous class; the braces are kept, so the initializer remains an expression.
+ * Braces inside an annotation, such as an array-valued annotation element, are never erased.
+ *
+ * <p>If the braces in the text are not balanced, the text is not changed, so that the parser
+ * reports the problem.
+ */
+public final class AnnotationFileBodyEraser {
+
+  /** Do not instantiate. */
+  private AnnotationFileBodyEraser() {
+    throw new Error("Do not instantiate");
+  }
+
+  /**
+   * Reads an annotation file and erases the bodies in it.
+   *
+   * @param inputStream the annotation file, encoded in UTF-8, as JavaParser expects
+   * @return the annotation file, with its bodies erased
+   * @throws ParseProblemException if the annotation file cannot be read
+   */
+  public static InputStream eraseBodies(InputStream inputStream) {
+    StringBuilder sb = new StringBuilder();
+    try (Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8)) {
+      char[] buffer = new char[8192];
+      int read;
+      while ((read = reader.read(buffer)) != -1) {
+        sb.append(buffer, 0, read);
+      }
+    } catch (IOException e) {
+      throw new ParseProblemException(e);
+    }
+    return new ByteArrayInputStream(eraseBodies(sb.toString()).getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Erases the bodies in the text of an annotation file.
+   *
+   * @param source the text of an annotation file
+   * @return the text, with the contents of bodies replaced by spaces; or {@code source} itself, if
+   *     its braces are not balanced
+   */
+  public static String eraseBodies(String source) {
+    char[] text = source.toCharArray();
+    Header header = new Header();
+    // For each brace that is open at the declaration level, whether it is the body of a type (as
+    // opposed to a brace within an annotation, whose contents are kept).
+    Deque<Boolean> openBraces = new ArrayDeque<>();
+    int i = 0;
+    while (i < text.length) {
+      int end = skipCommentOrLiteral(text, i);
+      if (end < 0) {
+        return source;
+      } else if (end > i) {
+        i = end;
+        continue;
+      }
+      char c = text[i];
+      if (Character.isWhitespace(c)) {
+        i++;
+        continue;
+      }
+      if (Character.isJavaIdentifierStart(c)) {
+        end = i + 1;
+        while (end < text.length && Character.isJavaIdentifierPart(text[end])) {
+          end++;
+        }
+        if (isAtDeclarationLevel(openBraces)) {
+          header.identifier(new String(text, i, end - i));
+        }
+        i = end;
+        continue;
+      }
+      if (!isAtDeclarationLevel(openBraces)) {
+        // Within braces of an annotation; only the nesting matters.
+        if (c == '{') {
+          openBraces.push(false);
+        } else if (c == '}') {
+          openBraces.pop();
+        }
+        i++;
+        continue;
+      }
+      switch (c) {
+        case '(':
+          header.parenDepth++;
+          break;
+        case ')':
+          header.parenDepth--;
+          header.sawCloseParen = true;
+          break;
+        case '=':
+          if (header.parenDepth == 0) {
+            header.sawAssign = true;
+          }
+          break;
+        case '.':
+          header.lastWasDot = true;
+          header.contextualKeyword = null;
+          i++;
+          continue;
+        case ';':
+          if (header.parenDepth == 0) {
+            header.reset();
+          }
+          break;
+        case '{':
+          if (header.parenDepth > 0 || header.sawDefaultValue) {
+            openBraces.push(false);
+          } else if (header.sawAssign) {
+            // A field initializer; the rest of the declaration follows the braces.
+            i = erase(text, i);
+            if (i < 0) {
+              return source;
+            }
+          } else if (header.sawTypeKeyword) {
+            openBraces.push(true);
+            header.reset();
+          } else {
+            // The body of a method, constructor, initializer, or enum constant.
+            i = erase(text, i);
+            if (i < 0) {
+              return source;
+            }
+            header.reset();
+          }
+          break;
+        case '}':
+          if (openBraces.isEmpty()) {
+            return source;
+          }
+          openBraces.pop();
+          header.reset();
+          break;
+        default:
+          break;
+      }
+      header.lastWasDot = false;
+      header.contextualKeyword = null;
+      i++;
+    }
+    if (!openBraces.isEmpty()) {
+      return source;
+    }
+    return new String(text);
+  }
+
+  /**
+   * Returns true if the scanner is at the declaration level: at the top level of the file or
+   * directly within the body of a type.
+   *
+   * @param openBraces the braces that are open at the declaration level
+   * @return true if the scanner is at the declaration level
+   */
+  private static boolean isAtDeclarationLevel(Deque<Boolean> openBraces) {
+    Boolean innermost = openBraces.peek();
+    return innermost == null || innermost;
+  }
+
+  /**
+   * Replaces the text between an open brace and its matching close brace by spaces, keeping line
+   * terminators.
+   *
+   * @param text the text of an annotation file; side-effected by this method
+   * @param open the index of an open brace in {@code text}
+   * @return the index of the matching close brace, or -1 if there is none
+   */
+  private static int erase(char[] text, int open) {
+    int depth = 0;
+    int i = open;
+    while (i < text.length) {
+      int end = skipCommentOrLiteral(text, i);
+      if (end < 0) {
+        return -1;
+      } else if (end > i) {
+        i = end;
+        continue;
+      }
+      char c = text[i];
+      if (c == '{') {
+        depth++;
+      } else if (c == '}') {
+        depth--;
+        if (depth == 0) {
+          for (int j = open + 1; j < i; j++) {
+            if (text[j] != '\n' && text[j] != '\r') {
+              text[j] = ' ';
+            }
+          }
+          return i;
+        }
+      }
+      i++;
+    }
+    return -1;
+  }
+
+  /**
+   * If a comment, string literal, text block, or character literal starts at the given index,
+   * returns the index just after it.
+   *
+   * @param text the text of an annotation file
+   * @param i an index in {@code text}
+   * @return the index just after the comment or literal that starts at {@code i}; {@code i} if none
+   *     starts there; or -1 if it is not terminated
+   */
+  private static int skipCommentOrLiteral(char[] text, int i) {
+    char c = text[i];
+    if (c == '/' && i + 1 < text.length) {
+      if (text[i + 1] == '/') {
+        int end = i + 2;
+        while (end < text.length && text[end] != '\n' && text[end] != '\r') {
+          end++;
+        }
+        return end;
+      } else if (text[i + 1] == '*') {
+        for (int end = i + 2; end + 1 < text.length; end++) {
+          if (text[end] == '*' && text[end + 1] == '/') {
+            return end + 2;
+          }
+        }
+        return -1;
+      }
+      return i;
+    } else if (c == '"') {
+      if (i + 2 < text.length && text[i + 1] == '"' && text[i + 2] == '"') {
+        // A text block.
+        for (int end = i + 3; end + 2 < text.length; end++) {
+          if (text[end] == '\\') {
+            end++;
+          } else if (text[end] == '"' && text[end + 1] == '"' && text[end + 2] == '"') {
+            return end + 3;
+          }
+        }
+        return -1;
+      }
+      return skipQuoted(text, i);
+    } else if (c == '\'') {
+      return skipQuoted(text, i);
+    }
+    return i;
+  }
+
+  /**
+   * Returns the index just after the string or character literal that starts at the given index.
+   *
+   * @param text the text of an annotation file
+   * @param open the index of the opening quote of a literal in {@code text}
+   * @return the index just after the closing quote, or -1 if there is none on the same line
+   */
+  private static int skipQuoted(char[] text, int open) {
+    char quote = text[open];
+    for (int end = open + 1; end < text.length; end++) {
+      char c = text[end];
+      if (c == '\\') {
+        end++;
+      } else if (c == quote) {
+        return end + 1;
+      } else if (c == '\n' || c == '\r') {
+        return -1;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * What has been seen of the declaration being scanned at the declaration level, since the end of
+   * the previous declaration.
+   */
+  private static class Header {
+
+    /** The number of open parentheses. */
+    int parenDepth = 0;
+
+    /** True if the header contains a close parenthesis outside of parentheses. */
+    boolean sawCloseParen = false;
+
+    /** True if the header contains "=" outside of parentheses; it declares a field. */
+    boolean sawAssign = false;
+
+    /** True if the header contains "default" after a parameter list: it has a default value. */
+    boolean sawDefaultValue = false;
+
+    /** True if the header declares a class, interface, enum, record, annotation, or module. */
+    boolean sawTypeKeyword = false;
+
+    /** True if the previous token is ".". */
+    boolean lastWasDot = false;
+
+    /**
+     * The previous token, if it is "record" or "module" outside of parentheses; otherwise null.
+     */
+    @Nullable String contextualKeyword = null;
+
+    /**
+     * Records an identifier or keyword in the header.
+     *
+     * @param identifier an identifier or keyword
+     */
+    void identifier(String identifier) {
+      if (parenDepth == 0) {
+        if (contextualKeyword != null) {
+          // "record R" or "module m", as opposed to a method or field named "record".
+          sawTypeKeyword = true;
+        }
+        switch (identifier) {
+          case "class":
+            // Not "Foo.class".
+            if (!lastWasDot) {
+              sawTypeKeyword = true;
+            }
+            break;
+          case "interface":
+          case "enum":
+            sawTypeKeyword = true;
+            break;
+          case "default":
+            if (sawCloseParen) {
+              sawDefaultValue = true;
+            }
+            break;
+          default:
+            break;
+        }
+        contextualKeyword =
+            (identifier.equals("record") || identifier.equals("module")) && !lastWasDot
+                ? identifier
+                : null;
+      }
+      lastWasDot = false;
+    }
+
+    /** Starts the header of the next declaration. */
+    void reset() {
+      parenDepth = 0;
+      sawCloseParen = false;
+      sawAssign = false;
+      sawDefaultValue = false;
+      sawTypeKeyword = false;
+      lastWasDot = false;
+      contextualKeyword = null;
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package org.checkerframework.framework.stub;
 
+import com.github.javaparser.ast.StubUnit;
 import com.sun.source.tree.CompilationUnitTree;
 import io.github.classgraph.ClassGraph;
 import java.io.File;
@@ -15,12 +16,16 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.StringJoiner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.stream.Collectors;
@@ -80,6 +85,15 @@ public class AnnotationFileElementTypes {
    */
   private final Map<String, String> jdkStubFilesJar = new HashMap<>();
 
+  /**
+   * The index of the JDK stub files in checker.jar, or null if checker.jar has no index. When it is
+   * non-null, it is used instead of {@link #jdkStubFilesJar}.
+   */
+  private @Nullable AnnotatedJdkIndex jdkStubIndex = null;
+
+  /** The positions in {@link #jdkStubIndex} of the stub files that have been parsed. */
+  private final BitSet parsedJdkStubIndexEntries = new BitSet();
+
   /** Which version number of the annotated JDK should be used? */
   private final String annotatedJdkVersion;
 
@@ -95,6 +109,9 @@ public class AnnotationFileElementTypes {
   /** True if -Aignorejdkastub was passed on the command line. */
   private final boolean ignorejdkastub;
 
+  /** True if -AparseAnnotationFilesInParallel was passed on the command line. */
+  private final boolean parseInParallel;
+
   /**
    * Creates an empty annotation source.
    *
@@ -111,6 +128,7 @@ public class AnnotationFileElementTypes {
     this.parseAllJdkFiles = factory.getChecker().hasOption("parseAllJdk");
     this.permitMissingJdk = factory.getChecker().hasOption("permitMissingJdk");
     this.ignorejdkastub = factory.getChecker().hasOption("ignorejdkastub");
+    this.parseInParallel = factory.getChecker().hasOption("parseAnnotationFilesInParallel");
   }
 
   /**
@@ -278,24 +296,45 @@ public class AnnotationFileElementTypes {
       List<AnnotationFileResource> allFiles =
           AnnotationFileUtil.allAnnotationFiles(fullPath, fileType);
       if (allFiles != null) {
-        for (AnnotationFileResource resource : allFiles) {
-          try (InputStream annotationFileStream = resource.getInputStream()) {
-            // We use parseStubFile here even for ajava files because at this stage
-            // ajava files are parsed as stub files. The extra annotation data in an
-            // ajava file is parsed when type-checking the ajava file's corresponding
-            // Java file.
-            AnnotationFileParser.parseStubFile(
-                resource.getDescription(),
-                annotationFileStream,
-                factory,
-                processingEnv,
-                annotationFileAnnos,
-                fileType == AnnotationFileType.AJAVA ? AnnotationFileType.AJAVA_AS_STUB : fileType);
-          } catch (IOException e) {
-            checker.message(
-                Diagnostic.Kind.NOTE,
-                "Could not read annotation resource: " + resource.getDescription());
-            continue;
+        // We use parseStubFile here even for ajava files because at this stage ajava files are
+        // parsed as stub files. The extra annotation data in an ajava file is parsed when
+        // type-checking the ajava file's corresponding Java file.
+        AnnotationFileType parseType =
+            fileType == AnnotationFileType.AJAVA ? AnnotationFileType.AJAVA_AS_STUB : fileType;
+        ParallelTextParser parallelParser =
+            parseInParallel && allFiles.size() > 1 ? new ParallelTextParser(allFiles) : null;
+        try {
+          for (int i = 0; i < allFiles.size(); i++) {
+            AnnotationFileResource resource = allFiles.get(i);
+            try {
+              if (parallelParser != null) {
+                AnnotationFileParser.parseStubFile(
+                    resource.getDescription(),
+                    parallelParser.take(i),
+                    factory,
+                    processingEnv,
+                    annotationFileAnnos,
+                    parseType);
+              } else {
+                try (InputStream annotationFileStream = resource.getInputStream()) {
+                  AnnotationFileParser.parseStubFile(
+                      resource.getDescription(),
+                      annotationFileStream,
+                      factory,
+                      processingEnv,
+                      annotationFileAnnos,
+                      parseType);
+                }
+              }
+            } catch (IOException e) {
+              checker.message(
+                  Diagnostic.Kind.NOTE,
+                  "Could not read annotation resource: " + resource.getDescription());
+            }
+          }
+        } finally {
+          if (parallelParser != null) {
+            parallelParser.shutdown();
           }
         }
       } else {
@@ -366,6 +405,98 @@ public class AnnotationFileElementTypes {
     }
   }
 
+  /**
+   * Parses the text of a list of annotation files on a pool of worker threads. The caller processes
+   * the parsed files, in order, on the compiler's thread; only that uses the compiler's data
+   * structures, and it waits for a file only if the file has not been parsed yet. At most {@link
+   * #maxInFlight} files are parsed ahead of the caller, so that the parsed files of a large
+   * directory are not all held in memory at once.
+   */
+  private static class ParallelTextParser {
+
+    /** The annotation files to parse, which are read as stub files. */
+    private final List<AnnotationFileResource> files;
+
+    /**
+     * The parse of each file that has been submitted and not yet taken by {@link #take}, at the
+     * index of the file in {@link #files}; null for the other files.
+     */
+    private final List<@Nullable Future<StubUnit>> parsedFiles;
+
+    /** The worker threads. */
+    private final ExecutorService executor;
+
+    /** The maximum number of files that are submitted and not yet taken. */
+    private final int maxInFlight;
+
+    /**
+     * Creates a ParallelTextParser and starts parsing the first files.
+     *
+     * @param files the annotation files to parse, which are read as stub files
+     */
+    ParallelTextParser(List<AnnotationFileResource> files) {
+      this.files = files;
+      this.parsedFiles = new ArrayList<>(Collections.nCopies(files.size(), null));
+      int numThreads = Math.min(files.size(), Runtime.getRuntime().availableProcessors());
+      this.executor =
+          Executors.newFixedThreadPool(
+              numThreads,
+              runnable -> {
+                Thread thread = new Thread(runnable, "annotation-file-parser");
+                // Don't keep the compiler alive if it exits before all the files are parsed.
+                thread.setDaemon(true);
+                return thread;
+              });
+      // Keep every thread busy while the caller processes a file.
+      this.maxInFlight = 2 * numThreads;
+      for (int i = 0; i < Math.min(maxInFlight, files.size()); i++) {
+        submit(i);
+      }
+    }
+
+    /**
+     * Starts parsing the file at the given index.
+     *
+     * @param index the index of a file in {@link #files}
+     */
+    private void submit(int index) {
+      AnnotationFileResource file = files.get(index);
+      parsedFiles.set(
+          index,
+          executor.submit(
+              () -> {
+                try (InputStream in = file.getInputStream()) {
+                  return AnnotationFileParser.parseStubText(in);
+                }
+              }));
+    }
+
+    /**
+     * Returns the parse of the file at the given index, and starts parsing the next file that has
+     * not been submitted yet. Must be called once for each file, in order.
+     *
+     * @param index the index of a file in {@link #files}
+     * @return the parse of the file, which may still be in progress
+     */
+    Future<StubUnit> take(int index) {
+      Future<StubUnit> result = parsedFiles.get(index);
+      if (result == null) {
+        throw new BugInCF("ParallelTextParser.take(%d): not submitted or already taken", index);
+      }
+      // Don't hold on to the parsed file after the caller has processed it.
+      parsedFiles.set(index, null);
+      if (index + maxInFlight < files.size()) {
+        submit(index + maxInFlight);
+      }
+      return result;
+    }
+
+    /** Stops the worker threads, and cancels the parsing of files that were not taken. */
+    void shutdown() {
+      executor.shutdownNow();
+    }
+  }
+
   /**
    * Returns the annotated type for {@code e} containing only annotations explicitly written in an
    * annotation file. Returns {@code null} if {@code e} does not appear in an annotation file.
@@ -634,6 +765,12 @@ public class AnnotationFileElementTypes {
       parseJdkStubFile(jdkStubFiles.remove(className));
     } else if (jdkStubFilesJar.containsKey(className)) {
       parseJdkJarEntry(jdkStubFilesJar.remove(className));
+    } else if (jdkStubIndex != null) {
+      int index = jdkStubIndex.indexOf(className);
+      if (index >= 0 && !parsedJdkStubIndexEntries.get(index)) {
+        parsedJdkStubIndexEntries.set(index);
+        parseJdkResource(jdkStubIndex.getResourceName(index));
+      }
     }
   }
 
@@ -713,6 +850,29 @@ public class AnnotationFileElementTypes {
     }
   }
 
+  /**
+   * Parses the stub file in the given resource, which is loaded by the class loader of the type
+   * factory. Unlike {@link #parseJdkJarEntry}, this does not open checker.jar again.
+   *
+   * @param resourceName name of the resource to parse, relative to the root of the class path
+   */
+  private void parseJdkResource(String resourceName) {
+    parsing = true;
+    try (InputStream jdkStub = factory.getClass().getResourceAsStream("/" + resourceName)) {
+      if (jdkStub == null) {
+        throw new BugInCF("cannot find the jdk stub file " + resourceName);
+      }
+      AnnotationFileParser.parseJdkFileAsStub(
+          resourceName, jdkStub, factory, factory.getProcessingEnv(), annotationFileAnnos);
+    } catch (IOException e) {
+      throw new BugInCF("cannot open the jdk stub file " + resourceName, e);
+    } catch (BugInCF e) {
+      throw new BugInCF("Exception while parsing " + resourceName + ": " + e.getMessage(), e);
+    } finally {
+      parsing = false;
+    }
+  }
+
   /**
    * Returns a JarURLConnection to "/jdk*".
    *
@@ -811,39 +971,82 @@ public class AnnotationFileElementTypes {
    * Walk through the JDK directory and create a mapping, {@link #jdkStubFilesJar}, from file name
    * to the class contained with in it. Also, parses all package-info.java files.
    *
+   * <p>If checker.jar contains an {@link AnnotatedJdkIndex}, uses it instead of walking the entries
+   * of checker.jar.
+   *
    * @param resourceURL the URL pointing to the JDK directory
    */
   private void prepJdkFromJar(URL resourceURL) {
+    AnnotatedJdkIndex jdkIndex = AnnotatedJdkIndex.read(factory.getClass());
+    if (jdkIndex != null) {
+      prepJdkFromIndex(jdkIndex);
+      return;
+    }
+
     JarURLConnection connection = getJarURLConnectionToJdk();
 
     try (JarFile jarFile = connection.getJarFile()) {
       for (Enumeration<JarEntry> e = jarFile.entries(); e.hasMoreElements(); ) {
         JarEntry jarEntry = e.nextElement();
+        String jarEntryName = jarEntry.getName();
         // filter out directories and non-class files
-        if (!jarEntry.isDirectory()
-            && jarEntry.getName().endsWith(".java")
-            && jarEntry.getName().startsWith("annotated-jdk")
-            // JavaParser can't parse module-info files, so skip them.
-            && !jarEntry.getName().contains("module-info")) {
-          String jarEntryName = jarEntry.getName();
-          if (parseAllJdkFiles) {
-            parseJdkJarEntry(jarEntryName);
-            continue;
-          }
-          int index = jarEntry.getName().indexOf("/share/classes/");
-          String shortName =
-              jarEntryName
-                  .substring(index + "/share/classes/".length())
-                  .replace(".java", "")
-                  .replace('/', '.');
-          jdkStubFilesJar.put(shortName, jarEntryName);
-          if (jarEntryName.endsWith("package-info.java")) {
-            parseJdkJarEntry(jarEntryName);
-          }
+        String shortName = jarEntry.isDirectory() ? null : jdkJarEntryClassName(jarEntryName);
+        if (shortName == null) {
+          continue;
+        }
+        if (parseAllJdkFiles) {
+          parseJdkJarEntry(jarEntryName);
+          continue;
+        }
+        jdkStubFilesJar.put(shortName, jarEntryName);
+        if (jarEntryName.endsWith("package-info.java")) {
+          parseJdkJarEntry(jarEntryName);
         }
       }
     } catch (IOException e) {
       throw new BugInCF("Cannot open the jar file " + resourceURL.getFile(), e);
     }
   }
+
+  /**
+   * Returns the name under which the given entry of checker.jar is found when the entries of
+   * checker.jar are walked because it has no {@link AnnotatedJdkIndex}: the fully-qualified name of
+   * the class whose stub file the entry is, or a name that ends with {@code package-info} for a
+   * package-info.java file.
+   *
+   * @param jarEntryName the name of an entry of checker.jar that is not a directory
+   * @return the class name of the entry, or null if the entry is not a JDK stub file
+   */
+  public static @Nullable String jdkJarEntryClassName(String jarEntryName) {
+    if (!jarEntryName.endsWith(".java")
+        || !jarEntryName.startsWith("annotated-jdk")
+        // JavaParser can't parse module-info files, so skip them.
+        || jarEntryName.contains("module-info")) {
+      return null;
+    }
+    int index = jarEntryName.indexOf("/share/classes/");
+    return jarEntryName
+        .substring(index + "/share/classes/".length())
+        .replace(".java", "")
+        .replace('/', '.');
+  }
+
+  /**
+   * Uses the given index of the JDK stub files in checker.jar. Parses all package-info.java files,
+   * and all the JDK stub files if {@code -AparseAllJdk} was supplied.
+   *
+   * @param index the index of the JDK stub files in checker.jar
+   */
+  private void prepJdkFromIndex(AnnotatedJdkIndex index) {
+    for (String packageInfo : index.getPackageInfoResourceNames()) {
+      parseJdkResource(packageInfo);
+    }
+    if (parseAllJdkFiles) {
+      for (int i = 0; i < index.size(); i++) {
+        parseJdkResource(index.getResourceName(i));
+      }
+      return;
+    }
+    jdkStubIndex = index;
+  }
 }
@@ -57,6 +57,7 @@ import com.sun.source.tree.CompilationUnitTree;
 import com.sun.source.tree.MethodTree;
 import com.sun.source.tree.VariableTree;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.lang.annotation.Target;
 import java.util.ArrayList;
@@ -68,6 +69,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.Element;
@@ -664,6 +667,65 @@ public class AnnotationFileParser {
     }
   }
 
+  /**
+   * Parses a stub file whose text has already been parsed, possibly on another thread, and
+   * side-effects the {@code annotationFileAnnos} argument. Waits until the text has been parsed.
+   *
+   * @param filename name of stub file, used only for diagnostic messages
+   * @param stubUnit the result of {@link #parseStubText} on the stub file
+   * @param atypeFactory AnnotatedTypeFactory to use
+   * @param processingEnv ProcessingEnvironment to use
+   * @param annotationFileAnnos annotations from the annotation file; side-effected by this method
+   * @param fileType the annotation file type and source; must be a stub file type
+   * @throws IOException if the stub file could not be read
+   */
+  public static void parseStubFile(
+      String filename,
+      Future<StubUnit> stubUnit,
+      AnnotatedTypeFactory atypeFactory,
+      ProcessingEnvironment processingEnv,
+      AnnotationFileAnnotations annotationFileAnnos,
+      AnnotationFileType fileType)
+      throws IOException {
+    AnnotationFileParser afp =
+        new AnnotationFileParser(filename, atypeFactory, processingEnv, fileType);
+    try {
+      afp.setStubUnit(waitFor(stubUnit));
+      afp.process(annotationFileAnnos);
+    } catch (ParseProblemException e) {
+      for (Problem p : e.getProblems()) {
+        afp.warn(null, p.getVerboseMessage());
+      }
+    }
+  }
+
+  /**
+   * Returns the result of parsing the text of a stub file, waiting for it if necessary.
+   *
+   * @param stubUnit the result of {@link #parseStubText}
+   * @return the parsed stub file
+   * @throws IOException if the stub file could not be read
+   * @throws ParseProblemException if the stub file has parser errors
+   */
+  private static StubUnit waitFor(Future<StubUnit> stubUnit) throws IOException {
+    try {
+      return stubUnit.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new BugInCF("Interrupted while parsing an annotation file", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new BugInCF("Unexpected exception while parsing an annotation file", cause);
+    }
+  }
+
   /**
    * The main entry point when parsing an ajava file. Parses an ajava file and side-effects the last
    * two arguments.
@@ -723,13 +785,43 @@ public class AnnotationFileParser {
    *
    * <p>Subsequently, all work uses the AST.
    *
+   * <p>If the file is read as a stub file, the bodies in it are not parsed; see {@link
+   * AnnotationFileBodyEraser}.
+   *
    * @param inputStream the stream from which to read an annotation file
    */
   private void parseStubUnit(InputStream inputStream) {
     if (debugAnnotationFileParser) {
       stubDebug(String.format("parsing annotation file %s", filename));
     }
-    stubUnit = JavaParserUtil.parseStubUnit(inputStream);
+    // An ajava file that is processed with its javac tree needs its bodies, to walk both trees
+    // together.
+    setStubUnit(
+        fileType.isStub() ? parseStubText(inputStream) : JavaParserUtil.parseStubUnit(inputStream));
+  }
+
+  /**
+   * Parses the text of an annotation file that is read as a stub file. The bodies in it are not
+   * parsed; see {@link AnnotationFileBodyEraser}.
+   *
+   * <p>Unlike the rest of this class, this method does not use the compiler's data structures, so
+   * it may be called on any thread.
+   *
+   * @param inputStream the stream from which to read an annotation file
+   * @return the parsed annotation file
+   * @throws ParseProblemException if the annotation file has parser errors
+   */
+  public static StubUnit parseStubText(InputStream inputStream) {
+    return JavaParserUtil.parseStubUnit(AnnotationFileBodyEraser.eraseBodies(inputStream));
+  }
+
+  /**
+   * Sets {@link #stubUnit} and {@link #allAnnotations}.
+   *
+   * @param stubUnit the parsed annotation file
+   */
+  private void setStubUnit(StubUnit stubUnit) {
+    this.stubUnit = stubUnit;
 
     // getImportedAnnotations() also modifies importedConstants and importedTypes. This should
     // be refactored to be nicer.
@@ -350,6 +350,7 @@ public class AnnotatedTypeCopier
         (T)
             AnnotatedTypeMirror.createType(
                 original.getUnderlyingType(), original.atypeFactory, original.isDeclaration());
+    copy.copyUnderlyingTypeHashCode(original);
     maybeCopyPrimaryAnnotations(original, copy);
 
     return copy;
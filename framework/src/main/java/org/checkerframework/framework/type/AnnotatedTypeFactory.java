@@ -44,10 +44,12 @@ import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.StringJoiner;
+import java.util.TreeSet;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -113,8 +115,10 @@ import org.checkerframework.framework.type.AnnotatedTypeMirror.AnnotatedWildcard
 import org.checkerframework.framework.type.visitor.AnnotatedTypeCombiner;
 import org.checkerframework.framework.type.visitor.SimpleAnnotatedTypeScanner;
 import org.checkerframework.framework.util.AnnotatedTypes;
+import org.checkerframework.framework.util.BoundedCache;
 import org.checkerframework.framework.util.CheckerMain;
 import org.checkerframework.framework.util.FieldInvariants;
+import org.checkerframework.framework.util.StripedLRUCache;
 import org.checkerframework.framework.util.TreePathCacher;
 import org.checkerframework.framework.util.TypeInformationPresenter;
 import org.checkerframework.framework.util.typeinference.DefaultTypeArgumentInference;
@@ -126,7 +130,6 @@ import org.checkerframework.javacutil.AnnotationMirrorSet;
 import org.checkerframework.javacutil.AnnotationProvider;
 import org.checkerframework.javacutil.AnnotationUtils;
 import org.checkerframework.javacutil.BugInCF;
-import org.checkerframework.javacutil.CollectionUtils;
 import org.checkerframework.javacutil.DefaultAnnotationFormatter;
 import org.checkerframework.javacutil.ElementUtils;
 import org.checkerframework.javacutil.Pair;
@@ -342,10 +345,14 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
 
   /**
    * A cache used to store elements whose declaration annotations have already been stored by
-   * calling the method {@link #getDeclAnnotations(Element)}.
+   * calling the method {@link #getDeclAnnotations(Element)}. It is bounded, so that it does not
+   * grow without limit on large compilations.
    */
   private final Map<Element, AnnotationMirrorSet> cacheDeclAnnos;
 
+  /** The default maximum size of {@link #cacheDeclAnnos}. */
+  private static final int DECL_ANNOS_CACHE_SIZE = 10000;
+
   /**
    * A set containing declaration annotations that should be inherited. A declaration annotation
    * will be inherited if it is in this set, or if it has the meta-annotation @InheritedAnnotation.
@@ -486,6 +493,15 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
   /** Size of LRU cache if one isn't specified using the atfCacheSize option. */
   private static final int DEFAULT_CACHE_SIZE = 300;
 
+  /** All the caches created by {@link #createCache}, in the order they were created. */
+  private final List<BoundedCache<?, ?>> caches = new ArrayList<>();
+
+  /**
+   * The cache sizes given by the {@code -AatfCacheSizes} option, by cache name. Do not read this
+   * field directly; use {@link #getCacheSizesOption}.
+   */
+  private @MonotonicNonNull Map<String, Integer> cacheSizesOption = null;
+
   /** Mapping from a Tree to its annotated type; defaults have been applied. */
   private final Map<Tree, AnnotatedTypeMirror> classAndMethodTreeCache;
 
@@ -509,13 +525,35 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
 
   /**
    * Mapping from an Element to its annotated type; before defaults are applied, just what the
-   * programmer wrote.
+   * programmer wrote. Only elements whose declaration is in source code are in this cache; see
+   * {@link #libraryElementCache}.
    */
   private final Map<Element, AnnotatedTypeMirror> elementCache;
 
+  /**
+   * Mapping from an Element that has no source code, such as an element of the JDK or of a library
+   * on the classpath, to its annotated type as read from bytecode and annotation files. These types
+   * do not change during a compilation, and the same library methods and fields are used again and
+   * again in every compilation unit, so they are kept separately from {@link #elementCache}, where
+   * the many source elements of a large compilation would push them out.
+   */
+  private final Map<Element, AnnotatedTypeMirror> libraryElementCache;
+
+  /** The default maximum size of {@link #libraryElementCache}. */
+  private static final int LIBRARY_ELEMENT_CACHE_SIZE = 5000;
+
   /** Mapping from an Element to the source Tree of the declaration. */
   private final Map<Element, Tree> elementToTreeCache;
 
+  /**
+   * Mapping from a type variable, and whether it is a declaration, to an unannotated {@link
+   * AnnotatedTypeVariable} whose bounds have been initialized. Used by {@link BoundsInitializer} to
+   * copy the bounds of a type variable rather than build them again. Null if {@link #shouldCache}
+   * is false.
+   */
+  /*package-private*/ final @Nullable Map<Pair<TypeVariable, Boolean>, AnnotatedTypeVariable>
+      typeVarBoundsCache;
+
   /** Mapping from a Tree to its TreePath. Shared between all instances. */
   private final TreePathCacher treePathCache;
 
@@ -530,7 +568,7 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
   /** The Object.getClass method. */
   protected final ExecutableElement objectGetClass;
 
-  /** Size of the annotationClassNames cache. */
+  /** Default size of the annotationClassNames cache. */
   private static final int ANNOTATION_CACHE_SIZE = 500;
 
   /** Maps classes representing AnnotationMirrors to their canonical names. */
@@ -577,7 +615,8 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
     this.ajavaTypes = new AnnotationFileElementTypes(this);
     this.currentFileAjavaTypes = null;
 
-    this.cacheDeclAnnos = new HashMap<>();
+    this.cacheDeclAnnos = createCache("declAnnos", DECL_ANNOS_CACHE_SIZE);
+    checker.createOverriddenMethodsCache(this);
 
     this.artificialTreeToEnclosingElementMap = new HashMap<>();
     // get the shared instance from the checker
@@ -585,22 +624,24 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
 
     this.shouldCache = !checker.hasOption("atfDoNotCache");
     if (shouldCache) {
-      int cacheSize = getCacheSize();
-      this.classAndMethodTreeCache = CollectionUtils.createLRUCache(cacheSize);
-      this.fromExpressionTreeCache = CollectionUtils.createLRUCache(cacheSize);
-      this.fromMemberTreeCache = CollectionUtils.createLRUCache(cacheSize);
-      this.fromTypeTreeCache = CollectionUtils.createLRUCache(cacheSize);
-      this.elementCache = CollectionUtils.createLRUCache(cacheSize);
-      this.elementToTreeCache = CollectionUtils.createLRUCache(cacheSize);
-      this.annotationClassNames =
-          Collections.synchronizedMap(CollectionUtils.createLRUCache(ANNOTATION_CACHE_SIZE));
+      this.classAndMethodTreeCache = createCache("classAndMethodTree");
+      this.fromExpressionTreeCache = createCache("fromExpressionTree");
+      this.fromMemberTreeCache = createCache("fromMemberTree");
+      this.fromTypeTreeCache = createCache("fromTypeTree");
+      this.elementCache = createCache("element");
+      this.libraryElementCache = createCache("libraryElement", LIBRARY_ELEMENT_CACHE_SIZE);
+      this.elementToTreeCache = createCache("elementToTree");
+      this.typeVarBoundsCache = createCache("typeVarBounds");
+      this.annotationClassNames = createCache("annotationClassNames", ANNOTATION_CACHE_SIZE);
     } else {
       this.classAndMethodTreeCache = null;
       this.fromExpressionTreeCache = null;
       this.fromMemberTreeCache = null;
       this.fromTypeTreeCache = null;
       this.elementCache = null;
+      this.libraryElementCache = null;
       this.elementToTreeCache = null;
+      this.typeVarBoundsCache = null;
       this.annotationClassNames = null;
     }
 
@@ -929,9 +970,11 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
       fromTypeTreeCache.clear();
       classAndMethodTreeCache.clear();
 
-      // There is no need to clear the following cache, it is limited by cache size and it
-      // contents won't change between compilation units.
+      // There is no need to clear the following caches, they are limited by cache size and
+      // their contents won't change between compilation units.
       // elementCache.clear();
+      // libraryElementCache.clear();
+      // typeVarBoundsCache.clear();
     }
 
     if (root != null && checker.hasOption("ajava")) {
@@ -1280,7 +1323,7 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
    *
    * @return cache size passed as argument to checker or DEFAULT_CACHE_SIZE
    */
-  protected int getCacheSize() {
+  public int getCacheSize() {
     String option = checker.getOption("atfCacheSize");
     if (option == null) {
       return DEFAULT_CACHE_SIZE;
@@ -1292,6 +1335,147 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
     }
   }
 
+  /**
+   * Returns the size of the cache with the given name. It is either the value supplied for the
+   * cache via the {@code -AatfCacheSizes} option, such as {@code
+   * -AatfCacheSizes=element:1000,fromExpressionTree:2000}, or {@code defaultSize}.
+   *
+   * @param cacheName the name of a cache
+   * @param defaultSize the size of the cache if {@code -AatfCacheSizes} does not specify it
+   * @return the size of the cache named {@code cacheName}
+   */
+  public int getCacheSize(String cacheName, int defaultSize) {
+    Integer size = getCacheSizesOption().get(cacheName);
+    return size == null ? defaultSize : size;
+  }
+
+  /**
+   * Returns the cache sizes given by the {@code -AatfCacheSizes} option, by cache name.
+   *
+   * @return the cache sizes given by the {@code -AatfCacheSizes} option
+   * @throws UserError if an entry of the option is not of the form name:size
+   */
+  private Map<String, Integer> getCacheSizesOption() {
+    if (cacheSizesOption == null) {
+      Map<String, Integer> sizes = new HashMap<>();
+      String option = checker.getOption("atfCacheSizes");
+      if (option != null) {
+        for (String entry : option.split(",")) {
+          int colon = entry.indexOf(':');
+          String name = colon == -1 ? "" : entry.substring(0, colon).trim();
+          if (name.isEmpty()) {
+            throw new UserError("atfCacheSizes entry is not of the form name:size: " + entry);
+          }
+          String size = entry.substring(colon + 1).trim();
+          try {
+            sizes.put(name, Integer.parseInt(size));
+          } catch (NumberFormatException ex) {
+            throw new UserError("atfCacheSizes size for %s was not an integer: %s", name, size);
+          }
+        }
+      }
+      cacheSizesOption = sizes;
+    }
+    return cacheSizesOption;
+  }
+
+  /**
+   * Issues an error if the {@code -AatfCacheSizes} option names a cache that none of the given
+   * type factories has created, which is probably a misspelling. Call this after all the given
+   * type factories have been created.
+   *
+   * @param factories the type factories that share the options of this type factory: those of a
+   *     checker and of all its subcheckers, or those of all the checkers of an aggregate checker
+   * @throws UserError if the {@code -AatfCacheSizes} option names an unknown cache
+   */
+  public void checkCacheSizesOption(Collection<? extends AnnotatedTypeFactory> factories) {
+    if (!shouldCache) {
+      // Most caches are not created, and their sizes do not matter.
+      return;
+    }
+    Set<String> cacheNames = new TreeSet<>();
+    for (AnnotatedTypeFactory factory : factories) {
+      cacheNames.addAll(factory.getCacheNames());
+    }
+    for (String name : getCacheSizesOption().keySet()) {
+      if (!cacheNames.contains(name)) {
+        throw new UserError(
+            "atfCacheSizes names an unknown cache %s; the caches are: %s",
+            name, String.join(", ", cacheNames));
+      }
+    }
+  }
+
+  /**
+   * Creates a cache whose size is {@link #getCacheSize()}, unless {@code -AatfCacheSizes}
+   * specifies another size for it. The cache's statistics are printed by {@code -AresourceStats}.
+   *
+   * @param <K> the type of keys
+   * @param <V> the type of values
+   * @param name the name of the cache, which is used by {@code -AatfCacheSizes} and in statistics
+   * @return a new cache
+   */
+  public final <K, V> BoundedCache<K, V> createCache(String name) {
+    return createCache(name, getCacheSize());
+  }
+
+  /**
+   * Creates a cache whose size is {@code defaultSize}, unless {@code -AatfCacheSizes} specifies
+   * another size for it. The cache's statistics are printed by {@code -AresourceStats}.
+   *
+   * @param <K> the type of keys
+   * @param <V> the type of values
+   * @param name the name of the cache, which is used by {@code -AatfCacheSizes} and in statistics
+   * @param defaultSize the size of the cache if {@code -AatfCacheSizes} does not specify it
+   * @return a new cache
+   */
+  public final <K, V> BoundedCache<K, V> createCache(String name, int defaultSize) {
+    int size = getCacheSize(name, defaultSize);
+    if (size < 1) {
+      throw new UserError("The size of cache %s must be positive, but is %d", name, size);
+    }
+    BoundedCache<K, V> cache = createCacheImplementation(name, size);
+    caches.add(cache);
+    return cache;
+  }
+
+  /**
+   * Creates the implementation of a cache. Called by {@link #createCache}, including from the
+   * constructor of this class. Subclasses may override this method to use a different
+   * implementation, which must be thread-safe.
+   *
+   * @param <K> the type of keys
+   * @param <V> the type of values
+   * @param name the name of the cache
+   * @param maximumSize the maximum number of entries in the cache
+   * @return a new, empty cache
+   */
+  protected <K, V> BoundedCache<K, V> createCacheImplementation(String name, int maximumSize) {
+    return new StripedLRUCache<>(name, maximumSize);
+  }
+
+  /**
+   * Returns the caches of this type factory, for example to print their statistics.
+   *
+   * @return the caches of this type factory, in the order they were created
+   */
+  public List<BoundedCache<?, ?>> getCaches() {
+    return Collections.unmodifiableList(caches);
+  }
+
+  /**
+   * Returns the names of the caches of this type factory.
+   *
+   * @return the names of the caches of this type factory
+   */
+  public Set<String> getCacheNames() {
+    Set<String> names = new LinkedHashSet<>();
+    for (BoundedCache<?, ?> cache : caches) {
+      names.add(cache.getName());
+    }
+    return names;
+  }
+
   /**
    * Returns an AnnotatedTypeMirror representing the annotated type of {@code elt}.
    *
@@ -1341,8 +1525,11 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
     if (tree == null) {
       throw new BugInCF("AnnotatedTypeFactory.getAnnotatedType: null tree");
     }
-    if (shouldCache && classAndMethodTreeCache.containsKey(tree)) {
-      return classAndMethodTreeCache.get(tree).deepCopy();
+    if (shouldCache) {
+      AnnotatedTypeMirror cached = classAndMethodTreeCache.get(tree);
+      if (cached != null) {
+        return cached.deepCopy();
+      }
     }
 
     AnnotatedTypeMirror type;
@@ -1492,8 +1679,15 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
    * @return AnnotatedTypeMirror of the element with explicitly-written and stub file annotations
    */
   public AnnotatedTypeMirror fromElement(Element elt) {
-    if (shouldCache && elementCache.containsKey(elt)) {
-      return elementCache.get(elt).deepCopy();
+    // Look in only one of the two caches, so that each lookup is counted in the hits and misses
+    // of the cache that holds the element, and a library lookup is not a miss of elementCache.
+    Map<Element, AnnotatedTypeMirror> cache = null;
+    if (shouldCache) {
+      cache = isLibraryElement(elt) ? libraryElementCache : elementCache;
+      AnnotatedTypeMirror cached = cache.get(elt);
+      if (cached != null) {
+        return cached.deepCopy();
+      }
     }
     if (elt.getKind() == ElementKind.PACKAGE) {
       return toAnnotatedType(elt.asType(), false);
@@ -1545,15 +1739,28 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
     }
     // Caching is disabled if annotation files are being parsed, because calls to this
     // method before the annotation files are fully read can return incorrect results.
-    if (shouldCache
+    if (cache != null
         && !stubTypes.isParsing()
         && !ajavaTypes.isParsing()
         && (currentFileAjavaTypes == null || !currentFileAjavaTypes.isParsing())) {
-      elementCache.put(elt, type.deepCopy());
+      cache.put(elt, type.deepCopy());
     }
     return type;
   }
 
+  /**
+   * Returns true if the type of {@code elt} belongs in {@link #libraryElementCache} rather than in
+   * {@link #elementCache}, because the class that contains {@code elt} is not being compiled from
+   * source code.
+   *
+   * @param elt an element
+   * @return true if {@code elt} is not declared in source code that is being compiled
+   */
+  private static boolean isLibraryElement(Element elt) {
+    return ElementUtils.enclosingTypeElement(elt) != null
+        && !ElementUtils.isElementFromSourceCode(elt);
+  }
+
   /**
    * Returns an AnnotatedDeclaredType with explicit annotations from the ClassTree {@code tree}.
    *
@@ -1584,8 +1791,11 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
       throw new BugInCF(
           "AnnotatedTypeFactory.fromMember: not a method or variable declaration: " + tree);
     }
-    if (shouldCache && fromMemberTreeCache.containsKey(tree)) {
-      return fromMemberTreeCache.get(tree).deepCopy();
+    if (shouldCache) {
+      AnnotatedTypeMirror cached = fromMemberTreeCache.get(tree);
+      if (cached != null) {
+        return cached.deepCopy();
+      }
     }
     AnnotatedTypeMirror result = TypeFromTree.fromMember(this, tree);
 
@@ -1677,9 +1887,12 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
    */
   private AnnotatedTypeMirror fromExpression(ExpressionTree tree) {
     logGat("fromExpression(%s)%n", tree);
-    if (shouldCache && fromExpressionTreeCache.containsKey(tree)) {
-      logGat("fromExpression(%s) => [cached] %s%n", tree, fromExpressionTreeCache.get(tree));
-      return fromExpressionTreeCache.get(tree).deepCopy();
+    if (shouldCache) {
+      AnnotatedTypeMirror cached = fromExpressionTreeCache.get(tree);
+      if (cached != null) {
+        logGat("fromExpression(%s) => [cached] %s%n", tree, cached);
+        return cached.deepCopy();
+      }
     }
 
     AnnotatedTypeMirror result = TypeFromTree.fromExpression(this, tree);
@@ -1709,8 +1922,11 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
    * @return the (partially) annotated type of the type in the AST
    */
   /* package private */ final AnnotatedTypeMirror fromTypeTree(Tree tree) {
-    if (shouldCache && fromTypeTreeCache.containsKey(tree)) {
-      return fromTypeTreeCache.get(tree).deepCopy();
+    if (shouldCache) {
+      AnnotatedTypeMirror cached = fromTypeTreeCache.get(tree);
+      if (cached != null) {
+        return cached.deepCopy();
+      }
     }
 
     AnnotatedTypeMirror result = TypeFromTree.fromTypeTree(this, tree);
@@ -3546,8 +3762,12 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
     if (root == null) {
       return null;
     }
-    if (shouldCache && elementToTreeCache.containsKey(elt)) {
-      return elementToTreeCache.get(elt);
+    if (shouldCache) {
+      // The cached declaration may be null, meaning that there is no declaration.
+      Tree cached = elementToTreeCache.get(elt);
+      if (cached != null || elementToTreeCache.containsKey(elt)) {
+        return cached;
+      }
     }
 
     // Check for new declarations, outside of the AST.
@@ -3670,9 +3890,9 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
   }
 
   /**
-   * Gets the path for the given {@link Tree} under the current root by checking from the visitor's
-   * current path, and using {@link Trees#getPath(CompilationUnitTree, Tree)} (which is much slower)
-   * only if {@code tree} is not found on the current path.
+   * Gets the path for the given {@link Tree} under the current root. The first call for a root
+   * indexes the parent of every tree in it, so that later calls take time proportional to the
+   * depth of {@code tree}; see {@link TreePathCacher}.
    *
    * <p>Note that the given Tree has to be within the current compilation unit, otherwise null will
    * be returned.
@@ -3696,63 +3916,12 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
       return null;
     }
 
-    if (treePathCache.isCached(tree)) {
-      return treePathCache.getPath(root, tree);
-    }
-
-    TreePath currentPath = visitorTreePath;
-    if (currentPath == null) {
-      TreePath path = TreePath.getPath(root, tree);
-      treePathCache.addPath(tree, path);
-      return path;
-    }
-
-    // This method uses multiple heuristics to avoid calling
-    // TreePath.getPath()
-
     // If the current path you are visiting is for this tree we are done
-    if (currentPath.getLeaf() == tree) {
-      treePathCache.addPath(tree, currentPath);
+    TreePath currentPath = visitorTreePath;
+    if (currentPath != null && currentPath.getLeaf() == tree) {
       return currentPath;
     }
 
-    // When running on Daikon, we noticed that a lot of calls happened
-    // within a small subtree containing the tree we are currently visiting
-
-    // When testing on Daikon, two steps resulted in the best performance
-    if (currentPath.getParentPath() != null) {
-      currentPath = currentPath.getParentPath();
-      treePathCache.addPath(currentPath.getLeaf(), currentPath);
-      if (currentPath.getLeaf() == tree) {
-        return currentPath;
-      }
-      if (currentPath.getParentPath() != null) {
-        currentPath = currentPath.getParentPath();
-        treePathCache.addPath(currentPath.getLeaf(), currentPath);
-        if (currentPath.getLeaf() == tree) {
-          return currentPath;
-        }
-      }
-    }
-
-    TreePath pathWithinSubtree = TreePath.getPath(currentPath, tree);
-    if (pathWithinSubtree != null) {
-      treePathCache.addPath(tree, pathWithinSubtree);
-      return pathWithinSubtree;
-    }
-
-    // climb the current path till we see that
-    // Works when getPath called on the enclosing method, enclosing class.
-    TreePath current = currentPath;
-    while (current != null) {
-      treePathCache.addPath(current.getLeaf(), current);
-      if (current.getLeaf() == tree) {
-        return current;
-      }
-      current = current.getParentPath();
-    }
-
-    // OK, we give up. Use the cache to look up.
     return treePathCache.getPath(root, tree);
   }
 
@@ -4077,11 +4246,12 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
    *     the element itself.
    */
   private void inheritOverriddenDeclAnnos(ExecutableElement elt, AnnotationMirrorSet results) {
-    Map<AnnotatedDeclaredType, ExecutableElement> overriddenMethods =
-        AnnotatedTypes.overriddenMethods(elements, this, elt);
+    // The overridden methods do not depend on the type system, so they are computed once and
+    // shared with the other checkers that run in this compilation.
+    List<ExecutableElement> overriddenMethods = checker.getOverriddenMethods(elt);
 
     if (overriddenMethods != null) {
-      for (ExecutableElement superElt : overriddenMethods.values()) {
+      for (ExecutableElement superElt : overriddenMethods) {
         AnnotationMirrorSet superAnnos = getDeclAnnotations(superElt);
 
         for (AnnotationMirror annotation : superAnnos) {
@@ -69,9 +69,9 @@ public abstract class AnnotatedTypeMirror implements DeepCopyable<AnnotatedTypeM
   protected final TypeMirror underlyingType;
 
   /**
-   * Saves the result of {@code underlyingType.toString().hashCode()} to use when computing the hash
-   * code of this. (Because AnnotatedTypeMirrors are mutable, the hash code for this cannot be
-   * saved.) Call {@link #getUnderlyingTypeHashCode()} rather than using the field directly.
+   * Saves the hash code of {@link #underlyingType} to use when computing the hash code of this.
+   * (Because AnnotatedTypeMirrors are mutable, the hash code for this cannot be saved.) Call {@link
+   * #getUnderlyingTypeHashCode()} rather than using the field directly.
    */
   private int underlyingTypeHashCode = -1;
 
@@ -853,18 +853,49 @@ public abstract class AnnotatedTypeMirror implements DeepCopyable<AnnotatedTypeM
   }
 
   /**
-   * Returns the result of calling {@code underlyingType.toString().hashcode()}. This method saves
-   * the result in a field so that it isn't recomputed each time.
+   * Returns a hash code for the underlying type. It is computed from the kind of the underlying
+   * type and the name of the class or type variable that it refers to, not from its component
+   * types, which {@link #hashCode()} hashes separately. Underlying types that are equal have the
+   * same hash code, and the hash code is the same in every run. This method saves the result in a
+   * field so that it isn't recomputed each time.
    *
-   * @return the result of calling {@code underlyingType.toString().hashcode()}
+   * @return a hash code for the underlying type
    */
   public int getUnderlyingTypeHashCode() {
     if (underlyingTypeHashCode == -1) {
-      underlyingTypeHashCode = underlyingType.toString().hashCode();
+      int hash = underlyingType.getKind().ordinal();
+      switch (underlyingType.getKind()) {
+        case DECLARED:
+          hash =
+              31 * hash
+                  + ((TypeElement) ((DeclaredType) underlyingType).asElement())
+                      .getQualifiedName()
+                      .hashCode();
+          break;
+        case TYPEVAR:
+          hash = 31 * hash + ((TypeVariable) underlyingType).asElement().getSimpleName().hashCode();
+          break;
+        default:
+          break;
+      }
+      underlyingTypeHashCode = hash;
     }
     return underlyingTypeHashCode;
   }
 
+  /**
+   * Makes this type reuse the hash code of the underlying type of {@code original}, if it has
+   * already been computed and the two types have the same underlying type. Used when copying types.
+   *
+   * @param original the type that this is a copy of
+   */
+  @SuppressWarnings("interning:not.interned") // the same underlying type, not an equal one
+  /*package-private*/ void copyUnderlyingTypeHashCode(AnnotatedTypeMirror original) {
+    if (original.underlyingType == underlyingType) {
+      underlyingTypeHashCode = original.underlyingTypeHashCode;
+    }
+  }
+
   /** Represents a declared type (whether class or interface). */
   public static class AnnotatedDeclaredType extends AnnotatedTypeMirror {
 
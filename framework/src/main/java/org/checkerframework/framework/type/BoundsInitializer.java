@@ -6,6 +6,7 @@ import com.sun.tools.javac.util.Context;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import javax.lang.model.element.TypeElement;
@@ -149,10 +150,42 @@ public class BoundsInitializer {
    * Create the entire lower bound and upper bound, with no missing information, for typeVar. If a
    * typeVar is recursive the appropriate cycles will be introduced in the type
    *
+   * <p>The bounds depend only on the underlying type variable and on whether {@code typeVar} is a
+   * declaration, so the first time the bounds of a type variable are initialized, they are stored
+   * in the {@link AnnotatedTypeFactory#typeVarBoundsCache}. Later calls copy the stored bounds,
+   * which is much cheaper than building them again, especially for recursive bounds such as {@code
+   * E extends Enum<E>}. The stored bounds are never returned, because callers side-effect the
+   * bounds. In the copy, every reference to the stored type variable itself is a reference to
+   * {@code typeVar}, just as if the bounds had been built for {@code typeVar}.
+   *
    * @param typeVar the type variable whose lower bound is being initialized
    */
   public static void initializeBounds(AnnotatedTypeVariable typeVar) {
-    initializeBounds(typeVar, null);
+    Map<Pair<TypeVariable, Boolean>, AnnotatedTypeVariable> cache =
+        typeVar.atypeFactory.typeVarBoundsCache;
+    if (cache == null) {
+      initializeBounds(typeVar, null);
+      return;
+    }
+
+    Pair<TypeVariable, Boolean> key = Pair.of(typeVar.getUnderlyingType(), typeVar.isDeclaration());
+    AnnotatedTypeVariable template = cache.get(key);
+    if (template == null) {
+      template =
+          (AnnotatedTypeVariable)
+              AnnotatedTypeMirror.createType(key.first, typeVar.atypeFactory, key.second);
+      initializeBounds(template, null);
+      cache.put(key, template);
+    }
+
+    AnnotationMirrorSet annos = saveAnnotations(typeVar);
+    IdentityHashMap<AnnotatedTypeMirror, AnnotatedTypeMirror> templateToCopy =
+        new IdentityHashMap<>();
+    templateToCopy.put(template, typeVar);
+    AnnotatedTypeCopier copier = new AnnotatedTypeCopier();
+    typeVar.setLowerBound(copier.visit(template.getLowerBoundField(), templateToCopy));
+    typeVar.setUpperBound(copier.visit(template.getUpperBoundField(), templateToCopy));
+    restoreAnnotations(typeVar, annos);
   }
 
   /**
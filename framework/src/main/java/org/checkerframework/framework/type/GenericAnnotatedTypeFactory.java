@@ -1,6 +1,7 @@
 package org.checkerframework.framework.type;
 
 import com.google.common.collect.Ordering;
+import com.sun.source.tree.AnnotationTree;
 import com.sun.source.tree.BinaryTree;
 import com.sun.source.tree.BlockTree;
 import com.sun.source.tree.ClassTree;
@@ -10,11 +11,13 @@ import com.sun.source.tree.LambdaExpressionTree;
 import com.sun.source.tree.MemberReferenceTree;
 import com.sun.source.tree.MethodInvocationTree;
 import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.ModifiersTree;
 import com.sun.source.tree.NewClassTree;
 import com.sun.source.tree.Tree;
 import com.sun.source.tree.UnaryTree;
 import com.sun.source.tree.VariableTree;
 import com.sun.source.util.TreePath;
+import com.sun.source.util.TreeScanner;
 import java.lang.annotation.Annotation;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -32,13 +35,19 @@ import java.util.regex.Pattern;
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
 import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.IntersectionType;
 import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.type.TypeVariable;
+import javax.lang.model.type.UnionType;
+import javax.lang.model.type.WildcardType;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 import org.checkerframework.afu.scenelib.el.AField;
@@ -69,6 +78,8 @@ import org.checkerframework.dataflow.cfg.visualize.DOTCFGVisualizer;
 import org.checkerframework.dataflow.expression.FieldAccess;
 import org.checkerframework.dataflow.expression.JavaExpression;
 import org.checkerframework.dataflow.expression.LocalVariable;
+import org.checkerframework.dataflow.util.SideEffectSummarizer;
+import org.checkerframework.dataflow.util.SideEffectSummary;
 import org.checkerframework.framework.flow.CFAbstractAnalysis;
 import org.checkerframework.framework.flow.CFAbstractAnalysis.FieldInitialValue;
 import org.checkerframework.framework.flow.CFAbstractStore;
@@ -260,6 +271,20 @@ public abstract class GenericAnnotatedTypeFactory<
   // Not final so that subclasses can set it.
   public boolean sideEffectsUnrefineAliases = false;
 
+  /**
+   * Summarizes the side effects of methods that are not annotated as side-effect-free, so that
+   * dataflow analysis need not discard all facts about the heap at a call to them. Null unless the
+   * {@code -AsummarizeSideEffects} command-line option was supplied.
+   */
+  private final @Nullable SideEffectSummarizer sideEffectSummarizer;
+
+  /**
+   * True if dataflow analysis is skipped for methods that contain no code relevant to this type
+   * system, because the {@code -AskipIrrelevantDataflow} command-line option was supplied. See
+   * {@link #requiresFlowAnalysis(MethodTree)}.
+   */
+  private final boolean skipIrrelevantDataflow;
+
   /**
    * True if this checker either has one or more subcheckers, or if this checker is a subchecker.
    * False otherwise. All uses of the methods {@link #addSharedCFGForTree(Tree, ControlFlowGraph)}
@@ -345,9 +370,8 @@ public abstract class GenericAnnotatedTypeFactory<
     this.cfgVisualizer = createCFGVisualizer();
 
     if (shouldCache) {
-      int cacheSize = getCacheSize();
-      flowResultAnalysisCaches = CollectionUtils.createLRUCache(cacheSize);
-      initializerCache = CollectionUtils.createLRUCache(cacheSize);
+      flowResultAnalysisCaches = createCache("flowResultAnalysis");
+      initializerCache = createCache("initializer");
     } else {
       flowResultAnalysisCaches = null;
       initializerCache = null;
@@ -385,6 +409,16 @@ public abstract class GenericAnnotatedTypeFactory<
         !this.getChecker().getSubcheckers().isEmpty()
             || this.getChecker().getParentChecker() != null;
 
+    sideEffectSummarizer =
+        checker.hasOption("summarizeSideEffects")
+            ? new SideEffectSummarizer(this, this::declarationFromElement)
+            : null;
+
+    skipIrrelevantDataflow =
+        checker.hasOption("skipIrrelevantDataflow")
+            && !checker.hasOption("flowdotdir")
+            && !checker.hasOption("cfgviz");
+
     // Every subclass must call postInit, but it must be called after
     // all other initialization is finished.
   }
@@ -1085,6 +1119,32 @@ public abstract class GenericAnnotatedTypeFactory<
   /** A mapping from methods (or other code blocks) to their exceptional exit store. */
   protected final IdentityHashMap<Tree, Store> exceptionalExitStores;
 
+  /**
+   * The maximum number of names kept in {@link #codeThatReachedBlockVisitLimit}, so that a long
+   * compilation does not accumulate a name for every method that it analyzes.
+   */
+  private static final int MAX_CODE_THAT_REACHED_BLOCK_VISIT_LIMIT = 100;
+
+  /**
+   * The names of the first methods (or other code blocks) whose analysis reached the limit given by
+   * the {@code -AdataflowBlockVisitLimit} command-line argument, in the order they were analyzed.
+   * Holds at most {@link #MAX_CODE_THAT_REACHED_BLOCK_VISIT_LIMIT} names; {@link
+   * #numCodeThatReachedBlockVisitLimit} counts all of them.
+   */
+  private final List<String> codeThatReachedBlockVisitLimit = new ArrayList<>();
+
+  /**
+   * The number of methods (or other code blocks) whose analysis reached the limit given by the
+   * {@code -AdataflowBlockVisitLimit} command-line argument.
+   */
+  private int numCodeThatReachedBlockVisitLimit = 0;
+
+  /**
+   * The number of methods for which dataflow analysis was skipped because {@link
+   * #requiresFlowAnalysis(MethodTree)} returned false.
+   */
+  private int numMethodsSkippedByFlow = 0;
+
   /** A mapping from methods to a list with all return statements and the corresponding store. */
   protected final IdentityHashMap<MethodTree, List<Pair<ReturnNode, TransferResult<Value, Store>>>>
       returnStatementStores;
@@ -1094,6 +1154,54 @@ public abstract class GenericAnnotatedTypeFactory<
    */
   protected IdentityHashMap<MethodInvocationTree, Store> methodInvocationStores;
 
+  /**
+   * Returns the names of the first methods (or other code blocks) whose dataflow analysis reached
+   * the limit given by the {@code -AdataflowBlockVisitLimit} command-line argument. For those,
+   * facts that did not stabilize within the limit were discarded. At most 100 names are kept; use
+   * {@link #getNumCodeThatReachedBlockVisitLimit} for the total number.
+   *
+   * @return the names of the first code blocks whose analysis reached the block visit limit
+   */
+  public List<String> getCodeThatReachedBlockVisitLimit() {
+    return Collections.unmodifiableList(codeThatReachedBlockVisitLimit);
+  }
+
+  /**
+   * Returns the number of methods (or other code blocks) whose dataflow analysis reached the limit
+   * given by the {@code -AdataflowBlockVisitLimit} command-line argument.
+   *
+   * @return the number of code blocks whose analysis reached the block visit limit
+   */
+  public int getNumCodeThatReachedBlockVisitLimit() {
+    return numCodeThatReachedBlockVisitLimit;
+  }
+
+  /**
+   * Returns the number of methods for which dataflow analysis was skipped because they contain no
+   * code relevant to this type system. Always 0 unless the {@code -AskipIrrelevantDataflow}
+   * command-line option was supplied.
+   *
+   * @return the number of methods for which dataflow analysis was skipped
+   */
+  public int getNumMethodsSkippedByFlow() {
+    return numMethodsSkippedByFlow;
+  }
+
+  /**
+   * Returns a summary of the side effects of a call to the given method, or null if side effects
+   * are not summarized because the {@code -AsummarizeSideEffects} command-line option was not
+   * supplied.
+   *
+   * @param method a method or constructor
+   * @return a summary of the side effects of a call to {@code method}, or null
+   */
+  public @Nullable SideEffectSummary getSideEffectSummary(ExecutableElement method) {
+    if (sideEffectSummarizer == null) {
+      return null;
+    }
+    return sideEffectSummarizer.getSummary(method);
+  }
+
   /**
    * Returns the regular exit store for a method or another code block (such as static
    * initializers). Returns {@code null} if there is no such store. This can happen because the
@@ -1438,6 +1546,14 @@ public abstract class GenericAnnotatedTypeFactory<
         // TODO: at this point, we don't have any information about
         // fields of superclasses.
         for (CFGMethod met : methods) {
+          if (checker.shouldSkipDefs(ct, met.getMethod())) {
+            // The visitor does not check the method, so its refined types are never used.
+            continue;
+          }
+          if (!requiresFlowAnalysis(met.getMethod())) {
+            numMethodsSkippedByFlow++;
+            continue;
+          }
           analyze(
               classQueue,
               lambdaQueue,
@@ -1540,6 +1656,16 @@ public abstract class GenericAnnotatedTypeFactory<
     }
     analysis.performAnalysis(cfg, fieldValues);
     AnalysisResult<Value, Store> result = analysis.getResult();
+    if (analysis.hasReachedBlockVisitLimit()
+        && numCodeThatReachedBlockVisitLimit++ < MAX_CODE_THAT_REACHED_BLOCK_VISIT_LIMIT) {
+      if (ast.getKind() == UnderlyingAST.Kind.METHOD) {
+        CFGMethod mast = (CFGMethod) ast;
+        codeThatReachedBlockVisitLimit.add(
+            mast.getSimpleClassName() + "." + mast.getMethodName());
+      } else {
+        codeThatReachedBlockVisitLimit.add(ast.getKind() + " in " + currentClass.getSimpleName());
+      }
+    }
 
     // store result
     flowResult.combine(result);
@@ -2071,8 +2197,9 @@ public abstract class GenericAnnotatedTypeFactory<
     VariableElement variableElt = (VariableElement) elt;
     variablesUnderInitialization.add(variableElt);
     AnnotatedTypeMirror initializerType;
-    if (shouldCache && initializerCache.containsKey(initializer)) {
-      initializerType = initializerCache.get(initializer);
+    AnnotatedTypeMirror cached = shouldCache ? initializerCache.get(initializer) : null;
+    if (cached != null) {
+      initializerType = cached;
     } else {
       // When this method is called by getAnnotatedTypeLhs, flow is turned off.
       // Turn it back on so the type of the initializer is the refined type.
@@ -2489,6 +2616,197 @@ public abstract class GenericAnnotatedTypeFactory<
     }
   }
 
+  /**
+   * Returns true if dataflow analysis must be performed on the given method, whose body is not
+   * null. If this returns false, no control flow graph is built for the method and no facts are
+   * computed for it: the type of every expression in it is its unrefined type.
+   *
+   * <p>Unless the {@code -AskipIrrelevantDataflow} command-line option was supplied, this returns
+   * true. Otherwise, it returns false if dataflow analysis could not refine any type in the method,
+   * because no type that appears in it (including type arguments and array components) is {@link
+   * #isRelevant relevant}, and the method neither has nor relies on pre- or postconditions. Such
+   * methods are common for type systems with few {@link RelevantJavaTypes relevant types}, such as
+   * the Regex Checker. Constructors, and methods that contain lambdas or class declarations, are
+   * always analyzed.
+   *
+   * <p>Subclasses may override this method to make the check stricter, for example if their
+   * transfer function issues diagnostics or refines types based on the methods that are called.
+   *
+   * @param method a method with a body
+   * @return true if dataflow analysis must be performed on {@code method}
+   */
+  protected boolean requiresFlowAnalysis(MethodTree method) {
+    if (!skipIrrelevantDataflow
+        || TreeUtils.isConstructor(method)
+        || getWholeProgramInference() != null) {
+      return true;
+    }
+    if (!contractsUtils.getContracts(TreeUtils.elementFromDeclaration(method)).isEmpty()) {
+      return true;
+    }
+    RelevantCodeFinder finder = new RelevantCodeFinder();
+    finder.scan(method, null);
+    return finder.found;
+  }
+
+  /**
+   * Determines whether code might be refined by dataflow analysis, because it uses a relevant type,
+   * calls a method with pre- or postconditions, or contains a lambda or a class declaration. It
+   * does not look at annotations, since their arguments are not analyzed.
+   */
+  private class RelevantCodeFinder extends TreeScanner<Void, Void> {
+
+    /** True if the scanned code might be refined by dataflow analysis. */
+    boolean found = false;
+
+    /** The type variables whose bounds have been or are being examined. */
+    private final Set<TypeVariable> visitedTypeVariables = new HashSet<>();
+
+    @Override
+    public Void scan(Tree tree, Void p) {
+      if (found || tree == null) {
+        return null;
+      }
+      TypeMirror type = TreeUtils.typeOf(tree);
+      if (type != null && containsRelevantType(type)) {
+        found = true;
+        return null;
+      }
+      return super.scan(tree, p);
+    }
+
+    /**
+     * Returns true if the given type, or a type that it contains, is relevant.
+     *
+     * @param type a type
+     * @return true if {@code type} or a type that it contains is relevant
+     */
+    private boolean containsRelevantType(TypeMirror type) {
+      switch (type.getKind()) {
+        case BOOLEAN:
+        case BYTE:
+        case CHAR:
+        case DOUBLE:
+        case FLOAT:
+        case INT:
+        case LONG:
+        case SHORT:
+        case NULL:
+          return isRelevant(type);
+        case DECLARED:
+          if (isRelevant(type)) {
+            return true;
+          }
+          for (TypeMirror typeArg : ((DeclaredType) type).getTypeArguments()) {
+            if (containsRelevantType(typeArg)) {
+              return true;
+            }
+          }
+          return false;
+        case ARRAY:
+          return isRelevant(type)
+              || containsRelevantType(((ArrayType) type).getComponentType());
+        case TYPEVAR:
+          TypeVariable typeVar = (TypeVariable) type;
+          if (!visitedTypeVariables.add(typeVar)) {
+            return false;
+          }
+          TypeMirror lowerBound = typeVar.getLowerBound();
+          // Ignore the null type, which is the lower bound of most type variables.
+          return containsRelevantType(typeVar.getUpperBound())
+              || (lowerBound.getKind() != TypeKind.NULL && containsRelevantType(lowerBound));
+        case WILDCARD:
+          WildcardType wildcard = (WildcardType) type;
+          return (wildcard.getExtendsBound() != null
+                  && containsRelevantType(wildcard.getExtendsBound()))
+              || (wildcard.getSuperBound() != null
+                  && containsRelevantType(wildcard.getSuperBound()));
+        case INTERSECTION:
+          for (TypeMirror bound : ((IntersectionType) type).getBounds()) {
+            if (containsRelevantType(bound)) {
+              return true;
+            }
+          }
+          return false;
+        case UNION:
+          for (TypeMirror alternative : ((UnionType) type).getAlternatives()) {
+            if (containsRelevantType(alternative)) {
+              return true;
+            }
+          }
+          return false;
+        case EXECUTABLE:
+          ExecutableType methodType = (ExecutableType) type;
+          if (containsRelevantType(methodType.getReturnType())) {
+            return true;
+          }
+          for (TypeMirror paramType : methodType.getParameterTypes()) {
+            if (containsRelevantType(paramType)) {
+              return true;
+            }
+          }
+          return false;
+        case VOID:
+        case NONE:
+        case PACKAGE:
+        case MODULE:
+          return false;
+        default:
+          // Be conservative about erroneous and unknown types.
+          return true;
+      }
+    }
+
+    /**
+     * Sets {@link #found} if the given method or constructor has pre- or postconditions.
+     *
+     * @param invoked the invoked method or constructor
+     */
+    private void checkContracts(ExecutableElement invoked) {
+      if (!contractsUtils.getContracts(invoked).isEmpty()) {
+        found = true;
+      }
+    }
+
+    @Override
+    public Void visitMethodInvocation(MethodInvocationTree tree, Void p) {
+      checkContracts(TreeUtils.elementFromUse(tree));
+      return super.visitMethodInvocation(tree, p);
+    }
+
+    @Override
+    public Void visitNewClass(NewClassTree tree, Void p) {
+      if (tree.getClassBody() != null) {
+        found = true;
+        return null;
+      }
+      checkContracts(TreeUtils.elementFromUse(tree));
+      return super.visitNewClass(tree, p);
+    }
+
+    @Override
+    public Void visitClass(ClassTree tree, Void p) {
+      found = true;
+      return null;
+    }
+
+    @Override
+    public Void visitLambdaExpression(LambdaExpressionTree tree, Void p) {
+      found = true;
+      return null;
+    }
+
+    @Override
+    public Void visitModifiers(ModifiersTree tree, Void p) {
+      return null;
+    }
+
+    @Override
+    public Void visitAnnotation(AnnotationTree tree, Void p) {
+      return null;
+    }
+  }
+
   /** The cached message about relevant types. */
   private @MonotonicNonNull String irrelevantExtraMessage = null;
 
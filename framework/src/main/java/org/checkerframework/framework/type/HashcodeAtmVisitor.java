@@ -1,7 +1,8 @@
 package org.checkerframework.framework.type;
 
-import java.util.Objects;
+import javax.lang.model.element.AnnotationMirror;
 import org.checkerframework.framework.type.visitor.SimpleAnnotatedTypeScanner;
+import org.checkerframework.javacutil.AnnotationUtils;
 
 /**
  * Computes the hashcode of an AnnotatedTypeMirror using the underlying type and primary annotations
@@ -23,6 +24,11 @@ public class HashcodeAtmVisitor extends SimpleAnnotatedTypeScanner<Integer, Void
    * Generates hashcode for type using the underlying type and the primary annotation. This method
    * does not descend into component types (this occurs in the scan method)
    *
+   * <p>The primary annotations are hashed by {@link
+   * AnnotationUtils#annotationHashCode(AnnotationMirror)}, which is consistent with {@link
+   * AnnotationUtils#areSame(AnnotationMirror, AnnotationMirror)} and distinguishes annotations that
+   * differ only in their elements, such as {@code @IntVal(1)} and {@code @IntVal(2)}.
+   *
    * @param type the type
    */
   @Override
@@ -32,6 +38,10 @@ public class HashcodeAtmVisitor extends SimpleAnnotatedTypeScanner<Integer, Void
     if (type == null) {
       return 0;
     }
-    return Objects.hash(type.getUnderlyingTypeHashCode(), type.getAnnotations().toString());
+    int annotationsHash = 0;
+    for (AnnotationMirror anno : type.getAnnotationsField()) {
+      annotationsHash += AnnotationUtils.annotationHashCode(anno);
+    }
+    return 31 * type.getUnderlyingTypeHashCode() + annotationsHash;
   }
 }
@@ -0,0 +1,222 @@
+package org.checkerframework.framework.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.processing.Processor;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.source.SourceChecker;
+import org.checkerframework.javacutil.BugInCF;
+import org.checkerframework.javacutil.UserError;
+import org.plumelib.util.CollectionsPlume;
+
+/**
+ * Type-checks many small, independent, in-memory sources within the current JVM.
+ *
+ * <p>Running a checker over thousands of snippets with {@link CheckerMain} starts a JVM (and
+ * re-reads the classpath) for each of them. A {@code BatchChecker} instead runs javac in-process,
+ * reusing one compiler and one file manager (and therefore the classpath indexes and the warm JIT)
+ * for every source. Each source is compiled on its own, with a fresh checker instance, so the
+ * diagnostics of one source never depend on another source. No class files are written.
+ *
+ * <p>The checker, and the annotations it uses, must be loadable by the class loader that loaded
+ * this class.
+ *
+ * <p>Example use:
+ *
+ * <pre>{@code
+ * try (BatchChecker batch = new BatchChecker(NullnessChecker.class, classpath, options)) {
+ *   for (Map.Entry<String, String> source : sources.entrySet()) {
+ *     List<Diagnostic<? extends JavaFileObject>> diagnostics =
+ *         batch.check(source.getKey(), source.getValue());
+ *     ...
+ *   }
+ * }
+ * }</pre>
+ */
+public class BatchChecker implements AutoCloseable {
+
+  /** The checker to run on each source. */
+  private final Class<? extends SourceChecker> checker;
+
+  /** The command-line options passed to javac for each source. */
+  private final List<String> options;
+
+  /** The compiler, shared by all compilations. */
+  private final JavaCompiler compiler;
+
+  /** The file manager for the classpath, shared by all compilations. */
+  private final StandardJavaFileManager standardFileManager;
+
+  /** The file manager used by each compilation; it discards all output files. */
+  private final DiscardingFileManager fileManager;
+
+  /**
+   * Creates a BatchChecker.
+   *
+   * @param checker the checker to run on each source
+   * @param classpath the classpath used to compile each source; if empty, the classpath of the
+   *     current JVM is used
+   * @param options the command-line options passed to javac for each source, such as {@code
+   *     -Awarns}
+   */
+  public BatchChecker(
+      Class<? extends SourceChecker> checker, List<String> classpath, List<String> options) {
+    this.checker = checker;
+    this.options = new ArrayList<>(options);
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    if (compiler == null) {
+      throw new UserError("BatchChecker must be run on a JDK, not a JRE");
+    }
+    this.compiler = compiler;
+    this.standardFileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8);
+    if (!classpath.isEmpty()) {
+      try {
+        standardFileManager.setLocation(
+            StandardLocation.CLASS_PATH, CollectionsPlume.mapList(File::new, classpath));
+      } catch (IOException e) {
+        throw new UserError("Invalid classpath %s: %s", classpath, e.getMessage());
+      }
+    }
+    this.fileManager = new DiscardingFileManager(standardFileManager);
+  }
+
+  /**
+   * Type-checks one source.
+   *
+   * @param fileName the name of the source file, such as {@code "Foo.java"}; the name of a public
+   *     top-level class in {@code source} must match it
+   * @param source the contents of the source file
+   * @return the diagnostics that javac and the checker issued for the source, in the order they
+   *     were issued
+   */
+  public List<Diagnostic<? extends JavaFileObject>> check(String fileName, String source) {
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    JavaCompiler.CompilationTask task =
+        compiler.getTask(
+            null,
+            fileManager,
+            diagnostics,
+            options,
+            null,
+            Collections.singletonList(new StringJavaFileObject(fileName, source)));
+    task.setProcessors(Collections.singletonList(newChecker()));
+    task.call();
+    return diagnostics.getDiagnostics();
+  }
+
+  /**
+   * Type-checks each of the given sources on its own.
+   *
+   * @param sources a map from file names to the contents of the files
+   * @return a map from each file name to the diagnostics issued for it; the iteration order is that
+   *     of {@code sources}
+   * @see #check(String, String)
+   */
+  public Map<String, List<Diagnostic<? extends JavaFileObject>>> checkAll(
+      Map<String, String> sources) {
+    Map<String, List<Diagnostic<? extends JavaFileObject>>> result = new LinkedHashMap<>();
+    for (Map.Entry<String, String> source : sources.entrySet()) {
+      result.put(source.getKey(), check(source.getKey(), source.getValue()));
+    }
+    return result;
+  }
+
+  /**
+   * Returns a new instance of the checker. A processor cannot be initialized twice, so each
+   * compilation needs its own instance.
+   *
+   * @return a new instance of the checker
+   */
+  private Processor newChecker() {
+    try {
+      return checker.getDeclaredConstructor().newInstance();
+    } catch (InstantiationException
+        | IllegalAccessException
+        | InvocationTargetException
+        | NoSuchMethodException e) {
+      throw new BugInCF("Cannot instantiate " + checker.getName(), e);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    standardFileManager.close();
+  }
+
+  /** A source file whose contents are held in memory. */
+  private static class StringJavaFileObject extends SimpleJavaFileObject {
+
+    /** The contents of the source file. */
+    private final String source;
+
+    /**
+     * Creates a StringJavaFileObject.
+     *
+     * @param fileName the name of the source file
+     * @param source the contents of the source file
+     */
+    StringJavaFileObject(String fileName, String source) {
+      super(URI.create("string:///" + fileName.replace('\\', '/')), Kind.SOURCE);
+      this.source = source;
+    }
+
+    @Override
+    public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+      return source;
+    }
+  }
+
+  /** A file manager that discards every file that javac writes. */
+  private static class DiscardingFileManager
+      extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+    /**
+     * Creates a DiscardingFileManager.
+     *
+     * @param fileManager the file manager to which reads are delegated
+     */
+    DiscardingFileManager(StandardJavaFileManager fileManager) {
+      super(fileManager);
+    }
+
+    @Override
+    public JavaFileObject getJavaFileForOutput(
+        Location location,
+        String className,
+        JavaFileObject.Kind kind,
+        @Nullable FileObject sibling) {
+      return new SimpleJavaFileObject(
+          URI.create("discarded:///" + className.replace('.', '/') + kind.extension), kind) {
+        @Override
+        public OutputStream openOutputStream() {
+          return new OutputStream() {
+            @Override
+            public void write(int b) {}
+
+            @Override
+            public void write(byte[] b, int off, int len) {}
+          };
+        }
+      };
+    }
+  }
+}
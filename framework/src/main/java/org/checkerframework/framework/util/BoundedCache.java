@@ -0,0 +1,71 @@
+package org.checkerframework.framework.util;
+
+import java.util.Map;
+
+/**
+ * A map with a maximum size, which discards entries when it is full, and which counts how often
+ * lookups succeed. The caches of {@link
+ * org.checkerframework.framework.type.AnnotatedTypeFactory} are {@code BoundedCache}s, created by
+ * {@link
+ * org.checkerframework.framework.type.AnnotatedTypeFactory#createCacheImplementation(String,
+ * int)}.
+ *
+ * <p>Implementations must be thread-safe. Only {@link #get} counts as a lookup; {@link
+ * #containsKey} does not.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+public interface BoundedCache<K, V> extends Map<K, V> {
+
+  /**
+   * Returns the name of this cache, which is used in statistics and in the {@code
+   * -AatfCacheSizes} command-line option.
+   *
+   * @return the name of this cache
+   */
+  String getName();
+
+  /**
+   * Returns the maximum number of entries in this cache.
+   *
+   * @return the maximum number of entries in this cache
+   */
+  int getMaximumSize();
+
+  /**
+   * Returns the number of calls to {@link #get} that found an entry.
+   *
+   * @return the number of calls to {@link #get} that found an entry
+   */
+  long getHits();
+
+  /**
+   * Returns the number of calls to {@link #get} that did not find an entry.
+   *
+   * @return the number of calls to {@link #get} that did not find an entry
+   */
+  long getMisses();
+
+  /**
+   * Returns the number of entries that were discarded because the cache was full.
+   *
+   * @return the number of entries that were discarded because the cache was full
+   */
+  long getEvictions();
+
+  /**
+   * Returns a description of how effective this cache has been, for use by {@code
+   * -AresourceStats}.
+   *
+   * @return the hits, misses, hit ratio, evictions, and size of this cache
+   */
+  default String getStatistics() {
+    long hits = getHits();
+    long lookups = hits + getMisses();
+    double hitRatio = lookups == 0 ? 0 : 100.0 * hits / lookups;
+    return String.format(
+        "%s: %d hits, %d misses (%.1f%% hit ratio), %d evictions, %d entries (maximum %d)",
+        getName(), hits, getMisses(), hitRatio, getEvictions(), size(), getMaximumSize());
+  }
+}
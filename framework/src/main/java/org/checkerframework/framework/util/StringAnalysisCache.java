@@ -0,0 +1,140 @@
+package org.checkerframework.framework.util;
+
+import java.util.Map;
+import java.util.function.Function;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.javacutil.BugInCF;
+import org.checkerframework.javacutil.CollectionUtils;
+
+/**
+ * A bounded cache of the results of analyzing string values, such as the values of string
+ * literals. For example, the Regex Checker caches whether a string is a regular expression and how
+ * many groups it has, and the Format String Checker caches the conversion categories of a format
+ * string. Generated code often repeats the same literals, or builds long concatenations whose
+ * prefixes are analyzed over and over, so caching avoids redundant work.
+ *
+ * <p>The analysis must be a pure function of the string that does not depend on the compilation,
+ * so one cache can be shared by all type factories (and all compilations) in a JVM; this class is
+ * thread-safe. The analysis must not return null.
+ *
+ * <p>If the analysis throws an exception of the failure type given to the constructor, the failure
+ * is cached as well: the cache stores the message of the exception, and each later call for the
+ * same string throws a new exception with that message, created by the constructor's exception
+ * factory. Other exceptions are not cached. A cache created without a failure type caches no
+ * exceptions.
+ *
+ * @param <T> the result of the analysis
+ */
+public class StringAnalysisCache<T> {
+
+  /** The default maximum number of strings whose results are cached. */
+  public static final int DEFAULT_SIZE = 4096;
+
+  /** The cache; each value is either a {@code T} or a {@link Failure}. */
+  private final Map<String, Object> cache;
+
+  /** The type of the exceptions that are cached, or null if no exception is cached. */
+  private final @Nullable Class<? extends RuntimeException> failureType;
+
+  /**
+   * Creates the exception that is thrown for a cached failure, from the message of the original
+   * exception. Null iff {@link #failureType} is null.
+   */
+  private final @Nullable Function<@Nullable String, ? extends RuntimeException> newFailure;
+
+  /**
+   * Creates a StringAnalysisCache with the {@link #DEFAULT_SIZE default size}, for an analysis that
+   * does not throw exceptions, or whose exceptions should not be cached.
+   */
+  public StringAnalysisCache() {
+    this(DEFAULT_SIZE, null, null);
+  }
+
+  /**
+   * Creates a StringAnalysisCache with the {@link #DEFAULT_SIZE default size}, for an analysis that
+   * reports an invalid string by throwing an exception.
+   *
+   * @param failureType the type of the exceptions that the analysis throws for an invalid string;
+   *     these are cached
+   * @param newFailure creates the exception to throw for a cached failure, from the message of the
+   *     original exception; it must return an instance of {@code failureType}
+   */
+  public StringAnalysisCache(
+      Class<? extends RuntimeException> failureType,
+      Function<@Nullable String, ? extends RuntimeException> newFailure) {
+    this(DEFAULT_SIZE, failureType, newFailure);
+  }
+
+  /**
+   * Creates a StringAnalysisCache.
+   *
+   * @param size the maximum number of strings whose results are cached
+   * @param failureType the type of the exceptions that are cached, or null to cache no exceptions
+   * @param newFailure creates the exception to throw for a cached failure, from the message of the
+   *     original exception; null iff {@code failureType} is null
+   */
+  public StringAnalysisCache(
+      int size,
+      @Nullable Class<? extends RuntimeException> failureType,
+      @Nullable Function<@Nullable String, ? extends RuntimeException> newFailure) {
+    if ((failureType == null) != (newFailure == null)) {
+      throw new BugInCF("failureType and newFailure must both be null or both be non-null");
+    }
+    this.cache = CollectionUtils.createLRUCache(size);
+    this.failureType = failureType;
+    this.newFailure = newFailure;
+  }
+
+  /**
+   * Returns the result of applying {@code analysis} to {@code s}, computing it only if it is not
+   * cached. Every call on a given cache must pass the same analysis.
+   *
+   * @param s a string
+   * @param analysis the analysis to apply to {@code s}
+   * @return the result of the analysis
+   */
+  @SuppressWarnings("unchecked") // every value that is not a Failure is a T
+  public T get(String s, Function<String, T> analysis) {
+    Object result;
+    synchronized (cache) {
+      result = cache.get(s);
+    }
+    if (result == null) {
+      try {
+        result = analysis.apply(s);
+      } catch (RuntimeException e) {
+        if (failureType != null && failureType.isInstance(e)) {
+          synchronized (cache) {
+            cache.put(s, new Failure(e.getMessage()));
+          }
+        }
+        throw e;
+      }
+      synchronized (cache) {
+        cache.put(s, result);
+      }
+    }
+    if (result instanceof Failure) {
+      // Throw a new exception, so that no exception object is shared between callers.
+      assert newFailure != null : "@AssumeAssertion(nullness): only cached if failureType != null";
+      throw newFailure.apply(((Failure) result).message);
+    }
+    return (T) result;
+  }
+
+  /** The cached outcome of an analysis that threw an exception of the failure type. */
+  private static class Failure {
+
+    /** The message of the exception that the analysis threw. */
+    final @Nullable String message;
+
+    /**
+     * Creates a Failure.
+     *
+     * @param message the message of the exception that the analysis threw
+     */
+    Failure(@Nullable String message) {
+      this.message = message;
+    }
+  }
+}
@@ -0,0 +1,234 @@
+package org.checkerframework.framework.util;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A thread-safe {@link BoundedCache} that discards the least recently used entries.
+ *
+ * <p>The cache is split into shards by the hash code of the key. Each shard is an access-ordered
+ * {@link LinkedHashMap} with its own lock, so threads that use different shards do not contend,
+ * and each shard discards its own least recently used entry when it is full. Small caches have a
+ * single shard, so they behave exactly like {@link
+ * org.checkerframework.javacutil.CollectionUtils#createLRUCache(int)}.
+ *
+ * <p>Null values are permitted; null keys are not.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+public class StripedLRUCache<K, V> extends AbstractMap<K, V> implements BoundedCache<K, V> {
+
+  /** The maximum number of shards. */
+  private static final int MAX_SHARDS = 16;
+
+  /** The minimum maximum size of a shard; smaller caches have fewer shards. */
+  private static final int MIN_SHARD_SIZE = 64;
+
+  /** The name of this cache. */
+  private final String name;
+
+  /** The maximum number of entries in this cache. */
+  private final int maximumSize;
+
+  /** The shards. Their number is a power of two. Each shard is its own lock. */
+  private final Shard<K, V>[] shards;
+
+  /** The number of calls to {@link #get} that found an entry. */
+  private final LongAdder hits = new LongAdder();
+
+  /** The number of calls to {@link #get} that did not find an entry. */
+  private final LongAdder misses = new LongAdder();
+
+  /** The number of entries that were discarded because their shard was full. */
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * Creates a StripedLRUCache.
+   *
+   * @param name the name of the cache
+   * @param maximumSize the maximum number of entries in the cache
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"}) // generic array creation
+  public StripedLRUCache(String name, int maximumSize) {
+    if (maximumSize < 1) {
+      throw new IllegalArgumentException("The size of cache " + name + " must be positive");
+    }
+    this.name = name;
+    this.maximumSize = maximumSize;
+    int numShards =
+        Math.min(MAX_SHARDS, Integer.highestOneBit(Math.max(1, maximumSize / MIN_SHARD_SIZE)));
+    // Round up, so that the shards can hold at least maximumSize entries.
+    int shardSize = (maximumSize + numShards - 1) / numShards;
+    this.shards = new Shard[numShards];
+    for (int i = 0; i < numShards; i++) {
+      shards[i] = new Shard<>(shardSize, evictions);
+    }
+  }
+
+  /**
+   * Returns the shard that holds the given key.
+   *
+   * @param key a key
+   * @return the shard that holds {@code key}
+   */
+  private Shard<K, V> shardFor(Object key) {
+    int h = key.hashCode();
+    h ^= h >>> 16;
+    return shards[h & (shards.length - 1)];
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public int getMaximumSize() {
+    return maximumSize;
+  }
+
+  @Override
+  public long getHits() {
+    return hits.sum();
+  }
+
+  @Override
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  @Override
+  public long getEvictions() {
+    return evictions.sum();
+  }
+
+  @Override
+  public @Nullable V get(Object key) {
+    Shard<K, V> shard = shardFor(key);
+    V value;
+    boolean found;
+    synchronized (shard) {
+      value = shard.get(key);
+      found = value != null || shard.containsKey(key);
+    }
+    if (found) {
+      hits.increment();
+    } else {
+      misses.increment();
+    }
+    return value;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    Shard<K, V> shard = shardFor(key);
+    synchronized (shard) {
+      return shard.containsKey(key);
+    }
+  }
+
+  @Override
+  public @Nullable V put(K key, V value) {
+    Shard<K, V> shard = shardFor(key);
+    synchronized (shard) {
+      return shard.put(key, value);
+    }
+  }
+
+  @Override
+  public @Nullable V putIfAbsent(K key, V value) {
+    Shard<K, V> shard = shardFor(key);
+    synchronized (shard) {
+      return shard.putIfAbsent(key, value);
+    }
+  }
+
+  @Override
+  public @Nullable V remove(Object key) {
+    Shard<K, V> shard = shardFor(key);
+    synchronized (shard) {
+      return shard.remove(key);
+    }
+  }
+
+  @Override
+  public void clear() {
+    for (Shard<K, V> shard : shards) {
+      synchronized (shard) {
+        shard.clear();
+      }
+    }
+  }
+
+  @Override
+  public int size() {
+    int size = 0;
+    for (Shard<K, V> shard : shards) {
+      synchronized (shard) {
+        size += shard.size();
+      }
+    }
+    return size;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The result is an unmodifiable snapshot of the entries. Computing it does not count as a
+   * lookup or change the order in which entries are discarded.
+   */
+  @Override
+  public Set<Map.Entry<K, V>> entrySet() {
+    Map<K, V> snapshot = new HashMap<>();
+    for (Shard<K, V> shard : shards) {
+      synchronized (shard) {
+        snapshot.putAll(shard);
+      }
+    }
+    return Collections.unmodifiableMap(snapshot).entrySet();
+  }
+
+  /**
+   * One shard of a StripedLRUCache: an access-ordered map that discards its least recently used
+   * entry when it is full. It must only be accessed while holding its lock.
+   */
+  private static class Shard<K, V> extends LinkedHashMap<K, V> {
+
+    /** The serial version UID. */
+    private static final long serialVersionUID = 20261019L;
+
+    /** The maximum number of entries in this shard. */
+    private final int maximumSize;
+
+    /** The eviction counter of the cache, which is incremented when an entry is discarded. */
+    private final LongAdder evictions;
+
+    /**
+     * Creates a Shard.
+     *
+     * @param maximumSize the maximum number of entries in the shard
+     * @param evictions the eviction counter of the cache
+     */
+    Shard(int maximumSize, LongAdder evictions) {
+      super(16, .75F, true);
+      this.maximumSize = maximumSize;
+      this.evictions = evictions;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+      if (size() > maximumSize) {
+        evictions.increment();
+        return true;
+      }
+      return false;
+    }
+  }
+}
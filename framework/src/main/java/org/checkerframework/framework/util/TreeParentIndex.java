@@ -0,0 +1,230 @@
+package org.checkerframework.framework.util;
+
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.TreeScanner;
+import java.util.Arrays;
+import org.checkerframework.checker.interning.qual.FindDistinct;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An index from every tree in a compilation unit to its parent, built in one pass over the
+ * compilation unit. The {@link TreePath} of a tree is created from the index on demand, in time
+ * proportional to the depth of the tree, and is then reused.
+ *
+ * <p>The trees are numbered in the order in which a {@link TreeScanner} visits them, so the root
+ * is number 0 and every tree has a larger number than its parent. The index is stored in parallel
+ * arrays, and trees are looked up by identity in an open-addressing hash table. If a tree appears
+ * more than once in the compilation unit, only its first occurrence is indexed, as in {@link
+ * TreePath#getPath(CompilationUnitTree, Tree)}.
+ *
+ * <p>The index does not reflect changes to the compilation unit after it is built.
+ */
+public final class TreeParentIndex {
+
+  /** The compilation unit. */
+  private final CompilationUnitTree root;
+
+  /** The trees, by number. Only the first {@link #size} elements are used. */
+  private Tree[] trees;
+
+  /** The number of the parent of each tree, or -1 for the root. Parallel to {@link #trees}. */
+  private int[] parents;
+
+  /** The number of trees in the index. */
+  private int size = 0;
+
+  /**
+   * The hash table: each element is 0 if it is empty, or one more than the number of a tree. Its
+   * length is a power of two that is at least twice {@link #size}.
+   */
+  private int[] table;
+
+  /** The paths created so far, by number. Parallel to {@link #trees}. */
+  private @Nullable TreePath @Nullable [] paths = null;
+
+  /**
+   * Builds the index of a compilation unit.
+   *
+   * @param root the compilation unit
+   */
+  public TreeParentIndex(CompilationUnitTree root) {
+    this.root = root;
+    this.trees = new Tree[1024];
+    this.parents = new int[1024];
+    this.table = new int[2048];
+    new Builder().scan(root, null);
+    this.trees = Arrays.copyOf(trees, size);
+    this.parents = Arrays.copyOf(parents, size);
+  }
+
+  /**
+   * Returns the compilation unit that this index is for.
+   *
+   * @return the compilation unit that this index is for
+   */
+  public CompilationUnitTree getRoot() {
+    return root;
+  }
+
+  /**
+   * Returns the number of trees in the index.
+   *
+   * @return the number of trees in the index
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the slot of the hash table for the given tree: either the slot that holds the tree, or
+   * the empty slot where it would be inserted.
+   *
+   * @param tree a tree
+   * @return the slot of the hash table for {@code tree}
+   */
+  @SuppressWarnings("interning:not.interned") // trees are compared by identity
+  private int slotOf(@FindDistinct Tree tree) {
+    int mask = table.length - 1;
+    // Spread the bits of the identity hash code, which are poorly distributed in the low bits.
+    int slot = (System.identityHashCode(tree) * 0x9E3779B9) >>> 7 & mask;
+    while (table[slot] != 0 && trees[table[slot] - 1] != tree) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /**
+   * Returns the number of the given tree.
+   *
+   * @param tree a tree
+   * @return the number of {@code tree}, or -1 if it is not in the compilation unit
+   */
+  public int indexOf(@FindDistinct Tree tree) {
+    return table[slotOf(tree)] - 1;
+  }
+
+  /**
+   * Returns the parent of the given tree.
+   *
+   * @param tree a tree
+   * @return the parent of {@code tree}, or null if it is the root or is not in the compilation unit
+   */
+  public @Nullable Tree getParent(Tree tree) {
+    int index = indexOf(tree);
+    if (index <= 0) {
+      return null;
+    }
+    return trees[parents[index]];
+  }
+
+  /**
+   * Returns the path to the given tree.
+   *
+   * @param tree a tree
+   * @return the path to {@code tree}, or null if it is not in the compilation unit
+   */
+  public @Nullable TreePath getPath(Tree tree) {
+    int index = indexOf(tree);
+    if (index < 0) {
+      return null;
+    }
+    return getPath(index);
+  }
+
+  /**
+   * Returns the path to the tree with the given number, creating it and the paths to its ancestors
+   * if necessary.
+   *
+   * @param index the number of a tree
+   * @return the path to the tree numbered {@code index}
+   */
+  private TreePath getPath(int index) {
+    @Nullable TreePath[] paths = this.paths;
+    if (paths == null) {
+      paths = new TreePath[size];
+      this.paths = paths;
+    }
+    TreePath result = paths[index];
+    if (result != null) {
+      return result;
+    }
+    // Collect the ancestors up to the closest one whose path has been created, then create the
+    // paths of the collected ancestors from the top down.
+    int depth = 0;
+    int[] chain = new int[16];
+    int ancestor = index;
+    while (ancestor != -1 && paths[ancestor] == null) {
+      if (depth == chain.length) {
+        chain = Arrays.copyOf(chain, depth * 2);
+      }
+      chain[depth++] = ancestor;
+      ancestor = parents[ancestor];
+    }
+    TreePath path = ancestor == -1 ? null : paths[ancestor];
+    for (int i = depth - 1; i >= 0; i--) {
+      int current = chain[i];
+      path = path == null ? new TreePath(root) : new TreePath(path, trees[current]);
+      paths[current] = path;
+    }
+    return paths[index];
+  }
+
+  /**
+   * Adds a tree to the index.
+   *
+   * @param tree a tree that is not in the index
+   * @param slot the slot of the hash table where the tree is inserted
+   * @param parent the number of the parent of the tree, or -1 for the root
+   * @return the number of the tree
+   */
+  private int add(Tree tree, int slot, int parent) {
+    if (size == trees.length) {
+      trees = Arrays.copyOf(trees, size * 2);
+      parents = Arrays.copyOf(parents, size * 2);
+    }
+    int index = size++;
+    trees[index] = tree;
+    parents[index] = parent;
+    table[slot] = index + 1;
+    if (size * 2 > table.length) {
+      rehash();
+    }
+    return index;
+  }
+
+  /** Doubles the size of the hash table. */
+  private void rehash() {
+    table = new int[table.length * 2];
+    for (int i = 0; i < size; i++) {
+      table[slotOf(trees[i])] = i + 1;
+    }
+  }
+
+  /** Adds every tree of the compilation unit to the index. */
+  private class Builder extends TreeScanner<Void, Void> {
+
+    /** The number of the parent of the trees being scanned, or -1 while scanning the root. */
+    private int parent = -1;
+
+    @Override
+    public Void scan(Tree tree, Void p) {
+      if (tree == null) {
+        return null;
+      }
+      int slot = slotOf(tree);
+      if (table[slot] != 0) {
+        // The tree appears twice; its subtrees have already been indexed.
+        return null;
+      }
+      int prev = parent;
+      parent = add(tree, slot, parent);
+      try {
+        return super.scan(tree, p);
+      } finally {
+        parent = prev;
+      }
+    }
+  }
+}
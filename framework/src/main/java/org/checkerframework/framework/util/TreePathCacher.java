@@ -3,28 +3,31 @@ package org.checkerframework.framework.util;
 import com.sun.source.tree.CompilationUnitTree;
 import com.sun.source.tree.Tree;
 import com.sun.source.util.TreePath;
-import com.sun.source.util.TreeScanner;
 import java.util.HashMap;
 import java.util.Map;
 import org.checkerframework.checker.interning.qual.FindDistinct;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
- * TreePathCacher is a TreeScanner that creates and caches a TreePath for a target Tree.
+ * TreePathCacher creates and caches the TreePath for a target Tree.
  *
- * <p>This class replicates some logic from TreePath.getPath but also adds caching to all
- * intermediate TreePaths that are generated. The intermediate TreePaths are reused when other
- * targets have overlapping paths.
+ * <p>The first lookup in a compilation unit builds a {@link TreeParentIndex} of the compilation
+ * unit, in one pass over it. Every later lookup of a tree in the compilation unit takes time
+ * proportional to the depth of the tree, and the intermediate TreePaths are reused when other
+ * targets have overlapping paths. The compilation unit is not scanned again until {@link #clear}
+ * is called or a different compilation unit is searched.
  */
-public class TreePathCacher extends TreeScanner<TreePath, Tree> {
-
-  private final Map<Tree, TreePath> foundPaths = new HashMap<>(32);
+public class TreePathCacher {
 
   /**
-   * The TreePath of the previous tree scanned. It is always set back to null after a scan has
-   * completed.
+   * Paths that were added by {@link #addPath}, or that were found by scanning the compilation unit
+   * because the tree is not in the index. A null value means that the tree is not in the
+   * compilation unit.
    */
-  private TreePath path;
+  private final Map<Tree, @Nullable TreePath> foundPaths = new HashMap<>(32);
+
+  /** The index of the compilation unit that was searched last, or null if there is none. */
+  private @Nullable TreeParentIndex index = null;
 
   /**
    * Returns true if the tree is cached.
@@ -33,7 +36,7 @@ public class TreePathCacher extends TreeScanner<TreePath, Tree> {
    * @return true if the tree is cached
    */
   public boolean isCached(Tree target) {
-    return foundPaths.containsKey(target);
+    return foundPaths.containsKey(target) || (index != null && index.indexOf(target) >= 0);
   }
 
   /**
@@ -43,6 +46,12 @@ public class TreePathCacher extends TreeScanner<TreePath, Tree> {
    * @param path the path to cache
    */
   public void addPath(Tree target, TreePath path) {
+    if (index != null && index.getRoot() == path.getCompilationUnit()) {
+      if (index.indexOf(target) >= 0) {
+        // The index already knows this path.
+        return;
+      }
+    }
     foundPaths.put(target, path);
   }
 
@@ -55,71 +64,30 @@ public class TreePathCacher extends TreeScanner<TreePath, Tree> {
    *     root
    */
   public @Nullable TreePath getPath(CompilationUnitTree root, @FindDistinct Tree target) {
-    // This method uses try/catch and the private {@code Result} exception for control flow to
-    // stop the superclass from scanning other subtrees when target is found.
-
     if (foundPaths.containsKey(target)) {
       return foundPaths.get(target);
     }
 
-    TreePath path = new TreePath(root);
-    if (path.getLeaf() == target) {
-      return path;
+    TreeParentIndex index = this.index;
+    if (index == null || index.getRoot() != root) {
+      index = new TreeParentIndex(root);
+      this.index = index;
     }
-
-    try {
-      this.scan(path, target);
-    } catch (Result result) {
-      return result.path;
+    TreePath path = index.getPath(target);
+    if (path != null) {
+      return path;
     }
-    // If a path wasn't found, cache null so the whole compilation unit isn't searched again.
-    foundPaths.put(target, null);
-    return null;
-  }
-
-  /** The result of {@link #getPath}. This exception is used for control flow. */
-  private static class Result extends Error {
-    /** Unique identifier for serialization. */
-    private static final long serialVersionUID = 4948452207518392627L;
 
-    /** The result of {@link #getPath}. */
-    @SuppressWarnings("serial") // I do not intend to serialize Result objects
-    private final TreePath path;
-
-    /**
-     * Create a {@link #getPath} result.
-     *
-     * @param path the result of {@link #getPath}
-     */
-    Result(TreePath path) {
-      this.path = path;
-    }
+    // The target was not in the compilation unit when the index was built.  Search the current
+    // compilation unit once, and cache the result (possibly null) so it isn't searched again.
+    path = TreePath.getPath(root, target);
+    foundPaths.put(target, path);
+    return path;
   }
 
+  /** Discards the cached paths and the index. */
   public void clear() {
     foundPaths.clear();
-  }
-
-  /** Scan a single node. The current path is updated for the duration of the scan. */
-  @SuppressWarnings("interning:not.interned") // assertion
-  @Override
-  public TreePath scan(Tree tree, Tree target) {
-    TreePath prev = path;
-    if (tree != null && foundPaths.get(tree) == null) {
-      TreePath current = new TreePath(path, tree);
-      foundPaths.put(tree, current);
-      this.path = current;
-    } else {
-      this.path = foundPaths.get(tree);
-    }
-
-    if (tree == target) {
-      throw new Result(path);
-    }
-    try {
-      return super.scan(tree, target);
-    } finally {
-      this.path = prev;
-    }
+    index = null;
   }
 }
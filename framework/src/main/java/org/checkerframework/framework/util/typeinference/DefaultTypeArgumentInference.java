@@ -14,6 +14,7 @@ import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Queue;
 import java.util.Set;
 import javax.lang.model.element.AnnotationMirror;
@@ -23,6 +24,7 @@ import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeVariable;
 import javax.lang.model.util.Types;
 import javax.tools.Diagnostic;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.framework.source.SourceChecker;
 import org.checkerframework.framework.type.AnnotatedTypeFactory;
 import org.checkerframework.framework.type.AnnotatedTypeMirror;
@@ -57,6 +59,7 @@ import org.checkerframework.javacutil.Pair;
 import org.checkerframework.javacutil.TreePathUtil;
 import org.checkerframework.javacutil.TypeAnnotationUtils;
 import org.checkerframework.javacutil.TypesUtils;
+import org.plumelib.util.CollectionsPlume;
 import org.plumelib.util.StringsPlume;
 
 /**
@@ -106,8 +109,17 @@ public class DefaultTypeArgumentInference implements TypeArgumentInference {
 
   private final boolean showInferenceSteps;
 
+  /**
+   * A cache of inferred type arguments, before they are corrected against the types that javac
+   * inferred at the invocation; see {@link InferenceKey}. Null if the type factory does not cache.
+   * The values are never mutated and never returned; callers get copies.
+   */
+  private final @Nullable Map<InferenceKey, Map<TypeVariable, AnnotatedTypeMirror>> inferenceCache;
+
   public DefaultTypeArgumentInference(AnnotatedTypeFactory typeFactory) {
     this.showInferenceSteps = typeFactory.getChecker().hasOption("showInferenceSteps");
+    this.inferenceCache =
+        typeFactory.shouldCache ? typeFactory.createCache("typeArgumentInference") : null;
   }
 
   @Override
@@ -157,6 +169,22 @@ public class DefaultTypeArgumentInference implements TypeArgumentInference {
     if (assignedTo == null) {
       assignedTo = typeFactory.getDummyAssignedTo(expressionTree);
     }
+
+    InferenceKey key = null;
+    if (inferenceCache != null) {
+      key = new InferenceKey(methodElem, methodType, argTypes, assignedTo);
+      Map<TypeVariable, AnnotatedTypeMirror> cached = inferenceCache.get(key);
+      if (cached != null) {
+        Map<TypeVariable, AnnotatedTypeMirror> inferredArgs = copyInferredArgs(cached);
+        if (showInferenceSteps) {
+          checker.message(Diagnostic.Kind.NOTE, "  cached results: %s", inferredArgs);
+        }
+        return correctResults(typeFactory, expressionTree, methodElem, inferredArgs);
+      }
+      // Inference might side-effect the types in the key, so store a copy.
+      key = key.deepCopy();
+    }
+
     Map<TypeVariable, AnnotatedTypeMirror> inferredArgs;
     try {
       inferredArgs =
@@ -182,6 +210,26 @@ public class DefaultTypeArgumentInference implements TypeArgumentInference {
     if (showInferenceSteps) {
       checker.message(Diagnostic.Kind.NOTE, "  results: %s", inferredArgs);
     }
+    if (inferenceCache != null && key != null) {
+      inferenceCache.put(key, copyInferredArgs(inferredArgs));
+    }
+    return correctResults(typeFactory, expressionTree, methodElem, inferredArgs);
+  }
+
+  /**
+   * Corrects the inferred type arguments against the types that javac inferred at the invocation.
+   *
+   * @param typeFactory the type factory
+   * @param expressionTree the method invocation or constructor invocation
+   * @param methodElem the invoked method
+   * @param inferredArgs the inferred type arguments; side-effected by this method
+   * @return the corrected type arguments
+   */
+  private Map<TypeVariable, AnnotatedTypeMirror> correctResults(
+      AnnotatedTypeFactory typeFactory,
+      ExpressionTree expressionTree,
+      ExecutableElement methodElem,
+      Map<TypeVariable, AnnotatedTypeMirror> inferredArgs) {
     try {
       return TypeArgInferenceUtil.correctResults(
           inferredArgs, expressionTree, (ExecutableType) methodElem.asType(), typeFactory);
@@ -191,6 +239,115 @@ public class DefaultTypeArgumentInference implements TypeArgumentInference {
     }
   }
 
+  /**
+   * Returns a deep copy of the given inferred type arguments.
+   *
+   * @param inferredArgs inferred type arguments
+   * @return a deep copy of {@code inferredArgs}
+   */
+  private static Map<TypeVariable, AnnotatedTypeMirror> copyInferredArgs(
+      Map<TypeVariable, AnnotatedTypeMirror> inferredArgs) {
+    Map<TypeVariable, AnnotatedTypeMirror> result =
+        new LinkedHashMap<>(CollectionsPlume.mapCapacity(inferredArgs));
+    for (Map.Entry<TypeVariable, AnnotatedTypeMirror> entry : inferredArgs.entrySet()) {
+      result.put(entry.getKey(), entry.getValue().deepCopy());
+    }
+    return result;
+  }
+
+  /**
+   * The inputs to type argument inference that the inferred type arguments depend on, before they
+   * are corrected against the types that javac inferred at the invocation. Two invocations of the
+   * same method, with the same annotated method type, argument types, and assignment context type,
+   * have the same inferred type arguments. This happens when the type of an invocation is computed
+   * more than once, for example during dataflow analysis and again when the invocation is
+   * type-checked.
+   *
+   * <p>Types are compared with {@link AnnotatedTypeMirror#equals}, which compares annotations
+   * structurally and underlying types by identity. The hash code is computed once, when the key is
+   * created, so the types must not be mutated while the key is in use.
+   */
+  private static final class InferenceKey {
+
+    /** The invoked method. */
+    private final ExecutableElement methodElem;
+
+    /** The annotated type of the invoked method, as a member of the receiver type. */
+    private final AnnotatedExecutableType methodType;
+
+    /** The annotated types of the arguments. */
+    private final List<AnnotatedTypeMirror> argTypes;
+
+    /** The annotated type of the assignment context, or null if there is none. */
+    private final @Nullable AnnotatedTypeMirror assignedTo;
+
+    /** The hash code of this key. */
+    private final int hashCode;
+
+    /**
+     * Creates an InferenceKey.
+     *
+     * @param methodElem the invoked method
+     * @param methodType the annotated type of the invoked method
+     * @param argTypes the annotated types of the arguments
+     * @param assignedTo the annotated type of the assignment context, or null
+     */
+    InferenceKey(
+        ExecutableElement methodElem,
+        AnnotatedExecutableType methodType,
+        List<AnnotatedTypeMirror> argTypes,
+        @Nullable AnnotatedTypeMirror assignedTo) {
+      this.methodElem = methodElem;
+      this.methodType = methodType;
+      this.argTypes = argTypes;
+      this.assignedTo = assignedTo;
+      this.hashCode = Objects.hash(methodElem, methodType, argTypes, assignedTo);
+    }
+
+    /**
+     * Returns a copy of this key whose types are deep copies of the types in this key.
+     *
+     * @return a copy of this key that does not share types with this key
+     */
+    InferenceKey deepCopy() {
+      return new InferenceKey(
+          methodElem,
+          methodType.deepCopy(),
+          CollectionsPlume.mapList(AnnotatedTypeMirror::deepCopy, argTypes),
+          assignedTo == null ? null : assignedTo.deepCopy());
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof InferenceKey)) {
+        return false;
+      }
+      InferenceKey other = (InferenceKey) o;
+      if (hashCode != other.hashCode
+          || !methodElem.equals(other.methodElem)
+          || argTypes.size() != other.argTypes.size()) {
+        return false;
+      }
+      try {
+        return methodType.equals(other.methodType)
+            && argTypes.equals(other.argTypes)
+            && Objects.equals(assignedTo, other.assignedTo);
+      } catch (UnsupportedOperationException e) {
+        // EqualityAtmComparer throws this exception if corresponding component types are of
+        // different kinds.
+        return false;
+      }
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
   /**
    * If one of the inferredArgs are NullType, then re-run inference ignoring null method arguments.
    * Then lub the result of the second inference with the NullType and put the new result back into
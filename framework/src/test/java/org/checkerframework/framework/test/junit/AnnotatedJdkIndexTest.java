@@ -0,0 +1,148 @@
+package org.checkerframework.framework.test.junit;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.checkerframework.framework.stub.AnnotatedJdkIndex;
+import org.checkerframework.framework.stub.AnnotationFileElementTypes;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests that looking up JDK stub files in an {@link AnnotatedJdkIndex} finds the same files as
+ * walking the entries of a jar that contains the annotated JDK.
+ */
+public class AnnotatedJdkIndexTest {
+
+  /** The stub files of a small annotated JDK, relative to the annotated-jdk directory. */
+  private static final List<String> STUB_FILES =
+      Arrays.asList(
+          "src/java.base/share/classes/module-info.java",
+          "src/java.base/share/classes/java/lang/String.java",
+          "src/java.base/share/classes/java/lang/package-info.java",
+          "src/java.base/share/classes/java/util/Map.java",
+          "src/java.base/share/classes/java/util/package-info.java",
+          "src/java.base/share/classes/java/util/concurrent/atomic/AtomicInteger.java",
+          "src/java.sql/share/classes/java/sql/Connection.java");
+
+  @Test
+  public void indexMatchesJarEntries() throws IOException {
+    Path tempDir = Files.createTempDirectory("AnnotatedJdkIndexTest");
+    try {
+      Path annotatedJdk = tempDir.resolve("annotated-jdk");
+      for (String stubFile : STUB_FILES) {
+        Path path = annotatedJdk.resolve(stubFile);
+        Files.createDirectories(path.getParent());
+        String className = path.getFileName().toString().replace(".java", "");
+        String contents =
+            className.equals("Map")
+                ? "interface Map<K, V> { interface Entry<K, V> {} }"
+                : "class " + className + " {}";
+        Files.write(path, contents.getBytes(StandardCharsets.UTF_8));
+      }
+      AnnotatedJdkIndex.write(annotatedJdk);
+      Path jar = tempDir.resolve("checker.jar");
+      writeJar(tempDir, annotatedJdk, jar);
+
+      try (JarFile jarFile = new JarFile(jar.toFile())) {
+        // The names that prepJdkFromJar finds by walking the entries of the jar.
+        Map<String, String> classes = new TreeMap<>();
+        List<String> packageInfos = new ArrayList<>();
+        for (Enumeration<JarEntry> e = jarFile.entries(); e.hasMoreElements(); ) {
+          JarEntry jarEntry = e.nextElement();
+          String className =
+              jarEntry.isDirectory()
+                  ? null
+                  : AnnotationFileElementTypes.jdkJarEntryClassName(jarEntry.getName());
+          if (className == null) {
+            continue;
+          } else if (className.endsWith("package-info")) {
+            packageInfos.add(jarEntry.getName());
+          } else {
+            classes.put(className, jarEntry.getName());
+          }
+        }
+        Assert.assertEquals(
+            Arrays.asList(
+                "java.lang.String",
+                "java.sql.Connection",
+                "java.util.Map",
+                "java.util.concurrent.atomic.AtomicInteger"),
+            new ArrayList<>(classes.keySet()));
+
+        AnnotatedJdkIndex index;
+        try (InputStream in =
+            jarFile.getInputStream(
+                jarFile.getEntry("annotated-jdk/" + AnnotatedJdkIndex.INDEX_FILE_NAME))) {
+          index = AnnotatedJdkIndex.read(in);
+        }
+        Assert.assertNotNull(index);
+        Assert.assertEquals(classes.size(), index.size());
+        for (Map.Entry<String, String> entry : classes.entrySet()) {
+          int position = index.indexOf(entry.getKey());
+          Assert.assertTrue(entry.getKey(), position >= 0);
+          Assert.assertEquals(entry.getValue(), index.getResourceName(position));
+        }
+        // A nested class is looked up by the name of its outermost class, so it has no entry.
+        Assert.assertTrue(index.indexOf("java.util.Map.Entry") < 0);
+        Assert.assertFalse(classes.containsKey("java.util.Map.Entry"));
+        Assert.assertTrue(index.indexOf("java.lang.Integer") < 0);
+
+        Collections.sort(packageInfos);
+        List<String> indexPackageInfos = new ArrayList<>(index.getPackageInfoResourceNames());
+        Collections.sort(indexPackageInfos);
+        Assert.assertEquals(
+            Arrays.asList(
+                "annotated-jdk/src/java.base/share/classes/java/lang/package-info.java",
+                "annotated-jdk/src/java.base/share/classes/java/util/package-info.java"),
+            packageInfos);
+        Assert.assertEquals(packageInfos, indexPackageInfos);
+      }
+    } finally {
+      try (Stream<Path> walk = Files.walk(tempDir)) {
+        for (Path path : walk.sorted(Collections.reverseOrder()).collect(Collectors.toList())) {
+          Files.delete(path);
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes a jar that contains the files in {@code dir}, with the same names as in checker.jar.
+   *
+   * @param root the directory that contains {@code dir}; the names of the entries are relative to
+   *     it
+   * @param dir the directory whose files to put in the jar
+   * @param jar the jar file to write
+   * @throws IOException if the files cannot be read or the jar cannot be written
+   */
+  private static void writeJar(Path root, Path dir, Path jar) throws IOException {
+    List<Path> files;
+    try (Stream<Path> walk = Files.walk(dir)) {
+      files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+    }
+    try (OutputStream out = Files.newOutputStream(jar);
+        JarOutputStream jarOut = new JarOutputStream(out)) {
+      for (Path file : files) {
+        jarOut.putNextEntry(new JarEntry(root.relativize(file).toString().replace('\\', '/')));
+        jarOut.write(Files.readAllBytes(file));
+        jarOut.closeEntry();
+      }
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package org.checkerframework.framework.test.junit;
+
+import org.checkerframework.framework.stub.AnnotationFileBodyEraser;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AnnotationFileBodyEraserTest {
+
+  /**
+   * Asserts that erasing the bodies of {@code source} yields {@code expected}.
+   *
+   * @param source the text of an annotation file
+   * @param expected the expected text after erasing
+   */
+  private static void assertErased(String source, String expected) {
+    Assert.assertEquals(expected, AnnotationFileBodyEraser.eraseBodies(source));
+  }
+
+  @Test
+  public void erasesMethodBodies() {
+    assertErased(
+        "class C {\n  void m() { int x = 1; }\n  C() {\n    this(\"}\");\n  }\n}",
+        "class C {\n  void m() {            }\n  C() {\n              \n  }\n}");
+  }
+
+  @Test
+  public void erasesInitializers() {
+    assertErased(
+        "class C { static { x(); } { y('}'); } int[] f = {1}, g = {2}; }",
+        "class C { static {      } {         } int[] f = { }, g = { }; }");
+  }
+
+  @Test
+  public void keepsNestedTypes() {
+    assertErased(
+        "class C { record R(int x) { void m() { } } enum E { A { }, B; } interface I { } }",
+        "class C { record R(int x) { void m() { } } enum E { A { }, B; } interface I { } }");
+    assertErased(
+        "class C { void record() { x(); } Class<?> k = C.class; void n() { y(); } }",
+        "class C { void record() {      } Class<?> k = C.class; void n() {      } }");
+  }
+
+  @Test
+  public void keepsAnnotations() {
+    assertErased(
+        "@A({1, 2}) class C { @interface B { int[] v() default {1}; } void m(@A({3}) int p) {} }",
+        "@A({1, 2}) class C { @interface B { int[] v() default {1}; } void m(@A({3}) int p) {} }");
+  }
+
+  @Test
+  public void ignoresBracesInCommentsAndLiterals() {
+    assertErased(
+        "class C { /* { */ // }\n String s() { return \"\"\"\n }\"\"\"; } }",
+        "class C { /* { */ // }\n String s() {           \n       } }");
+  }
+
+  @Test
+  public void keepsUnbalancedText() {
+    assertErased("class C { void m() { }", "class C { void m() { }");
+    assertErased("class C { } }", "class C { } }");
+  }
+}
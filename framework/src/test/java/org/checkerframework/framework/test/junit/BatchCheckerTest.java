@@ -0,0 +1,70 @@
+package org.checkerframework.framework.test.junit;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import org.checkerframework.common.value.ValueChecker;
+import org.checkerframework.framework.util.BatchChecker;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BatchCheckerTest {
+
+  /** Returns a BatchChecker that runs the Value Checker. */
+  private static BatchChecker newBatchChecker() {
+    return new BatchChecker(
+        ValueChecker.class,
+        Arrays.asList(System.getProperty("java.class.path").split(File.pathSeparator)),
+        Arrays.asList("-Anomsgtext", "-ApermitMissingJdk"));
+  }
+
+  @Test
+  public void checksEachSourceIndependently() throws Exception {
+    Map<String, String> sources = new LinkedHashMap<>();
+    sources.put(
+        "Good.java",
+        "import org.checkerframework.common.value.qual.IntVal;\n"
+            + "class Good { @IntVal(1) int x = 1; }\n");
+    sources.put(
+        "Bad.java",
+        "import org.checkerframework.common.value.qual.IntVal;\n"
+            + "class Bad { @IntVal(1) int x = 2; }\n");
+    sources.put(
+        "AlsoGood.java",
+        "import org.checkerframework.common.value.qual.IntVal;\n"
+            + "class AlsoGood { @IntVal(2) int x = 2; }\n");
+
+    Map<String, List<Diagnostic<? extends JavaFileObject>>> results;
+    try (BatchChecker batch = newBatchChecker()) {
+      results = batch.checkAll(sources);
+    }
+
+    Assert.assertEquals(
+        Arrays.asList("Good.java", "Bad.java", "AlsoGood.java"),
+        Arrays.asList(results.keySet().toArray()));
+    Assert.assertTrue(results.get("Good.java").toString(), results.get("Good.java").isEmpty());
+    Assert.assertTrue(
+        results.get("AlsoGood.java").toString(), results.get("AlsoGood.java").isEmpty());
+
+    List<Diagnostic<? extends JavaFileObject>> bad = results.get("Bad.java");
+    Assert.assertEquals(bad.toString(), 1, bad.size());
+    Assert.assertEquals(Diagnostic.Kind.ERROR, bad.get(0).getKind());
+    Assert.assertEquals(2, bad.get(0).getLineNumber());
+    String message = bad.get(0).getMessage(null);
+    Assert.assertTrue(message, message.contains("(assignment)"));
+  }
+
+  @Test
+  public void reportsJavacErrors() throws Exception {
+    try (BatchChecker batch = newBatchChecker()) {
+      List<Diagnostic<? extends JavaFileObject>> diagnostics =
+          batch.check("Broken.java", "class Broken { int x = ; }\n");
+      Assert.assertFalse(diagnostics.isEmpty());
+      Assert.assertEquals(Diagnostic.Kind.ERROR, diagnostics.get(0).getKind());
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package org.checkerframework.framework.test.junit;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.checkerframework.framework.test.CheckerFrameworkPerDirectoryTest;
+import org.checkerframework.framework.testchecker.aggregate.AggregateOfCompoundChecker;
+import org.junit.Assert;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Tests the {@code -AdiagnosticsJsonl} command-line argument with an aggregate checker whose
+ * subcheckers, including the subcheckers of a compound checker, all issue errors.
+ */
+public class DiagnosticsJsonlTest extends CheckerFrameworkPerDirectoryTest {
+
+  /** The file to which the diagnostics are written. */
+  private final Path jsonlFile;
+
+  /**
+   * Create a DiagnosticsJsonlTest.
+   *
+   * @param testFiles the files containing test code, which will be type-checked
+   */
+  public DiagnosticsJsonlTest(List<File> testFiles) {
+    super(testFiles, AggregateOfCompoundChecker.class, "diagnostics-jsonl");
+    try {
+      jsonlFile = Files.createTempFile("diagnostics", ".jsonl");
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    checkerOptions.add("-AdiagnosticsJsonl=" + jsonlFile);
+  }
+
+  @Parameters
+  public static String[] getTestDirs() {
+    return new String[] {"diagnostics-jsonl"};
+  }
+
+  @Override
+  public void run() {
+    super.run();
+    List<String> lines;
+    try {
+      lines = Files.readAllLines(jsonlFile, StandardCharsets.UTF_8);
+      Files.delete(jsonlFile);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    // One line per expected error in the test file, from every subchecker.  The tests pass
+    // -Anomsgtext, so each message is just the message key in parentheses.
+    List<String> messages = new ArrayList<>();
+    for (String line : lines) {
+      Assert.assertTrue(line, line.startsWith("{\"file\":\"") && line.endsWith("\"}"));
+      Assert.assertTrue(line, line.contains("MultiError.java\",\"line\":"));
+      String kindAndMessage = ",\"kind\":\"ERROR\",\"message\":\"";
+      int messageStart = line.indexOf(kindAndMessage);
+      Assert.assertTrue(line, messageStart != -1);
+      messages.add(line.substring(messageStart + kindAndMessage.length(), line.length() - 2));
+    }
+    Collections.sort(messages);
+    Assert.assertEquals(
+        Arrays.asList("(assignment)", "(invalid.methodval)", "(unique.location.forbidden)"),
+        messages);
+  }
+}
@@ -0,0 +1,23 @@
+package org.checkerframework.framework.test.junit;
+
+import java.io.File;
+import java.util.List;
+import org.checkerframework.framework.test.CheckerFrameworkPerDirectoryTest;
+import org.checkerframework.framework.testchecker.typevarbounds.TypeVarBoundsChecker;
+import org.junit.runners.Parameterized.Parameters;
+
+/** Tests the bounds of recursive type variables, which are built for each type variable. */
+public class TypeVarBoundsDoNotCacheTest extends CheckerFrameworkPerDirectoryTest {
+
+  /**
+   * @param testFiles the files containing test code, which will be type-checked
+   */
+  public TypeVarBoundsDoNotCacheTest(List<File> testFiles) {
+    super(testFiles, TypeVarBoundsChecker.class, "typevarbounds", "-AatfDoNotCache");
+  }
+
+  @Parameters
+  public static String[] getTestDirs() {
+    return new String[] {"typevarbounds"};
+  }
+}
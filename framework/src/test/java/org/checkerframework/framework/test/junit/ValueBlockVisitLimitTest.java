@@ -0,0 +1,26 @@
+package org.checkerframework.framework.test.junit;
+
+import java.io.File;
+import java.util.List;
+import org.checkerframework.framework.test.CheckerFrameworkPerDirectoryTest;
+import org.junit.runners.Parameterized.Parameters;
+
+/** Tests the constant value propagation type system with {@code -AdataflowBlockVisitLimit}. */
+public class ValueBlockVisitLimitTest extends CheckerFrameworkPerDirectoryTest {
+
+  /**
+   * @param testFiles the files containing test code, which will be type-checked
+   */
+  public ValueBlockVisitLimitTest(List<File> testFiles) {
+    super(
+        testFiles,
+        org.checkerframework.common.value.ValueChecker.class,
+        "value",
+        "-AdataflowBlockVisitLimit=1");
+  }
+
+  @Parameters
+  public static String[] getTestDirs() {
+    return new String[] {"all-systems", "value-block-visit-limit"};
+  }
+}
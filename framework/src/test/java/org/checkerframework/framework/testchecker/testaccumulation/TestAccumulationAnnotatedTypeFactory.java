@@ -1,6 +1,11 @@
 package org.checkerframework.framework.testchecker.testaccumulation;
 
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.expr.BinaryExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.UnaryExpr;
 import com.sun.source.tree.MethodInvocationTree;
+import java.util.List;
 import javax.lang.model.element.AnnotationMirror;
 import org.checkerframework.common.accumulation.AccumulationAnnotatedTypeFactory;
 import org.checkerframework.common.basetype.BaseTypeChecker;
@@ -10,6 +15,7 @@ import org.checkerframework.framework.testchecker.testaccumulation.qual.TestAccu
 import org.checkerframework.framework.type.AnnotatedTypeMirror;
 import org.checkerframework.framework.type.treeannotator.ListTreeAnnotator;
 import org.checkerframework.framework.type.treeannotator.TreeAnnotator;
+import org.checkerframework.javacutil.BugInCF;
 import org.checkerframework.javacutil.TreeUtils;
 
 /**
@@ -31,6 +37,57 @@ public class TestAccumulationAnnotatedTypeFactory extends AccumulationAnnotatedT
     this.postInit();
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Also evaluates {@code pred} by walking its syntax tree, which is how predicates were
+   * evaluated before they were compiled, and crashes if the two results differ.
+   */
+  @Override
+  protected boolean evaluatePredicate(AnnotationMirror subAnno, String pred) {
+    boolean result = super.evaluatePredicate(subAnno, pred);
+    List<String> trueVariables = getAccumulatedValues(subAnno);
+    boolean expected =
+        evaluateBooleanExpression(StaticJavaParser.parseExpression(pred), trueVariables);
+    if (result != expected) {
+      throw new BugInCF(
+          "predicate %s with true variables %s evaluated to %s, but should be %s",
+          pred, trueVariables, result, expected);
+    }
+    return result;
+  }
+
+  /**
+   * Evaluates a boolean expression, in JavaParser format, that contains only and, or,
+   * parentheses, logical complement, and name nodes, by walking its syntax tree.
+   *
+   * @param expression a JavaParser boolean expression
+   * @param trueVariables the names that are true; all other names are false
+   * @return the value of {@code expression}
+   */
+  private static boolean evaluateBooleanExpression(
+      Expression expression, List<String> trueVariables) {
+    if (expression.isNameExpr()) {
+      return trueVariables.contains(expression.asNameExpr().getNameAsString());
+    } else if (expression.isBinaryExpr()) {
+      BinaryExpr binary = expression.asBinaryExpr();
+      if (binary.getOperator() == BinaryExpr.Operator.OR) {
+        return evaluateBooleanExpression(binary.getLeft(), trueVariables)
+            || evaluateBooleanExpression(binary.getRight(), trueVariables);
+      } else if (binary.getOperator() == BinaryExpr.Operator.AND) {
+        return evaluateBooleanExpression(binary.getLeft(), trueVariables)
+            && evaluateBooleanExpression(binary.getRight(), trueVariables);
+      }
+    } else if (expression.isEnclosedExpr()) {
+      return evaluateBooleanExpression(expression.asEnclosedExpr().getInner(), trueVariables);
+    } else if (expression.isUnaryExpr()) {
+      if (expression.asUnaryExpr().getOperator() == UnaryExpr.Operator.LOGICAL_COMPLEMENT) {
+        return !evaluateBooleanExpression(expression.asUnaryExpr().getExpression(), trueVariables);
+      }
+    }
+    throw new BugInCF("unexpected expression in a valid predicate: " + expression);
+  }
+
   @Override
   protected TreeAnnotator createTreeAnnotator() {
     return new ListTreeAnnotator(
@@ -0,0 +1,29 @@
+package org.checkerframework.framework.testchecker.typevarbounds;
+
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import org.checkerframework.common.basetype.BaseAnnotatedTypeFactory;
+import org.checkerframework.common.basetype.BaseTypeChecker;
+import org.checkerframework.framework.testchecker.typevarbounds.quals.TypeVarBoundsBottom;
+import org.checkerframework.framework.testchecker.typevarbounds.quals.TypeVarBoundsTop;
+
+/** The type factory of the TypeVarBounds type system. */
+public class TypeVarBoundsAnnotatedTypeFactory extends BaseAnnotatedTypeFactory {
+
+  /**
+   * Creates a TypeVarBoundsAnnotatedTypeFactory.
+   *
+   * @param checker the checker
+   */
+  public TypeVarBoundsAnnotatedTypeFactory(BaseTypeChecker checker) {
+    super(checker);
+    this.postInit();
+  }
+
+  @Override
+  protected Set<Class<? extends Annotation>> createSupportedTypeQualifiers() {
+    return new HashSet<>(Arrays.asList(TypeVarBoundsTop.class, TypeVarBoundsBottom.class));
+  }
+}
@@ -0,0 +1,9 @@
+package org.checkerframework.framework.testchecker.typevarbounds;
+
+import org.checkerframework.common.basetype.BaseTypeChecker;
+
+/**
+ * A checker that checks the structure of the bounds of recursive type variables, such as {@code T
+ * extends Comparable<T>}. See {@link TypeVarBoundsVisitor}.
+ */
+public class TypeVarBoundsChecker extends BaseTypeChecker {}
@@ -0,0 +1,144 @@
+package org.checkerframework.framework.testchecker.typevarbounds;
+
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.TypeParameterTree;
+import com.sun.source.tree.VariableTree;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.type.TypeKind;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.common.basetype.BaseTypeChecker;
+import org.checkerframework.common.basetype.BaseTypeVisitor;
+import org.checkerframework.framework.testchecker.typevarbounds.quals.TypeVarBoundsBottom;
+import org.checkerframework.framework.type.AnnotatedTypeMirror;
+import org.checkerframework.framework.type.AnnotatedTypeMirror.AnnotatedDeclaredType;
+import org.checkerframework.framework.type.AnnotatedTypeMirror.AnnotatedTypeVariable;
+import org.checkerframework.javacutil.AnnotationBuilder;
+
+/**
+ * Checks the bounds of every type parameter and of the type of every variable whose type is a
+ * recursive type variable, such as {@code T extends Comparable<T>}. The recursive use of {@code T}
+ * in its own bound must be a use of {@code T} that is distinct from the outer type variable, that
+ * is its own recursive use, and that does not have the primary annotations of the outer type
+ * variable. Separately built types of the same type variable must not share their bounds.
+ *
+ * <p>Reports a warning for each recursive use that it checks, and an error, with a message key that
+ * names the violated property, for each violation. The bounds are built once for each type variable
+ * and then copied, unless {@code -AatfDoNotCache} is passed, so running the tests with and without
+ * that option checks that the copied bounds have the same structure as the built ones.
+ */
+public class TypeVarBoundsVisitor extends BaseTypeVisitor<TypeVarBoundsAnnotatedTypeFactory> {
+
+  /** The bottom qualifier. */
+  private final AnnotationMirror BOTTOM;
+
+  /**
+   * Creates a TypeVarBoundsVisitor.
+   *
+   * @param checker the checker
+   */
+  public TypeVarBoundsVisitor(BaseTypeChecker checker) {
+    super(checker);
+    BOTTOM = AnnotationBuilder.fromClass(elements, TypeVarBoundsBottom.class);
+  }
+
+  @Override
+  public Void visitTypeParameter(TypeParameterTree tree, Void p) {
+    AnnotatedTypeMirror type = atypeFactory.getAnnotatedTypeFromTypeTree(tree);
+    if (type.getKind() == TypeKind.TYPEVAR) {
+      checkRecursiveUse((AnnotatedTypeVariable) type, tree);
+    }
+    return super.visitTypeParameter(tree, p);
+  }
+
+  @Override
+  public Void visitVariable(VariableTree tree, Void p) {
+    AnnotatedTypeMirror type = atypeFactory.getAnnotatedType(tree);
+    if (type.getKind() == TypeKind.TYPEVAR) {
+      checkRecursiveUse((AnnotatedTypeVariable) type, tree);
+    }
+    return super.visitVariable(tree, p);
+  }
+
+  /**
+   * Checks the recursive use of {@code typeVar} in its upper bound, if any.
+   *
+   * @param typeVar a type variable
+   * @param tree the tree at which to report errors
+   */
+  private void checkRecursiveUse(AnnotatedTypeVariable typeVar, Tree tree) {
+    AnnotatedTypeVariable recursiveUse = getRecursiveUse(typeVar);
+    if (recursiveUse == null) {
+      return;
+    }
+    // Shows in the expected diagnostics that the recursive use was found and checked.
+    checker.reportWarning(tree, "typevarbounds.recursive.use.checked", typeVar);
+    if (recursiveUse == typeVar) {
+      checker.reportError(tree, "typevarbounds.recursive.use.is.outer", typeVar);
+    }
+    if (recursiveUse.isDeclaration()) {
+      checker.reportError(tree, "typevarbounds.recursive.use.is.declaration", typeVar);
+    }
+    if (getRecursiveUse(recursiveUse) != recursiveUse) {
+      checker.reportError(tree, "typevarbounds.recursive.use.not.cyclic", typeVar);
+    }
+    if (typeVar.hasAnnotation(BOTTOM) && recursiveUse.hasAnnotation(BOTTOM)) {
+      checker.reportError(tree, "typevarbounds.recursive.use.annotated", typeVar);
+    }
+
+    AnnotatedTypeVariable first = createTypeVariable(typeVar);
+    AnnotatedTypeVariable firstRecursiveUse = getRecursiveUse(first);
+    if (first.isDeclaration() != typeVar.isDeclaration()) {
+      checker.reportError(tree, "typevarbounds.declaration.changed", typeVar);
+    }
+    if (firstRecursiveUse == null) {
+      checker.reportError(tree, "typevarbounds.recursive.use.missing", typeVar);
+      return;
+    }
+    first.addAnnotation(BOTTOM);
+    firstRecursiveUse.addAnnotation(BOTTOM);
+
+    AnnotatedTypeVariable second = createTypeVariable(typeVar);
+    AnnotatedTypeVariable secondRecursiveUse = getRecursiveUse(second);
+    if (secondRecursiveUse == null) {
+      checker.reportError(tree, "typevarbounds.recursive.use.missing", typeVar);
+    } else if (secondRecursiveUse == firstRecursiveUse) {
+      checker.reportError(tree, "typevarbounds.recursive.use.shared", typeVar);
+    } else if (secondRecursiveUse.hasAnnotation(BOTTOM)) {
+      checker.reportError(tree, "typevarbounds.recursive.use.leaked", typeVar);
+    }
+  }
+
+  /**
+   * Creates a new, unannotated type variable with the same underlying type as {@code typeVar},
+   * whose bounds are initialized when they are first requested.
+   *
+   * @param typeVar a type variable
+   * @return a new type variable that is a declaration iff {@code typeVar} is
+   */
+  private AnnotatedTypeVariable createTypeVariable(AnnotatedTypeVariable typeVar) {
+    return (AnnotatedTypeVariable)
+        AnnotatedTypeMirror.createType(
+            typeVar.getUnderlyingType(), atypeFactory, typeVar.isDeclaration());
+  }
+
+  /**
+   * Returns the type argument of the upper bound of {@code typeVar} that is a use of {@code
+   * typeVar}, such as the second {@code T} in {@code T extends Comparable<T>}.
+   *
+   * @param typeVar a type variable
+   * @return the recursive use of {@code typeVar} in its upper bound, or null if there is none
+   */
+  private @Nullable AnnotatedTypeVariable getRecursiveUse(AnnotatedTypeVariable typeVar) {
+    AnnotatedTypeMirror upperBound = typeVar.getUpperBound();
+    if (upperBound.getKind() != TypeKind.DECLARED) {
+      return null;
+    }
+    for (AnnotatedTypeMirror typeArg : ((AnnotatedDeclaredType) upperBound).getTypeArguments()) {
+      if (typeArg.getKind() == TypeKind.TYPEVAR
+          && types.isSameType(typeArg.getUnderlyingType(), typeVar.getUnderlyingType())) {
+        return (AnnotatedTypeVariable) typeArg;
+      }
+    }
+    return null;
+  }
+}
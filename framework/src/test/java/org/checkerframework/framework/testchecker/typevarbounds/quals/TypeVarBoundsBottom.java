@@ -0,0 +1,15 @@
+package org.checkerframework.framework.testchecker.typevarbounds.quals;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.checkerframework.framework.qual.SubtypeOf;
+
+/** The bottom qualifier of the TypeVarBounds type system. */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE_USE, ElementType.TYPE_PARAMETER})
+@SubtypeOf(TypeVarBoundsTop.class)
+public @interface TypeVarBoundsBottom {}
@@ -0,0 +1,105 @@
+import org.checkerframework.framework.testchecker.testaccumulation.qual.*;
+
+// Each predicate is evaluated both in its compiled form and by walking its syntax tree; the test
+// checker crashes if the two disagree.
+public class PredicateOperators {
+
+  class Foo {
+    void a() {}
+
+    void b() {}
+
+    void c() {}
+
+    void andOfOr(@TestAccumulationPredicate("a && (b || c)") Foo this) {}
+
+    void orOfAnd(@TestAccumulationPredicate("(a && b) || c") Foo this) {}
+
+    void notOfAnd(@TestAccumulationPredicate("!(a && b)") Foo this) {}
+
+    void nestedNot(@TestAccumulationPredicate("!a || !(b || !c)") Foo this) {}
+
+    void redundantParens(@TestAccumulationPredicate("((a) || b) && !(c)") Foo this) {}
+  }
+
+  void andOfOr(
+      Foo none,
+      @TestAccumulation("a") Foo a,
+      @TestAccumulation({"a", "b"}) Foo ab,
+      @TestAccumulation({"a", "c"}) Foo ac,
+      @TestAccumulation({"b", "c"}) Foo bc) {
+    // :: error: (method.invocation)
+    none.andOfOr();
+    // :: error: (method.invocation)
+    a.andOfOr();
+    ab.andOfOr();
+    ac.andOfOr();
+    // :: error: (method.invocation)
+    bc.andOfOr();
+  }
+
+  void orOfAnd(
+      @TestAccumulation("a") Foo a,
+      @TestAccumulation("b") Foo b,
+      @TestAccumulation("c") Foo c,
+      @TestAccumulation({"a", "b"}) Foo ab) {
+    // :: error: (method.invocation)
+    a.orOfAnd();
+    // :: error: (method.invocation)
+    b.orOfAnd();
+    c.orOfAnd();
+    ab.orOfAnd();
+  }
+
+  void notOfAnd(
+      Foo none,
+      @TestAccumulation("a") Foo a,
+      @TestAccumulation({"a", "b"}) Foo ab,
+      @TestAccumulation({"a", "b", "c"}) Foo abc) {
+    none.notOfAnd();
+    a.notOfAnd();
+    // :: error: (method.invocation)
+    ab.notOfAnd();
+    // :: error: (method.invocation)
+    abc.notOfAnd();
+  }
+
+  void nestedNot(
+      Foo none,
+      @TestAccumulation("a") Foo a,
+      @TestAccumulation({"a", "c"}) Foo ac,
+      @TestAccumulation({"a", "b", "c"}) Foo abc) {
+    none.nestedNot();
+    // :: error: (method.invocation)
+    a.nestedNot();
+    ac.nestedNot();
+    // :: error: (method.invocation)
+    abc.nestedNot();
+  }
+
+  void redundantParens(
+      Foo none,
+      @TestAccumulation("a") Foo a,
+      @TestAccumulation("b") Foo b,
+      @TestAccumulation({"a", "c"}) Foo ac) {
+    // :: error: (method.invocation)
+    none.redundantParens();
+    a.redundantParens();
+    b.redundantParens();
+    // :: error: (method.invocation)
+    ac.redundantParens();
+  }
+
+  void afterCalls(Foo f) {
+    f.a();
+    // :: error: (method.invocation)
+    f.andOfOr();
+    f.c();
+    f.andOfOr();
+    f.orOfAnd();
+    f.notOfAnd();
+    f.nestedNot();
+    // :: error: (method.invocation)
+    f.redundantParens();
+  }
+}
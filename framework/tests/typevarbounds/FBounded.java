@@ -0,0 +1,23 @@
+import org.checkerframework.framework.testchecker.typevarbounds.quals.TypeVarBoundsBottom;
+
+// :: warning: (typevarbounds.recursive.use.checked) :: warning: (typevarbounds.recursive.use.checked)
+public class FBounded<T extends Comparable<T>, E extends Enum<E>, N extends Number> {
+
+  // :: warning: (typevarbounds.recursive.use.checked)
+  T t;
+
+  // :: warning: (typevarbounds.recursive.use.checked)
+  @TypeVarBoundsBottom T bottomT;
+
+  // :: warning: (typevarbounds.recursive.use.checked)
+  @TypeVarBoundsBottom E bottomE;
+
+  N n;
+
+  // :: warning: (typevarbounds.recursive.use.checked)
+  <S extends Comparable<S>> void method(
+      // :: warning: (typevarbounds.recursive.use.checked)
+      @TypeVarBoundsBottom S bottomS,
+      // :: warning: (typevarbounds.recursive.use.checked)
+      S s) {}
+}
@@ -0,0 +1,35 @@
+import org.checkerframework.common.value.qual.IntVal;
+
+public class BlockVisitLimit {
+
+  // Facts that do not change in a loop are kept even after the block visit limit is reached.
+  void stableFact(@IntVal(5) int five, int n) {
+    int x = five;
+    for (int i = 0; i < n; i++) {
+      String s = "a" + i;
+    }
+    @IntVal(5) int y = x;
+  }
+
+  // Facts that change in every iteration are discarded.
+  void unstableFact(int n) {
+    int x = 0;
+    while (x < n) {
+      x = x + 1;
+    }
+    // :: error: (assignment)
+    @IntVal(0) int y = x;
+  }
+
+  // Without the limit, x is @IntVal({0, 1}) after the loop.  With a limit of 1, the second store
+  // that flows into the loop condition is merged by keeping only the facts that did not change,
+  // so the fact about x is discarded.
+  void discardedOnlyBecauseOfLimit(boolean b) {
+    int x = 0;
+    while (b) {
+      x = 1;
+    }
+    // :: error: (assignment)
+    @IntVal({0, 1}) int y = x;
+  }
+}
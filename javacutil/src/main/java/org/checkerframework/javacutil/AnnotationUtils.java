@@ -1167,6 +1167,68 @@ public class AnnotationUtils {
     return compareAnnotationValue(av1, av2) == 0;
   }
 
+  /**
+   * Returns a hash code for the given annotation that is consistent with {@link
+   * #areSame(AnnotationMirror, AnnotationMirror)}: it depends on the name of the annotation and on
+   * the values of its elements, and an element that is explicitly set to its default value hashes
+   * the same as an element that is not set. Only the explicitly-set elements are visited, so the
+   * hash code of an annotation without elements is as cheap as that of its name.
+   *
+   * @param anno an annotation
+   * @return a hash code for {@code anno}
+   */
+  public static int annotationHashCode(AnnotationMirror anno) {
+    int result = annotationName(anno).hashCode();
+    for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+        anno.getElementValues().entrySet()) {
+      ExecutableElement meth = entry.getKey();
+      // Subtracting the hash code of the default value makes an explicit default contribute 0.
+      int valueHash =
+          annotationValueHashCode(entry.getValue())
+              - annotationValueHashCode(meth.getDefaultValue());
+      result += meth.getSimpleName().hashCode() * valueHash;
+    }
+    return result;
+  }
+
+  /**
+   * Returns a hash code for the given annotation value that is consistent with {@link
+   * #sameAnnotationValue}.
+   *
+   * @param av an annotation value, or null
+   * @return a hash code for {@code av}
+   */
+  private static int annotationValueHashCode(@Nullable AnnotationValue av) {
+    return av == null ? 0 : annotationValueValueHashCode(av.getValue());
+  }
+
+  /**
+   * Returns a hash code for the given value of an annotation value that is consistent with
+   * {@code compareAnnotationValueValue}.
+   *
+   * @param val a value returned by {@code AnnotationValue.getValue()}, or null
+   * @return a hash code for {@code val}
+   */
+  private static int annotationValueValueHashCode(@Nullable Object val) {
+    if (val == null) {
+      return 0;
+    } else if (val instanceof List<?>) {
+      int result = 1;
+      for (Object elt : (List<?>) val) {
+        result = 31 * result + annotationValueValueHashCode(elt);
+      }
+      return result;
+    } else if (val instanceof AnnotationMirror) {
+      return annotationHashCode((AnnotationMirror) val);
+    } else if (val instanceof AnnotationValue) {
+      return annotationValueHashCode((AnnotationValue) val);
+    } else if (val instanceof Type.ClassType) {
+      // Type.ClassType does not override hashCode; see TypesUtils.areSameDeclaredTypes.
+      return ((Type.ClassType) val).tsym.name.hashCode();
+    }
+    return val.hashCode();
+  }
+
   /**
    * Returns true if an AnnotationValue list contains the given value.
    *